@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// Clause and Literal methods the prover calls for every resolvent: Clause.toString backs Clause.equals and the
+// database rows, hashCode and equals back the resolvent sets. width is the number of literals in the clause.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClauseBenchmark {
+
+    private static final Class<?> CLAUSE = DefaultPackage.type("Clause");
+
+    private static final MethodHandle PARSE_CLAUSE = DefaultPackage
+            .staticMethod("ClauseParser", "parseClause", CLAUSE, String.class);
+    private static final MethodHandle NEW_LITERAL = DefaultPackage
+            .constructor("Literal", String.class, String.class, boolean.class);
+    private static final MethodHandle CLAUSE_TO_STRING = DefaultPackage
+            .virtualMethod("Clause", "toString", String.class);
+    private static final MethodHandle CLAUSE_HASH_CODE = DefaultPackage
+            .virtualMethod("Clause", "hashCode", int.class);
+    private static final MethodHandle CLAUSE_EQUALS = DefaultPackage
+            .virtualMethod("Clause", "equals", boolean.class, Object.class);
+    private static final MethodHandle LITERAL_HASH_CODE = DefaultPackage
+            .virtualMethod("Literal", "hashCode", int.class);
+
+    @Param({"1", "4", "8"})
+    public int width;
+
+    private Object clause;
+    private Object equalClause; // same literals, different instance
+    private Object literal;
+
+    @Setup
+    public void setUp() throws Throwable {
+        StringBuilder text = new StringBuilder("¬Human(x)");
+        for (int i = 1; i < width; i++) {
+            text.append(" ∨ Pred").append(i).append("(Arg").append(i).append(')');
+        }
+        clause = PARSE_CLAUSE.invoke(text.toString());
+        equalClause = PARSE_CLAUSE.invoke(text.toString());
+        literal = NEW_LITERAL.invoke("Human", "Socrates", false);
+    }
+
+    @Benchmark
+    public String clauseToString() throws Throwable {
+        return (String) CLAUSE_TO_STRING.invoke(clause);
+    }
+
+    @Benchmark
+    public int clauseHashCode() throws Throwable {
+        return (int) CLAUSE_HASH_CODE.invoke(clause);
+    }
+
+    @Benchmark
+    public boolean clauseEquals() throws Throwable {
+        return (boolean) CLAUSE_EQUALS.invoke(clause, equalClause);
+    }
+
+    @Benchmark
+    public int literalHashCode() throws Throwable {
+        return (int) LITERAL_HASH_CODE.invoke(literal);
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Parse rate of ClauseParser.parseClause in clauses per second, over a mix of clause shapes like the ones the
+// Database reads back: nil, units and longer clauses using every separator, with and without negation.
+// Run with: mvn -Pjmh package -DskipTests && java -jar target/benchmarks.jar ClauseParserBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClauseParserBenchmark {
+
+    private static final MethodHandle PARSE_CLAUSE = DefaultPackage
+            .staticMethod("ClauseParser", "parseClause", DefaultPackage.type("Clause"), String.class);
+
+    private static final int CLAUSE_COUNT = 4096; // power of two so the index can wrap with a mask
+
+    @Param({"1", "3", "8"})
+    public int maxLiterals;
+
+    private String[] clauses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] separators = {" ∨ ", " | ", ", "};
+        clauses = new String[CLAUSE_COUNT];
+        for (int i = 0; i < CLAUSE_COUNT; i++) {
+            int literals = random.nextInt(maxLiterals + 1);
+            if (literals == 0) {
+                clauses[i] = "nil";
+                continue;
+            }
+            StringBuilder clause = new StringBuilder();
+            for (int j = 0; j < literals; j++) {
+                if (j > 0) {
+                    clause.append(separators[random.nextInt(separators.length)]);
+                }
+                if (random.nextBoolean()) {
+                    clause.append('¬');
+                }
+                clause.append("Pred").append(random.nextInt(64))
+                        .append('(').append("arg").append(random.nextInt(256)).append(')');
+            }
+            clauses[i] = clause.toString();
+        }
+    }
+
+    // one parsed clause per invocation, so ops/s is clauses/s
+    @Benchmark
+    public Object parseClause() throws Throwable {
+        String clause = clauses[next];
+        next = (next + 1) & (CLAUSE_COUNT - 1);
+        return PARSE_CLAUSE.invoke(clause);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLAUSE_COUNT)
+    public void parseAll(Blackhole blackhole) throws Throwable {
+        for (String clause : clauses) {
+            blackhole.consume(PARSE_CLAUSE.invoke(clause));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// JMH refuses benchmark classes in the default package, and code in a named package cannot name the prover's
+// classes, so the benchmarks reach them through method handles. Held in static final fields the handles are
+// constants to the JIT and get inlined like a direct call.
+final class DefaultPackage {
+
+    private DefaultPackage() {
+    }
+
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className, true, DefaultPackage.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Class not found: " + className, e);
+        }
+    }
+
+    static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        Class<?> owner = type(className);
+        try {
+            return lookup(owner).findStatic(owner, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Method not found: " + className + "." + name, e);
+        }
+    }
+
+    static MethodHandle virtualMethod(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        Class<?> owner = type(className);
+        try {
+            return lookup(owner).findVirtual(owner, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Method not found: " + className + "." + name, e);
+        }
+    }
+
+    static MethodHandle constructor(String className, Class<?>... parameters) {
+        Class<?> owner = type(className);
+        try {
+            return lookup(owner).findConstructor(owner, MethodType.methodType(void.class, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Constructor not found: " + className, e);
+        }
+    }
+
+    // a private lookup so private helpers of the prover (unify, createResolvent) can be benchmarked too
+    private static MethodHandles.Lookup lookup(Class<?> owner) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+    }
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Four threads reporting a batch the way ProverThread used to (println on a shared PrintStream, so every call takes
+// the stream's lock and makes a write call) against logging through SLF4J: with the async Logback appender of
+// logback.xml, and in quiet mode where the level check turns the call into a flag test. Output goes to /dev/null
+// so the benchmark measures the contention and the write calls rather than the terminal.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingContentionBenchmark {
+
+    private PrintStream console;
+    private OutputStream sinkStream;
+    private AsyncAppender asyncAppender;
+    private Logger asyncLogger;
+    private Logger quietLogger;
+
+    @State(Scope.Thread)
+    public static class Worker {
+        int id;
+        int unresolved = 100;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            id = threads.getThreadIndex();
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        console = new PrintStream(sink(), true);
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} %-5level [%thread] %logger{0} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        sinkStream = sink();
+        output.setOutputStream(sinkStream);
+        output.start();
+
+        // the settings of the ASYNC appender in logback.xml
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(0);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(output);
+        asyncAppender.start();
+
+        ch.qos.logback.classic.Logger async = context.getLogger("benchmarks.async");
+        async.setAdditive(false);
+        async.setLevel(Level.TRACE);
+        async.addAppender(asyncAppender);
+        asyncLogger = async;
+
+        ch.qos.logback.classic.Logger quiet = context.getLogger("benchmarks.quiet");
+        quiet.setLevel(Level.WARN);
+        quietLogger = quiet;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        asyncAppender.stop();
+        console.close();
+        sinkStream.close();
+    }
+
+    private static OutputStream sink() throws IOException {
+        File devNull = new File("/dev/null");
+        return devNull.exists() ? new FileOutputStream(devNull) : OutputStream.nullOutputStream();
+    }
+
+    @Benchmark
+    public void systemOutPrintln(Worker worker) {
+        console.println("Working on unresolved on Thread: " + worker.id);
+    }
+
+    @Benchmark
+    public void asyncLogger(Worker worker) {
+        if (asyncLogger.isTraceEnabled()) {
+            asyncLogger.trace("Thread {} working on {} unresolved clauses", worker.id, worker.unresolved);
+        }
+    }
+
+    @Benchmark
+    public void quietLogger(Worker worker) {
+        if (quietLogger.isTraceEnabled()) {
+            quietLogger.trace("Thread {} working on {} unresolved clauses", worker.id, worker.unresolved);
+        }
+    }
+}
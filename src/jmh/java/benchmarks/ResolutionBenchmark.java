@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The resolution inner loop: resolve on a clause pair with one complementary literal, and the unify and
+// createResolvent steps it is made of. width is the number of literals in each clause.
+// Run with: java -jar target/benchmarks.jar ResolutionBenchmark (allocation per operation is reported as
+// gc.alloc.rate.norm)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResolutionBenchmark {
+
+    private static final Class<?> CLAUSE = DefaultPackage.type("Clause");
+    private static final Class<?> LITERAL = DefaultPackage.type("Literal");
+
+    private static final MethodHandle PARSE_CLAUSE = DefaultPackage
+            .staticMethod("ClauseParser", "parseClause", CLAUSE, String.class);
+    private static final MethodHandle NEW_LITERAL = DefaultPackage
+            .constructor("Literal", String.class, String.class, boolean.class);
+    private static final MethodHandle RESOLVE = DefaultPackage
+            .staticMethod("ResolutionTheoremProver", "resolve", List.class, CLAUSE, CLAUSE);
+    private static final MethodHandle UNIFY = DefaultPackage
+            .staticMethod("ResolutionTheoremProver", "unify", Map.class, LITERAL, LITERAL);
+    private static final MethodHandle CREATE_RESOLVENT = DefaultPackage.staticMethod("ResolutionTheoremProver",
+            "createResolvent", CLAUSE, CLAUSE, CLAUSE, LITERAL, LITERAL, Map.class);
+
+    @Param({"2", "4", "8"})
+    public int width;
+
+    private Object rule;
+    private Object fact;
+    private Object ruleLiteral;
+    private Object factLiteral;
+    private Object substitution;
+
+    // ¬Man(x) ∨ Mortal(x) ∨ A1(x) ... against Man(Socrates) ∨ B1(Socrates) ...
+    @Setup
+    public void setUp() throws Throwable {
+        StringBuilder ruleText = new StringBuilder("¬Man(x) ∨ Mortal(x)");
+        StringBuilder factText = new StringBuilder("Man(Socrates) ∨ Wise(Socrates)");
+        for (int i = 2; i < width; i++) {
+            ruleText.append(" ∨ A").append(i).append("(x)");
+            factText.append(" ∨ ¬B").append(i).append("(Socrates)");
+        }
+        rule = PARSE_CLAUSE.invoke(ruleText.toString());
+        fact = PARSE_CLAUSE.invoke(factText.toString());
+        ruleLiteral = NEW_LITERAL.invoke("Man", "x", false);
+        factLiteral = NEW_LITERAL.invoke("Man", "Socrates", true);
+        substitution = UNIFY.invoke(ruleLiteral, factLiteral);
+    }
+
+    @Benchmark
+    public Object resolve() throws Throwable {
+        return RESOLVE.invoke(rule, fact);
+    }
+
+    @Benchmark
+    public Object unify() throws Throwable {
+        return UNIFY.invoke(ruleLiteral, factLiteral);
+    }
+
+    @Benchmark
+    public Object createResolvent() throws Throwable {
+        return CREATE_RESOLVENT.invoke(rule, fact, ruleLiteral, factLiteral, substitution);
+    }
+}
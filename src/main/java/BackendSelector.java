@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Picks the engine a proof runs on from the clauses in the store (the starting set and the negated goal). With AUTO
+//   - a Horn set (at most one positive literal per clause) goes to HornProver
+//   - any other ground set (no literal has a variable) goes to CdclSolver
+//   - everything else is resolved against the store
+// GROUND runs ground sets on GroundResolver instead. Forcing an engine on clauses it can not handle is an error.
+public class BackendSelector {
+
+    // the engine and, unless it is RESOLUTION, the clauses it starts from
+    public record Selection(ProverConfig.Backend backend, List<Clause> clauses) {
+    }
+
+    private BackendSelector() {
+    }
+
+    // The store is read in chunks, and with AUTO the scan stops at the first clause that is neither ground nor Horn
+    // once the clauses before it ruled out the other property.
+    public static Selection select(ClauseStore store, ProverConfig.Backend backend) {
+        if (backend == ProverConfig.Backend.RESOLUTION) {
+            return new Selection(backend, null);
+        }
+
+        List<Clause> clauses = new ArrayList<>();
+        boolean ground = true;
+        boolean horn = true;
+        int nextId = 1;
+        while (true) {
+            ArrayList<Clause> chunk = store.getClauses(nextId, Constants.CLAUSE_FILE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (Clause clause : chunk) {
+                ground &= clause.isGround();
+                horn &= clause.isHorn();
+                if (!ground && !horn && backend == ProverConfig.Backend.AUTO) {
+                    return new Selection(ProverConfig.Backend.RESOLUTION, null);
+                }
+                clauses.add(clause);
+                nextId = Math.max(nextId, clause.getId() + 1);
+            }
+        }
+
+        switch (backend) {
+            case AUTO -> {
+                if (horn) {
+                    return new Selection(ProverConfig.Backend.HORN, clauses);
+                }
+                return new Selection(ground ? ProverConfig.Backend.CDCL : ProverConfig.Backend.RESOLUTION,
+                        ground ? clauses : null);
+            }
+            case HORN -> {
+                if (!horn) {
+                    throw new IllegalArgumentException("The HORN backend needs a Horn clause set");
+                }
+            }
+            default -> {
+                if (!ground) {
+                    throw new IllegalArgumentException("The " + backend + " backend needs a ground clause set");
+                }
+            }
+        }
+        return new Selection(backend, clauses);
+    }
+}
@@ -0,0 +1,258 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Adjusts the batch sizes of a running proof. Workers report every clause window (fetch time, resolve time and pairs
+// examined) and how long they waited for and worked on their unresolved batches. Every EPOCH_WINDOWS windows the
+// tuner looks at the last epoch:
+//   - clause batch size: hill climbing on throughput, pairs examined per nanosecond spent fetching and resolving.
+//     After the first epoch the tuner probes one step away and keeps the step only when the HOLD epochs at the new
+//     size beat the best size by more than NOISE. Otherwise it goes back, tries the other direction once, and then
+//     stays. Proof times vary by about 30% from run to run, so NOISE is above that and smaller gains are not chased.
+//   - unresolved batch size: when workers were starved (idle for more than STARVED_SHARE of their time) while most
+//     claims got a full batch, a few workers hold all the work and batches are split finer. Starvation with partial
+//     claims just means there was no work, smaller batches would not help. Otherwise when more than OVERHEAD_SHARE of
+//     the time on a batch goes to anything but resolving (fetching windows, saving resolvents, marking the batch
+//     resolved) batches grow, so that work is shared by more unresolved clauses. Either condition has to hold for
+//     HOLD epochs in a row.
+// Sizes move by a factor of STEP and stay between 1/8 and 8 times the configured size. Changing sizes mid-proof is
+// safe: windows still cover every id below the batch, and claimed batches never overlap.
+//
+// The tuner is experimental. On the sweep it was measured with it stays within the run to run noise of the best
+// static sizes but does not beat them, tuning the static sizes for a workload is still the better choice.
+//
+// A tuner for a config without autoTune only hands out the configured sizes, its timers return 0 and reports are
+// ignored.
+public class BatchAutoTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchAutoTuner.class);
+
+    static final int EPOCH_WINDOWS = 64;
+    static final double STEP = 1.5;
+    static final double STARVED_SHARE = 0.25;
+    static final double OVERHEAD_SHARE = 0.2;
+    static final double NOISE = 0.35;
+    static final int HOLD = 2;
+    private static final int RANGE = 8;
+
+    private final boolean adaptive;
+    private final int workerCount;
+    private final int minClauseBatchSize;
+    private final int maxClauseBatchSize;
+    private final int minUnresolvedBatchSize;
+    private final int maxUnresolvedBatchSize;
+
+    private volatile int clauseBatchSize;
+    private volatile int unresolvedBatchSize;
+
+    // measurements of the current epoch
+    private final AtomicInteger windows = new AtomicInteger(0);
+    private final LongAdder fetchNanos = new LongAdder();
+    private final LongAdder resolveNanos = new LongAdder();
+    private final LongAdder pairs = new LongAdder();
+    private final LongAdder idleNanos = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder fullClaims = new LongAdder();
+
+    // hill climbing state, only touched while holding the monitor
+    private double bestThroughput = Double.NaN;
+    private int bestClauseBatchSize;
+    private double probeThroughput = 0;
+    private int probeEpochs = 0;
+    private int direction = 1;
+    private boolean directionFixed = false; // a step was kept or the other direction was tried
+    private boolean settled = false;
+    private int starvedEpochs = 0;
+    private int overheadEpochs = 0;
+    private int adjustments = 0;
+
+    public BatchAutoTuner(ProverConfig config) {
+        this.adaptive = config.isAutoTune();
+        this.workerCount = config.getWorkerCount();
+        this.clauseBatchSize = config.getClauseBatchSize();
+        this.unresolvedBatchSize = config.getUnresolvedBatchSize();
+        this.minClauseBatchSize = Math.max(1, clauseBatchSize / RANGE);
+        this.maxClauseBatchSize = clauseBatchSize * RANGE;
+        this.minUnresolvedBatchSize = Math.max(1, unresolvedBatchSize / RANGE);
+        this.maxUnresolvedBatchSize = unresolvedBatchSize * RANGE;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public int getClauseBatchSize() {
+        return clauseBatchSize;
+    }
+
+    public int getUnresolvedBatchSize() {
+        return unresolvedBatchSize;
+    }
+
+    // number of epochs that changed a batch size
+    public synchronized int getAdjustments() {
+        return adjustments;
+    }
+
+    // start of a measured section, 0 unless the tuner is adaptive
+    public long startTimer() {
+        return adaptive ? System.nanoTime() : 0;
+    }
+
+    // a clause window was fetched, returns the start of its resolution
+    public long windowFetched(long start) {
+        if (start == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        fetchNanos.add(now - start);
+        return now;
+    }
+
+    public void windowResolved(long start, long pairsExamined) {
+        if (start != 0) {
+            windowMeasured(0, System.nanoTime() - start, pairsExamined);
+        }
+    }
+
+    public void batchClaimed(int claimed, int requested) {
+        if (adaptive) {
+            claims.increment();
+            if (claimed >= requested) {
+                fullClaims.increment();
+            }
+        }
+    }
+
+    // time a worker spent waiting for and claiming an unresolved batch
+    public void workerIdle(long start) {
+        if (start != 0) {
+            idleNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // time a worker spent on an unresolved batch
+    public void workerBusy(long start) {
+        if (start != 0) {
+            busyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // the measurements without the clock, for tests
+    void windowMeasured(long fetch, long resolve, long pairsExamined) {
+        fetchNanos.add(fetch);
+        resolveNanos.add(resolve);
+        pairs.add(pairsExamined);
+        if (windows.incrementAndGet() % EPOCH_WINDOWS == 0) {
+            adjust();
+        }
+    }
+
+    void workerMeasured(long idle, long busy) {
+        idleNanos.add(idle);
+        busyNanos.add(busy);
+    }
+
+    private synchronized void adjust() {
+        long fetch = fetchNanos.sumThenReset();
+        long resolve = resolveNanos.sumThenReset();
+        long examined = pairs.sumThenReset();
+        long idle = idleNanos.sumThenReset();
+        long busy = busyNanos.sumThenReset();
+        long claimCount = claims.sumThenReset();
+        long fullClaimCount = fullClaims.sumThenReset();
+        if (fetch + resolve == 0) {
+            return;
+        }
+
+        int oldClauseBatchSize = clauseBatchSize;
+        int oldUnresolvedBatchSize = unresolvedBatchSize;
+
+        double throughput = (double) examined / (fetch + resolve);
+        climb(throughput);
+
+        double idleShare = idle + busy == 0 ? 0 : (double) idle / (idle + busy);
+        // without batch times (the single threaded prover) only the fetches count as overhead
+        double overheadShare = busy > 0 ? Math.max(0, busy - resolve) / (double) busy
+                : (double) fetch / (fetch + resolve);
+        boolean hoarded = workerCount > 1 && claimCount > 0 && fullClaimCount * 2 >= claimCount;
+        boolean starved = idleShare > STARVED_SHARE && hoarded;
+        boolean overhead = !starved && overheadShare > OVERHEAD_SHARE;
+        starvedEpochs = starved ? starvedEpochs + 1 : 0;
+        overheadEpochs = overhead ? overheadEpochs + 1 : 0;
+        if (starvedEpochs == HOLD) {
+            unresolvedBatchSize = scale(unresolvedBatchSize, -1, minUnresolvedBatchSize, maxUnresolvedBatchSize);
+            starvedEpochs = 0;
+        } else if (overheadEpochs == HOLD) {
+            unresolvedBatchSize = scale(unresolvedBatchSize, 1, minUnresolvedBatchSize, maxUnresolvedBatchSize);
+            overheadEpochs = 0;
+        }
+
+        if (clauseBatchSize != oldClauseBatchSize || unresolvedBatchSize != oldUnresolvedBatchSize) {
+            adjustments++;
+            if (log.isDebugEnabled()) {
+                log.debug("Tuner: {} pairs/ms, idle {}%, overhead {}%, clause batch {} -> {}, unresolved batch {} -> {}",
+                        Math.round(throughput * 1e6), Math.round(idleShare * 100), Math.round(overheadShare * 100),
+                        oldClauseBatchSize, clauseBatchSize, oldUnresolvedBatchSize, unresolvedBatchSize);
+            }
+        }
+    }
+
+    // called with the monitor held
+    private void climb(double throughput) {
+        if (settled) {
+            return;
+        }
+        if (Double.isNaN(bestThroughput)) {
+            bestThroughput = throughput;
+            bestClauseBatchSize = clauseBatchSize;
+            probe();
+            return;
+        }
+        probeThroughput += throughput;
+        if (++probeEpochs < HOLD) {
+            return;
+        }
+        double probed = probeThroughput / HOLD;
+        if (probed > bestThroughput * (1 + NOISE)) {
+            bestThroughput = probed;
+            bestClauseBatchSize = clauseBatchSize;
+            directionFixed = true;
+            probe();
+        } else {
+            clauseBatchSize = bestClauseBatchSize;
+            if (directionFixed) {
+                settled = true;
+            } else {
+                directionFixed = true;
+                direction = -direction;
+                probe();
+            }
+        }
+    }
+
+    // one step away from the best size, or settle there when both directions are used up
+    private void probe() {
+        probeThroughput = 0;
+        probeEpochs = 0;
+        int next = scale(bestClauseBatchSize, direction, minClauseBatchSize, maxClauseBatchSize);
+        if (next == bestClauseBatchSize && !directionFixed) {
+            directionFixed = true;
+            direction = -direction;
+            next = scale(bestClauseBatchSize, direction, minClauseBatchSize, maxClauseBatchSize);
+        }
+        if (next == bestClauseBatchSize) {
+            settled = true;
+        } else {
+            clauseBatchSize = next;
+        }
+    }
+
+    static int scale(int size, int direction, int min, int max) {
+        int scaled = direction > 0 ? (int) Math.ceil(size * STEP) : (int) (size / STEP);
+        return Math.max(min, Math.min(max, scaled));
+    }
+}
@@ -1,37 +1,13 @@
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 public class Benchmark {
-    public static void main(String[] args) {
-
-        Results[] results = new Results[25];
-        try {
-            for (int i = 1; i < 26; i++) {
-                long totalSingleTime = 0;
-                long totalMultiTime = 0;
-                Example example = new Benchmark().nSizedExample(i * 5);
-
-                for (int j = 0; j < 5; j++) {
-                    Results run = example.runExample();
-                    totalSingleTime += run.singleThreadTime;
-                    totalMultiTime += run.multiThreadTime;
-                }
-
-                results[i - 1] = new Results(totalSingleTime / 3, totalMultiTime / 3);
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-
-        for (int i = 0; i < results.length; i++) {
-            System.out.print("Clause N: " + (i + 1) * 5);
-            System.out.print("\tSingle: " + results[i].singleThreadTime + "ms");
-            System.out.print("\tMulti: " + results[i].multiThreadTime + "ms\t");
-            System.out.print("Difference:" + Math.abs(results[i].multiThreadTime - results[i].singleThreadTime) + "ms");
-            System.out.println("\tMulti Faster:" + results[i].multiThreadIsFaster());
-        }
+    // see BenchmarkHarness for the options, without any this compares the provers on nSizedExample(5..125)
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkHarness.main(args);
     }
 
     public Example simpleExample() {
@@ -235,11 +211,13 @@ public class Benchmark {
 
         public Results runExample() throws InterruptedException {
             System.out.println(this);
+            // with AUTO both would hand a Horn example to HornProver and measure the same engine
+            ProverConfig config = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION);
 
             // Run ResolutionTheoremProver
             long startTimeSingle = System.currentTimeMillis();
             ResolutionTheoremProver singleResolver = new ResolutionTheoremProver(clauses);
-            boolean singleResult = singleResolver.prove(negation);
+            boolean singleResult = singleResolver.prove(negation, config);
             long endTimeSingle = System.currentTimeMillis();
             long singleTime = endTimeSingle - startTimeSingle;
             System.out.println("SingleThreadResolver: " + singleResult + " (Time: " + singleTime + "ms)");
@@ -247,7 +225,7 @@ public class Benchmark {
             // Run MultiThreadResolver
             long startTimeMulti = System.currentTimeMillis();
             MultiThreadedResolver multiResolver = new MultiThreadedResolver(clauses);
-            boolean multiResult = multiResolver.prove(negation);
+            boolean multiResult = multiResolver.prove(negation, config);
             long endTimeMulti = System.currentTimeMillis();
             long multiTime = endTimeMulti - startTimeMulti;
 
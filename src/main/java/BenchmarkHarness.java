@@ -0,0 +1,460 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Macro benchmark of the single threaded and multi threaded provers.
+//
+// Every size is proved warmup times to let the JIT compile the hot paths, then runs times for the measurement. Each
+// run gets a fresh store (a SQLite file, or a ClauseLog directory with --store log), so no run sees the clauses or
+// resolvents of another, and only prove is timed (with System.nanoTime). With --store image every size is compiled
+// into a KbImage once and each run opens a ClauseLog over it. For every prover and size the harness reports the
+// median, the 95th percentile and a 95% confidence interval for the median.
+//
+// Results are written as CSV in the shape docs/graph.py reads (n, "Single Threaded(ms)", "Multi Threaded (ms)",
+// Difference, followed by the extra statistics) and optionally as JSON. Given a baseline CSV from an earlier run,
+// a size is reported as a regression when its median is more than tolerance slower than the baseline median and
+// the lower end of its confidence interval is still above it; main then exits with status 1.
+//
+// Usage: BenchmarkHarness [--workload chain|horn|distractor|pigeonhole|3cnf|<file.p|file.cnf>] [--sizes 5,10,...]
+//                         [--warmup 2] [--runs 5] [--seed 33] [--csv docs/results.csv] [--json results.json]
+//                         [--baseline baseline.csv] [--tolerance 0.10] [--metrics on|off] [--auto-tune on|off]
+//                         [--backend auto|resolution|horn|cdcl|ground] [--inference binary|hyper|ur]
+//                         [--selection all|maximal|negative] [--precedence P,Q,...] [--max-literals 0]
+//                         [--max-depth 0] [--preprocess none|all|duplicates,subsumption,...]
+//                         [--store sqlite|log|image]
+//        BenchmarkHarness --mode sweep [--threads 1,2,4] [--clause-batch-sizes 150,300,600]
+//                         [--unresolved-batch-sizes 100] and the workload, size and run options above (see ScalingSweep)
+public class BenchmarkHarness {
+
+    public static class Options {
+        String mode = "compare";
+        String workload = "chain";
+        int[] sizes = null;
+        int warmup = 2;
+        int runs = 5;
+        long seed = 33;
+        Path csv = null;
+        Path json = null;
+        Path baseline = null;
+        double tolerance = 0.10;
+        boolean metrics = true; // timing metrics of MultiThreadedResolver, off to measure their overhead
+        boolean autoTune = false; // BatchAutoTuner in both provers, the sweep adds tuned points to the static ones
+        // the store search, so both provers and their worker counts are measured (AUTO runs Horn sets in memory)
+        ProverConfig.Backend backend = ProverConfig.Backend.RESOLUTION;
+        ProverConfig.Inference inference = ProverConfig.Inference.BINARY; // the inference rule of the store search
+        LiteralSelection selection = LiteralSelection.ALL; // the literals binary resolution resolves on
+        ClauseLimits limits = ClauseLimits.NONE; // the resolvents the store search keeps, 0 is unbounded
+        Set<Preprocessor.Stage> preprocessing = Preprocessor.NONE; // run on the starting set before every proof
+        String store = "sqlite"; // the ClauseStore of every run: a Database, a ClauseLog with "log" or "image"
+
+        // sweep mode
+        int[] threads = defaultThreads();
+        int[] clauseBatchSizes = {Constants.CLAUSE_BATCH_SIZE / 2, Constants.CLAUSE_BATCH_SIZE,
+                Constants.CLAUSE_BATCH_SIZE * 2};
+        int[] unresolvedBatchSizes = {Constants.UNRESOLVED_BATCH_SIZE};
+
+        private static int[] defaultSizes(String mode) {
+            if (mode.equals("sweep")) {
+                return new int[]{20, 40, 80};
+            }
+            int[] sizes = new int[25];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = (i + 1) * 5;
+            }
+            return sizes;
+        }
+
+        // 1, 2, 4, ... up to twice the processor count, always including the processor count itself
+        private static int[] defaultThreads() {
+            int cores = Runtime.getRuntime().availableProcessors();
+            TreeSet<Integer> threads = new TreeSet<>();
+            for (int count = 1; count <= 2 * cores; count *= 2) {
+                threads.add(count);
+            }
+            threads.add(cores);
+            threads.add(2 * cores);
+            return threads.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] parseList(String value) {
+            return Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        }
+
+        private static boolean parseSwitch(String value) {
+            return switch (value) {
+                case "on" -> true;
+                case "off" -> false;
+                default -> throw new IllegalArgumentException("Expected on or off but found " + value);
+            };
+        }
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            String selection = "all";
+            String precedence = null;
+            int maxLiterals = 0;
+            int maxDepth = 0;
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                switch (flag) {
+                    case "--mode" -> options.mode = value;
+                    case "--workload" -> options.workload = value;
+                    case "--sizes" -> options.sizes = parseList(value);
+                    case "--threads" -> options.threads = parseList(value);
+                    case "--clause-batch-sizes" -> options.clauseBatchSizes = parseList(value);
+                    case "--unresolved-batch-sizes" -> options.unresolvedBatchSizes = parseList(value);
+                    case "--warmup" -> options.warmup = Integer.parseInt(value);
+                    case "--runs" -> options.runs = Integer.parseInt(value);
+                    case "--seed" -> options.seed = Long.parseLong(value);
+                    case "--csv" -> options.csv = Path.of(value);
+                    case "--json" -> options.json = Path.of(value);
+                    case "--baseline" -> options.baseline = Path.of(value);
+                    case "--tolerance" -> options.tolerance = Double.parseDouble(value);
+                    case "--metrics" -> options.metrics = parseSwitch(value);
+                    case "--auto-tune" -> options.autoTune = parseSwitch(value);
+                    case "--backend" -> options.backend = ProverConfig.Backend.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--inference" ->
+                            options.inference = ProverConfig.Inference.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--selection" -> selection = value;
+                    case "--precedence" -> precedence = value;
+                    case "--max-literals" -> maxLiterals = Integer.parseInt(value);
+                    case "--max-depth" -> maxDepth = Integer.parseInt(value);
+                    case "--preprocess" -> options.preprocessing = Preprocessor.parseStages(value);
+                    case "--store" -> options.store = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + flag);
+                }
+            }
+            if (!options.mode.equals("compare") && !options.mode.equals("sweep")) {
+                throw new IllegalArgumentException("mode must be compare or sweep");
+            }
+            if (!options.store.equals("sqlite") && !options.store.equals("log") && !options.store.equals("image")) {
+                throw new IllegalArgumentException("store must be sqlite, log or image");
+            }
+            if (options.mode.equals("sweep") && !options.store.equals("sqlite")) {
+                // the sweep reports the insert rate and lock waits of Database
+                throw new IllegalArgumentException("the sweep only runs on the sqlite store");
+            }
+            options.selection = LiteralSelection.parse(selection, precedence);
+            options.limits = new ClauseLimits(maxLiterals, maxDepth);
+            if (options.sizes == null) {
+                options.sizes = defaultSizes(options.mode);
+            }
+            if (options.csv == null) {
+                options.csv = Path.of("docs", options.mode.equals("sweep") ? "sweep.csv" : "results.csv");
+            }
+            if (options.warmup < 0 || options.runs <= 0 || options.sizes.length == 0 || options.tolerance < 0
+                    || options.threads.length == 0 || options.clauseBatchSizes.length == 0
+                    || options.unresolvedBatchSizes.length == 0) {
+                throw new IllegalArgumentException("warmup can not be negative, runs and every list must be given");
+            }
+            return options;
+        }
+    }
+
+    // order statistics of one prover at one size, in milliseconds
+    public static class Summary {
+        final double[] samples;
+        final double median;
+        final double p95;
+        final double mean;
+        final double ciLow;
+        final double ciHigh;
+
+        Summary(double[] samples) {
+            this.samples = samples.clone();
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            int n = sorted.length;
+
+            this.median = n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+            this.p95 = sorted[Math.max(0, (int) Math.ceil(0.95 * n) - 1)]; // nearest rank
+            this.mean = Arrays.stream(sorted).sum() / n;
+
+            // distribution free interval for the median: the order statistics n/2 -+ 1.96 * sqrt(n) / 2 (normal
+            // approximation of the binomial), which widens to the whole sample for small n
+            double halfWidth = 1.96 * Math.sqrt(n) / 2;
+            int low = (int) Math.floor(n / 2.0 - halfWidth);
+            int high = (int) Math.ceil(n / 2.0 + halfWidth);
+            this.ciLow = sorted[Math.max(0, low)];
+            this.ciHigh = sorted[Math.min(n - 1, high)];
+        }
+    }
+
+    public static class Result {
+        final int n;
+        final Summary single;
+        final Summary multi;
+
+        Result(int n, Summary single, Summary multi) {
+            this.n = n;
+            this.single = single;
+            this.multi = multi;
+        }
+    }
+
+    private final Options options;
+    private final Path storeDirectory;
+    private int storeCount = 0;
+    private KbImage image = null; // the problem of the current size with --store image
+
+    public BenchmarkHarness(Options options) throws IOException {
+        this.options = options;
+        this.storeDirectory = Files.createTempDirectory("prover-benchmark");
+    }
+
+    public List<Result> run() throws IOException, InterruptedException {
+        List<Result> results = new ArrayList<>();
+        try {
+            for (int size : sizes()) {
+                Problem problem = problem(options, size);
+                int n = isFile(options) ? problem.size() : size;
+                if (options.store.equals("image")) {
+                    image = KbImage.compile(problem.getClauses(), Preprocessor.NONE,
+                            storeDirectory.resolve("kb" + n + ".img"));
+                }
+
+                double[] single = new double[options.runs];
+                double[] multi = new double[options.runs];
+                for (int run = -options.warmup; run < options.runs; run++) {
+                    double singleTime = timeSingle(problem);
+                    double multiTime = timeMulti(problem);
+                    if (run >= 0) {
+                        single[run] = singleTime;
+                        multi[run] = multiTime;
+                    }
+                }
+
+                Result result = new Result(n, new Summary(single), new Summary(multi));
+                results.add(result);
+                System.out.printf(Locale.ROOT,
+                        "n=%d\tsingle median %.3fms p95 %.3fms\tmulti median %.3fms p95 %.3fms%n",
+                        n, result.single.median, result.single.p95, result.multi.median, result.multi.p95);
+            }
+        } finally {
+            deleteStores();
+        }
+        return results;
+    }
+
+    private int[] sizes() {
+        return sizes(options);
+    }
+
+    // a problem file has a single size
+    static int[] sizes(Options options) {
+        return isFile(options) ? new int[]{0} : options.sizes;
+    }
+
+    static boolean isFile(Options options) {
+        return options.workload.contains(".");
+    }
+
+    static Problem problem(Options options, int size) throws IOException {
+        ProblemGenerator generator = new ProblemGenerator(options.seed);
+        return switch (options.workload) {
+            case "chain" -> {
+                Benchmark.Example example = new Benchmark().nSizedExample(size);
+                yield new Problem("chain-" + size, example.clauses, example.negation);
+            }
+            case "horn" -> generator.randomHorn(size, 2 * size, 3);
+            case "distractor" -> generator.distractorKb(size, 1.0);
+            case "pigeonhole" -> generator.pigeonhole(size + 1, size);
+            case "3cnf" -> generator.randomKCnf(size, 4.26, 3);
+            default -> {
+                Path file = Path.of(options.workload);
+                yield file.toString().endsWith(".cnf") ? DimacsImporter.load(file) : TptpImporter.load(file);
+            }
+        };
+    }
+
+    private double timeSingle(Problem problem) throws InterruptedException, IOException {
+        Path store = newStore();
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(openStore(problem, store));
+        try {
+            long start = System.nanoTime();
+            prover.prove(problem.getNegatedGoal(), config());
+            return (System.nanoTime() - start) / 1_000_000.0;
+        } finally {
+            prover.closeDatabase();
+            deleteStore(store);
+        }
+    }
+
+    private double timeMulti(Problem problem) throws IOException {
+        Path store = newStore();
+        MultiThreadedResolver prover = new MultiThreadedResolver(openStore(problem, store));
+        prover.getMetrics().setEnabled(options.metrics);
+        try {
+            long start = System.nanoTime();
+            prover.prove(problem.getNegatedGoal(), config());
+            return (System.nanoTime() - start) / 1_000_000.0;
+        } finally {
+            prover.closeDatabase();
+            deleteStore(store);
+        }
+    }
+
+    private ProverConfig config() {
+        return ProverConfig.defaults().withAutoTune(options.autoTune).withBackend(options.backend)
+                .withInference(options.inference).withSelection(options.selection).withLimits(options.limits)
+                .withPreprocessing(options.preprocessing);
+    }
+
+    private ClauseStore openStore(Problem problem, Path store) {
+        return switch (options.store) {
+            case "log" -> new ClauseLog(problem.getClauses(), store);
+            case "image" -> ClauseLog.fromImage(image, store);
+            default -> new Database(problem.getClauses(), url(store));
+        };
+    }
+
+    private Path newStore() {
+        return storeDirectory.resolve("run" + storeCount++ + (options.store.equals("sqlite") ? ".sqlite3" : ".log"));
+    }
+
+    static String url(Path store) {
+        return "jdbc:sqlite:" + store;
+    }
+
+    static void deleteStore(Path store) throws IOException {
+        if (Files.isDirectory(store)) {
+            // the segments of a ClauseLog
+            try (var files = Files.list(store)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        Files.deleteIfExists(store);
+        Files.deleteIfExists(Path.of(store + "-wal"));
+        Files.deleteIfExists(Path.of(store + "-shm"));
+    }
+
+    private void deleteStores() throws IOException {
+        try (var files = Files.list(storeDirectory)) {
+            for (Path file : files.toList()) {
+                deleteStore(file);
+            }
+        }
+        Files.deleteIfExists(storeDirectory);
+    }
+
+    public static void writeCsv(List<Result> results, Path file) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        csv.append("n,\"Single Threaded(ms)\",\"Multi Threaded (ms)\",Difference,")
+                .append("\"Single p95 (ms)\",\"Single CI low (ms)\",\"Single CI high (ms)\",")
+                .append("\"Multi p95 (ms)\",\"Multi CI low (ms)\",\"Multi CI high (ms)\"\n");
+        for (Result result : results) {
+            csv.append(String.format(Locale.ROOT, "%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    result.n, result.single.median, result.multi.median,
+                    Math.abs(result.multi.median - result.single.median),
+                    result.single.p95, result.single.ciLow, result.single.ciHigh,
+                    result.multi.p95, result.multi.ciLow, result.multi.ciHigh));
+        }
+        write(file, csv.toString());
+    }
+
+    public static void writeJson(List<Result> results, Options options, Path file) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.ROOT, "{\"workload\": \"%s\", \"warmup\": %d, \"runs\": %d, \"seed\": %d, "
+                        + "\"results\": [",
+                options.workload.replace("\\", "\\\\").replace("\"", "\\\""), options.warmup, options.runs,
+                options.seed));
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("  {\"n\": ").append(result.n)
+                    .append(", \"single\": ").append(toJson(result.single))
+                    .append(", \"multi\": ").append(toJson(result.multi)).append('}');
+        }
+        json.append("\n]}\n");
+        write(file, json.toString());
+    }
+
+    private static String toJson(Summary summary) {
+        StringBuilder samples = new StringBuilder();
+        for (int i = 0; i < summary.samples.length; i++) {
+            samples.append(i == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.3f", summary.samples[i]));
+        }
+        return String.format(Locale.ROOT, "{\"median_ms\": %.3f, \"p95_ms\": %.3f, \"mean_ms\": %.3f, "
+                        + "\"ci_low_ms\": %.3f, \"ci_high_ms\": %.3f, \"samples_ms\": [%s]}",
+                summary.median, summary.p95, summary.mean, summary.ciLow, summary.ciHigh, samples);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    // one message per size and prover that got slower than the baseline CSV allows
+    public static List<String> compareToBaseline(List<Result> results, Path baseline, double tolerance)
+            throws IOException {
+        List<String> regressions = new ArrayList<>();
+        List<String> lines = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+
+        for (Result result : results) {
+            for (String line : lines.subList(1, lines.size())) {
+                String[] columns = line.split(",");
+                if (columns.length < 3 || Integer.parseInt(columns[0].trim()) != result.n) {
+                    continue;
+                }
+                check("single threaded", result.n, result.single, Double.parseDouble(columns[1]), tolerance,
+                        regressions);
+                check("multi threaded", result.n, result.multi, Double.parseDouble(columns[2]), tolerance,
+                        regressions);
+            }
+        }
+        return regressions;
+    }
+
+    private static void check(String prover, int n, Summary current, double baselineMedian, double tolerance,
+                              List<String> regressions) {
+        if (current.median > baselineMedian * (1 + tolerance) && current.ciLow > baselineMedian) {
+            regressions.add(String.format(Locale.ROOT,
+                    "n=%d %s: median %.3fms (CI %.3f-%.3fms) vs baseline %.3fms",
+                    n, prover, current.median, current.ciLow, current.ciHigh, baselineMedian));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        if (options.mode.equals("sweep")) {
+            ScalingSweep.sweep(options);
+            return;
+        }
+        List<Result> results = new BenchmarkHarness(options).run();
+
+        // compare before writing, the baseline may be the file that is about to be replaced
+        List<String> regressions = options.baseline == null ? List.of()
+                : compareToBaseline(results, options.baseline, options.tolerance);
+
+        writeCsv(results, options.csv);
+        System.out.println("Wrote " + options.csv);
+        if (options.json != null) {
+            writeJson(results, options, options.json);
+            System.out.println("Wrote " + options.json);
+        }
+
+        if (options.baseline != null) {
+            if (!regressions.isEmpty()) {
+                System.out.println("Performance regressions against " + options.baseline + ":");
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                System.exit(1);
+            }
+            System.out.println("No regressions against " + options.baseline);
+        }
+    }
+}
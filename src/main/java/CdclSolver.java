@@ -0,0 +1,480 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Conflict driven clause learning SAT solver for ground clause sets, in the style of MiniSat. A ground refutation
+// problem is proved exactly when its clauses are unsatisfiable, so this decides the same question as saturating
+// the clauses with resolution, usually in a tiny fraction of the time.
+//   - atoms are numbered 0..n-1 and literal 2v is atom v, 2v + 1 its negation
+//   - two watched literals: a clause is only visited when one of its two watched literals becomes false, and the
+//     watch moves to another literal that is not false unless the clause became unit or conflicting
+//   - VSIDS: the variables of every learned clause have their activity bumped and all activities decay after each
+//     conflict (by bumping with a growing increment), decisions take the most active unassigned variable from a
+//     heap and reuse its last polarity (phase saving)
+//   - conflicts are analysed to the first unique implication point, the learned clause is minimized by dropping
+//     literals implied by the others and the search jumps back to the second highest level in it
+//   - restarts follow the Luby sequence in units of RESTART_UNIT conflicts
+// Learned clauses are kept for the whole search. An instance solves once.
+public class CdclSolver {
+
+    static final int RESTART_UNIT = 100;
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double RESCALE_LIMIT = 1e100;
+
+    private static final byte UNASSIGNED = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private final List<Literal> atoms = new ArrayList<>();
+    private final int variableCount;
+    private final List<int[]> clauses = new ArrayList<>();
+    private final IntList[] watches;
+    private boolean conflictAtStart = false;
+
+    // assignment
+    private final byte[] values;
+    private final int[] levels;
+    private final int[] reasons; // index of the clause that implied the variable, -1 for decisions
+    private final boolean[] phases; // last value of every variable, true for positive
+    private final int[] trail;
+    private int trailSize = 0;
+    private int propagated = 0;
+    private final IntList levelStarts = new IntList();
+
+    // VSIDS
+    private final double[] activity;
+    private double activityIncrement = 1;
+    private final int[] heap;
+    private final int[] heapPositions;
+    private int heapSize = 0;
+
+    // conflict analysis
+    private final boolean[] seen;
+    private final IntList learned = new IntList();
+
+    private long conflicts = 0;
+    private long decisions = 0;
+    private long propagations = 0;
+    private long restarts = 0;
+    private int learnedClauses = 0;
+
+    public CdclSolver(List<Clause> clauses) {
+        Map<Literal, Integer> numbers = new HashMap<>();
+        List<int[]> encoded = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            int[] literals = new int[clause.size()];
+            int size = 0;
+            for (Literal literal : clause.getLiterals()) {
+                if (!literal.isGround()) {
+                    throw new IllegalArgumentException("Clause " + clause + " is not ground");
+                }
+                Literal atom = literal.isPositive() ? literal : literal.negate();
+                int variable = numbers.computeIfAbsent(atom, key -> {
+                    atoms.add(key);
+                    return atoms.size() - 1;
+                });
+                literals[size++] = 2 * variable + (literal.isPositive() ? 0 : 1);
+            }
+            encoded.add(literals);
+        }
+
+        variableCount = atoms.size();
+        watches = new IntList[2 * variableCount];
+        for (int i = 0; i < watches.length; i++) {
+            watches[i] = new IntList();
+        }
+        values = new byte[variableCount];
+        levels = new int[variableCount];
+        reasons = new int[variableCount];
+        phases = new boolean[variableCount];
+        trail = new int[variableCount];
+        activity = new double[variableCount];
+        heap = new int[variableCount];
+        heapPositions = new int[variableCount];
+        seen = new boolean[variableCount];
+        Arrays.fill(heapPositions, -1);
+        for (int variable = 0; variable < variableCount; variable++) {
+            heapInsert(variable);
+        }
+
+        for (int[] literals : encoded) {
+            addClause(literals);
+        }
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getPropagations() {
+        return propagations;
+    }
+
+    public long getRestarts() {
+        return restarts;
+    }
+
+    public int getLearnedClauses() {
+        return learnedClauses;
+    }
+
+    // adds a starting clause, units are assigned at level 0
+    private void addClause(int[] literals) {
+        if (conflictAtStart) {
+            return;
+        }
+        Set<Integer> distinct = new HashSet<>();
+        for (int literal : literals) {
+            if (distinct.contains(literal ^ 1)) {
+                return; // tautology
+            }
+            distinct.add(literal);
+        }
+
+        if (literals.length == 0) {
+            conflictAtStart = true;
+        } else if (literals.length == 1) {
+            byte value = value(literals[0]);
+            if (value == FALSE) {
+                conflictAtStart = true;
+            } else if (value == UNASSIGNED) {
+                assign(literals[0], -1);
+            }
+        } else {
+            clauses.add(literals);
+            watches[literals[0]].add(clauses.size() - 1);
+            watches[literals[1]].add(clauses.size() - 1);
+        }
+    }
+
+    // true when the clauses are satisfiable, getModel then holds a satisfying assignment
+    public boolean solve() throws InterruptedException {
+        if (conflictAtStart || propagate() >= 0) {
+            return false;
+        }
+
+        for (int run = 1; ; run++) {
+            long conflictLimit = (long) RESTART_UNIT * luby(run);
+            long runConflicts = 0;
+            while (true) {
+                int conflict = propagate();
+                if (conflict >= 0) {
+                    conflicts++;
+                    runConflicts++;
+                    if (levelStarts.size == 0) {
+                        return false;
+                    }
+                    learn(conflict);
+                    activityIncrement /= VARIABLE_DECAY;
+                    if ((conflicts & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                } else if (runConflicts >= conflictLimit) {
+                    restarts++;
+                    backtrack(0);
+                    break;
+                } else {
+                    int variable = nextDecision();
+                    if (variable < 0) {
+                        return true;
+                    }
+                    decisions++;
+                    levelStarts.add(trailSize);
+                    assign(2 * variable + (phases[variable] ? 0 : 1), -1);
+                }
+            }
+        }
+    }
+
+    // the literals that are true in the model found by solve
+    public List<Literal> getModel() {
+        List<Literal> model = new ArrayList<>(variableCount);
+        for (int variable = 0; variable < variableCount; variable++) {
+            model.add(values[variable] == FALSE ? atoms.get(variable).negate() : atoms.get(variable));
+        }
+        return model;
+    }
+
+    private byte value(int literal) {
+        byte value = values[literal >> 1];
+        return (literal & 1) == 0 ? value : (byte) -value;
+    }
+
+    private void assign(int literal, int reason) {
+        int variable = literal >> 1;
+        values[variable] = (literal & 1) == 0 ? TRUE : FALSE;
+        levels[variable] = levelStarts.size;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    // unit propagation over the watches, returns the index of a conflicting clause or -1
+    private int propagate() {
+        while (propagated < trailSize) {
+            int falseLiteral = trail[propagated++] ^ 1;
+            propagations++;
+            IntList watching = watches[falseLiteral];
+            int[] indexes = watching.values;
+            int kept = 0;
+            for (int i = 0; i < watching.size; i++) {
+                int index = indexes[i];
+                int[] clause = clauses.get(index);
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (value(clause[0]) == TRUE) {
+                    indexes[kept++] = index;
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (value(clause[k]) != FALSE) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        watches[clause[1]].add(index);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                indexes[kept++] = index;
+                if (value(clause[0]) == FALSE) {
+                    while (++i < watching.size) {
+                        indexes[kept++] = indexes[i];
+                    }
+                    watching.size = kept;
+                    propagated = trailSize;
+                    return index;
+                }
+                assign(clause[0], index);
+            }
+            watching.size = kept;
+        }
+        return -1;
+    }
+
+    // learns the first UIP clause of the conflict, jumps back and asserts it
+    private void learn(int conflict) {
+        int level = levelStarts.size;
+        learned.size = 0;
+        learned.add(-1); // the asserting literal
+        int pending = 0;
+        int literal = -1;
+        int position = trailSize - 1;
+        int[] clause = clauses.get(conflict);
+
+        while (true) {
+            for (int k = literal < 0 ? 0 : 1; k < clause.length; k++) {
+                int variable = clause[k] >> 1;
+                if (!seen[variable] && levels[variable] > 0) {
+                    bump(variable);
+                    seen[variable] = true;
+                    if (levels[variable] >= level) {
+                        pending++;
+                    } else {
+                        learned.add(clause[k]);
+                    }
+                }
+            }
+            while (!seen[trail[position] >> 1]) {
+                position--;
+            }
+            literal = trail[position--];
+            seen[literal >> 1] = false;
+            if (--pending == 0) {
+                break;
+            }
+            clause = clauses.get(reasons[literal >> 1]);
+        }
+        learned.values[0] = literal ^ 1;
+
+        // drop literals whose reason only contains literals of the clause or of level 0
+        int[] candidates = Arrays.copyOf(learned.values, learned.size);
+        int kept = 1;
+        for (int i = 1; i < candidates.length; i++) {
+            int variable = candidates[i] >> 1;
+            if (reasons[variable] < 0 || !impliedByLearned(clauses.get(reasons[variable]))) {
+                learned.values[kept++] = candidates[i];
+            }
+        }
+        for (int i = 1; i < candidates.length; i++) {
+            seen[candidates[i] >> 1] = false;
+        }
+        learned.size = kept;
+
+        // the literal of the highest remaining level is watched next to the asserting one
+        int backtrackLevel = 0;
+        for (int i = 1; i < learned.size; i++) {
+            int variableLevel = levels[learned.values[i] >> 1];
+            if (variableLevel > backtrackLevel) {
+                backtrackLevel = variableLevel;
+                int swap = learned.values[1];
+                learned.values[1] = learned.values[i];
+                learned.values[i] = swap;
+            }
+        }
+
+        backtrack(backtrackLevel);
+        int[] literals = Arrays.copyOf(learned.values, learned.size);
+        if (literals.length == 1) {
+            assign(literals[0], -1);
+        } else {
+            clauses.add(literals);
+            learnedClauses++;
+            watches[literals[0]].add(clauses.size() - 1);
+            watches[literals[1]].add(clauses.size() - 1);
+            assign(literals[0], clauses.size() - 1);
+        }
+    }
+
+    private boolean impliedByLearned(int[] reason) {
+        for (int k = 1; k < reason.length; k++) {
+            int variable = reason[k] >> 1;
+            if (!seen[variable] && levels[variable] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void backtrack(int level) {
+        if (levelStarts.size <= level) {
+            return;
+        }
+        int start = levelStarts.values[level];
+        for (int i = trailSize - 1; i >= start; i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = values[variable] == TRUE;
+            values[variable] = UNASSIGNED;
+            if (heapPositions[variable] < 0) {
+                heapInsert(variable);
+            }
+        }
+        trailSize = start;
+        propagated = start;
+        levelStarts.size = level;
+    }
+
+    private int nextDecision() {
+        while (heapSize > 0) {
+            int variable = heapRemoveMax();
+            if (values[variable] == UNASSIGNED) {
+                return variable;
+            }
+        }
+        return -1;
+    }
+
+    private void bump(int variable) {
+        activity[variable] += activityIncrement;
+        if (activity[variable] > RESCALE_LIMIT) {
+            for (int i = 0; i < variableCount; i++) {
+                activity[i] /= RESCALE_LIMIT;
+            }
+            activityIncrement /= RESCALE_LIMIT;
+        }
+        if (heapPositions[variable] >= 0) {
+            siftUp(heapPositions[variable]);
+        }
+    }
+
+    // 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ... for i = 1, 2, 3, ...
+    static long luby(int i) {
+        int k = 1;
+        while ((1L << k) - 1 < i) {
+            k++;
+        }
+        while (i != (1L << k) - 1) {
+            i -= (int) (1L << (k - 1)) - 1;
+            k = 1;
+            while ((1L << k) - 1 < i) {
+                k++;
+            }
+        }
+        return 1L << (k - 1);
+    }
+
+    // binary max heap of the variables by activity
+    private void heapInsert(int variable) {
+        heap[heapSize] = variable;
+        heapPositions[variable] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapPositions[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPositions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int variable = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (activity[heap[parent]] >= activity[variable]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapPositions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = variable;
+        heapPositions[variable] = position;
+    }
+
+    private void siftDown(int position) {
+        int variable = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[variable]) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapPositions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = variable;
+        heapPositions[variable] = position;
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -4,6 +4,7 @@ public class Clause {
 
     private int id; // Non negative number (defaults to -1 if there is no id)
     private Set<Literal> literals;
+    private int depth = 0; // inferences between the starting set and this clause
 
     public Clause() {
         this(-1, new HashSet<Literal>());
@@ -32,6 +33,16 @@ public class Clause {
         this.id = id;
     }
 
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("depth cannot be negative");
+        this.depth = depth;
+    }
+
     public void addLiteral(Literal literal) {
         literals.add(literal);
     }
@@ -48,10 +59,49 @@ public class Clause {
         return this.literals.contains(literal);
     }
 
+    public boolean isGround() {
+        for (Literal literal : this.literals) {
+            if (!literal.isGround()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // at most one positive literal
+    public boolean isHorn() {
+        int positive = 0;
+        for (Literal literal : this.literals) {
+            if (literal.isPositive()) {
+                positive++;
+            }
+        }
+        return positive <= 1;
+    }
+
     public int size() {
         return this.literals.size();
     }
 
+    // 64-bit fingerprint that does not depend on literal order, equal clauses always share a fingerprint
+    public long fingerprint() {
+        long fingerprint = 0;
+        for (Literal literal : this.literals) {
+            fingerprint += mix(literal.fingerprint());
+        }
+        return mix(fingerprint + this.literals.size());
+    }
+
+    // murmur3 finalizer, spreads every input bit over the whole word
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.literals);
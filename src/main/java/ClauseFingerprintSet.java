@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+// A process-wide set of 64-bit clause fingerprints, used to drop duplicate resolvents before they reach the
+// database. The set is split into independently locked stripes so workers rarely contend on the same lock.
+// Two different clauses sharing a fingerprint would make the second one look like a duplicate; with 64-bit
+// fingerprints this needs billions of stored clauses to become likely.
+public class ClauseFingerprintSet {
+
+    private static final long EMPTY = 0L;
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L; // stands in for a fingerprint of 0
+    private static final int INITIAL_STRIPE_CAPACITY = 1024;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public ClauseFingerprintSet() {
+        this(Constants.FINGERPRINT_SET_STRIPES);
+    }
+
+    public ClauseFingerprintSet(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be a positive number");
+        }
+        // round up to a power of two so a stripe can be picked with a mask
+        int count = Integer.highestOneBit(stripeCount);
+        if (count < stripeCount) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    // returns true if the clause had not been seen before
+    public boolean add(Clause clause) {
+        return add(clause.fingerprint());
+    }
+
+    public boolean add(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            fingerprint = ZERO_REPLACEMENT;
+        }
+        // the high bits pick the stripe, the low bits the slot inside it
+        return stripes[(int) (fingerprint >>> 40) & stripeMask].add(fingerprint);
+    }
+
+    public boolean contains(Clause clause) {
+        long fingerprint = clause.fingerprint();
+        if (fingerprint == EMPTY) {
+            fingerprint = ZERO_REPLACEMENT;
+        }
+        return stripes[(int) (fingerprint >>> 40) & stripeMask].contains(fingerprint);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    // open addressing table of fingerprints with linear probing
+    private static class Stripe {
+        private long[] table = new long[INITIAL_STRIPE_CAPACITY];
+        private int size = 0;
+
+        synchronized boolean add(long fingerprint) {
+            int mask = table.length - 1;
+            int slot = (int) fingerprint & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == fingerprint) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = fingerprint;
+            size++;
+
+            // keep the load factor under one half
+            if (size * 2 > table.length) {
+                resize();
+            }
+            return true;
+        }
+
+        synchronized boolean contains(long fingerprint) {
+            int mask = table.length - 1;
+            int slot = (int) fingerprint & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == fingerprint) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            if (table.length > INITIAL_STRIPE_CAPACITY) {
+                table = new long[INITIAL_STRIPE_CAPACITY];
+            } else {
+                Arrays.fill(table, EMPTY);
+            }
+            size = 0;
+        }
+
+        private void resize() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long fingerprint : old) {
+                if (fingerprint != EMPTY) {
+                    int slot = (int) fingerprint & mask;
+                    while (table[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = fingerprint;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Bounds on the resolvents a search keeps: the number of literals and the derivation depth (the longest chain of
+// inferences from the starting set). 0 leaves a bound off. Bounded, the search space is finite and the store can no
+// longer grow without end, but a resolvent over a bound may have been needed for the proof. The provers count the
+// resolvents they drop, a failed proof that dropped none is still final. Literals are unary in this tree, so the symbol
+// weight of a clause is twice its literal count and needs no bound of its own.
+public class ClauseLimits {
+
+    public static final ClauseLimits NONE = new ClauseLimits(0, 0);
+
+    private final int maxLiterals;
+    private final int maxDepth;
+
+    public ClauseLimits(int maxLiterals, int maxDepth) {
+        if (maxLiterals < 0 || maxDepth < 0) {
+            throw new IllegalArgumentException("limits cannot be negative");
+        }
+        this.maxLiterals = maxLiterals;
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxLiterals() {
+        return maxLiterals;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean isBounded() {
+        return maxLiterals > 0 || maxDepth > 0;
+    }
+
+    public boolean admits(Clause clause) {
+        return (maxLiterals == 0 || clause.size() <= maxLiterals) && (maxDepth == 0 || clause.getDepth() <= maxDepth);
+    }
+
+    // both bounds doubled, for the next round of IterativeDeepening
+    public ClauseLimits raised() {
+        return new ClauseLimits(maxLiterals * 2, maxDepth * 2);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ClauseLimits other && maxLiterals == other.maxLiterals && maxDepth == other.maxDepth;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * maxLiterals + maxDepth;
+    }
+
+    @Override
+    public String toString() {
+        List<String> bounds = new ArrayList<>();
+        if (maxLiterals > 0) {
+            bounds.add("literals<=" + maxLiterals);
+        }
+        if (maxDepth > 0) {
+            bounds.add("depth<=" + maxDepth);
+        }
+        return bounds.isEmpty() ? "unbounded" : String.join(" ", bounds);
+    }
+}
@@ -0,0 +1,513 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A clause store without SQL: clauses are appended in binary form to memory-mapped segment files in a directory,
+// and an in-memory index holds the position of every clause by id. Ids are dense, clause i is entry i - 1 of the
+// index. Writers append under one lock and then publish the new clause count, readers only read the count, the
+// index and the mapped segments, so range scans never take the lock. The resolved flags are a bitmap by id and the
+// claim cursor moves over it under the lock, like Database.
+//
+// A record is the depth (int), the number of literals (short) and for every literal its sign (byte), predicate and
+// argument, each as a length (unsigned short) and UTF-8 bytes. Duplicates are dropped by fingerprint, like the
+// provers drop their resolvents (see ClauseFingerprintSet). The starting set is always the first clauses of the
+// log, so flushResolvents only has to move the end of the log back.
+//
+// fromImage leaves the starting set in a KbImage: ids up to the image size are decoded from the image mapping and the
+// segments only hold the clauses added after it, so a log over an image is ready as soon as its fingerprints are read.
+public class ClauseLog implements ClauseStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasNewClauses = lock.newCondition();
+
+    // published by writers after the segments and index hold every clause up to count
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile long[] offsets = new long[1024]; // segment << 32 | position of clause id - 1
+    private volatile int count = 0;
+    private volatile int emptyClauseId = 0;
+    private volatile KbImage image = null; // the first image.size() clauses, the index starts after them
+
+    // guarded by lock
+    private int position = 0; // next free byte in the last segment
+    private int startingCount = 0;
+    private int startingSegments = 0; // the segments and position at the end of the starting set
+    private int startingPosition = 0;
+    private int nextUnclaimed = 1;
+    private final BitSet resolved = new BitSet();
+    private final ClauseFingerprintSet fingerprints = new ClauseFingerprintSet(1);
+    private long[] startingFingerprints = new long[1024]; // to refill fingerprints without decoding the log
+
+    public ClauseLog(List<Clause> clauses, Path directory) {
+        this(clauses, directory, Constants.CLAUSE_LOG_SEGMENT_SIZE);
+    }
+
+    public ClauseLog(List<Clause> clauses, Path directory, int segmentSize) {
+        this(directory, segmentSize);
+        if (clauses == null || clauses.isEmpty()) {
+            throw new IllegalArgumentException("clauses cannot be null or empty");
+        }
+        addClauses(clauses, true);
+    }
+
+    // Streams the starting set from a clause file (see ClauseParser.parseFile) one chunk at a time
+    public static ClauseLog fromFile(Path clauseFile, Path directory) {
+        if (clauseFile == null) {
+            throw new IllegalArgumentException("clauseFile cannot be null");
+        }
+
+        ClauseLog log = new ClauseLog(directory, Constants.CLAUSE_LOG_SEGMENT_SIZE);
+        long loaded;
+        try {
+            loaded = ClauseParser.parseFile(clauseFile, chunk -> log.addClauses(chunk, true));
+        } catch (IOException e) {
+            log.discard();
+            throw new RuntimeException("Failed to load clauses from " + clauseFile, e);
+        } catch (RuntimeException e) {
+            // e.g. a malformed line, the chunks before it have been written
+            log.discard();
+            throw e;
+        }
+        if (loaded == 0) {
+            log.discard();
+            throw new IllegalArgumentException("clauseFile does not contain any clauses");
+        }
+        return log;
+    }
+
+    // The starting set is read from the image whenever it is asked for, the directory only holds later clauses. The
+    // image has to stay in place while the log is open.
+    public static ClauseLog fromImage(KbImage image, Path directory) {
+        if (image == null || image.size() == 0) {
+            throw new IllegalArgumentException("image cannot be null or empty");
+        }
+
+        ClauseLog log = new ClauseLog(directory, Constants.CLAUSE_LOG_SEGMENT_SIZE);
+        log.lock.lock();
+        try {
+            long emptyClause = new Clause().fingerprint();
+            for (int i = 0; i < image.size(); i++) {
+                long fingerprint = image.fingerprint(i);
+                log.fingerprints.add(fingerprint);
+                if (fingerprint == emptyClause && log.emptyClauseId == 0) {
+                    log.emptyClauseId = i + 1;
+                }
+            }
+            log.image = image;
+            log.startingCount = image.size();
+            log.count = image.size();
+        } finally {
+            log.lock.unlock();
+        }
+        return log;
+    }
+
+    // an empty log, the starting set has to be added by the caller
+    private ClauseLog(Path directory, int segmentSize) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+        if (segmentSize < 64) {
+            throw new IllegalArgumentException("segmentSize must be at least 64 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the clause log directory " + directory, e);
+        }
+        clear();
+    }
+
+    // for a log that failed to load: drops the mappings and deletes the segments, and the directory unless it holds
+    // other files
+    private void discard() {
+        lock.lock();
+        try {
+            count = 0;
+            image = null;
+            segments = new MappedByteBuffer[0];
+            deleteSegments(0);
+            Files.deleteIfExists(directory);
+        } catch (DirectoryNotEmptyException e) {
+            // not ours to delete
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete the clause log " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addClause(Clause clause) {
+        addClauses(Collections.singletonList(clause), false);
+    }
+
+    @Override
+    public void addClauses(List<Clause> clauses) {
+        addClauses(clauses, false);
+    }
+
+    private void addClauses(List<Clause> clauses, boolean isStartingSet) {
+        if (clauses.isEmpty()) {
+            return;
+        }
+        // encoded before the lock is taken
+        byte[][] records = new byte[clauses.size()][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(clauses.get(i));
+        }
+
+        lock.lock();
+        try {
+            if (isStartingSet && count > startingCount) {
+                throw new IllegalStateException("the starting set has to be added before any other clause");
+            }
+            int added = count;
+            int base = imageSize();
+            long[] index = offsets;
+            for (int i = 0; i < records.length; i++) {
+                long fingerprint = clauses.get(i).fingerprint();
+                if (!fingerprints.add(fingerprint)) {
+                    continue;
+                }
+                if (isStartingSet) { // never over an image, replaceStartingSet drops it first
+                    if (added == startingFingerprints.length) {
+                        startingFingerprints = Arrays.copyOf(startingFingerprints, added * 2);
+                    }
+                    startingFingerprints[added] = fingerprint;
+                }
+                if (position + records[i].length > segmentSize) {
+                    newSegment();
+                }
+                segments[segments.length - 1].put(position, records[i]);
+                if (added - base == index.length) {
+                    index = Arrays.copyOf(index, index.length * 2);
+                }
+                index[added++ - base] = (long) (segments.length - 1) << 32 | position;
+                position += records[i].length;
+                if (clauses.get(i).isEmpty() && emptyClauseId == 0) {
+                    emptyClauseId = added;
+                }
+            }
+            if (added > count) {
+                offsets = index;
+                count = added; // publishes the records and the index entries to the readers
+                if (isStartingSet) {
+                    startingCount = added;
+                    startingSegments = segments.length;
+                    startingPosition = position;
+                }
+                hasNewClauses.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the lock held
+    private void newSegment() {
+        Path file = directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segments.length, SEGMENT_SUFFIX));
+        try (RandomAccessFile segment = new RandomAccessFile(file.toFile(), "rw")) {
+            segment.setLength(segmentSize);
+            MappedByteBuffer mapped = segment.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            MappedByteBuffer[] grown = Arrays.copyOf(segments, segments.length + 1);
+            grown[grown.length - 1] = mapped;
+            segments = grown;
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the clause log segment " + file, e);
+        }
+    }
+
+    private byte[] encode(Clause clause) {
+        int size = 6;
+        List<byte[]> names = new ArrayList<>(2 * clause.size());
+        for (Literal literal : clause.getLiterals()) {
+            byte[] predicate = literal.getPredicate().getBytes(StandardCharsets.UTF_8);
+            byte[] argument = literal.getArgument().getBytes(StandardCharsets.UTF_8);
+            if (predicate.length > 0xFFFF || argument.length > 0xFFFF || clause.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("clause is too large for the clause log: " + clause);
+            }
+            names.add(predicate);
+            names.add(argument);
+            size += 5 + predicate.length + argument.length;
+        }
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("clause does not fit in a segment of " + segmentSize + " bytes");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(size);
+        record.putInt(clause.getDepth()).putShort((short) clause.size());
+        int name = 0;
+        for (Literal literal : clause.getLiterals()) {
+            record.put((byte) (literal.isPositive() ? 1 : 0));
+            for (int i = 0; i < 2; i++) {
+                byte[] bytes = names.get(name++);
+                record.putShort((short) bytes.length).put(bytes);
+            }
+        }
+        return record.array();
+    }
+
+    private int imageSize() {
+        KbImage starting = image;
+        return starting == null ? 0 : starting.size();
+    }
+
+    // reads with absolute gets only, so any number of threads can decode at once
+    private Clause read(KbImage starting, MappedByteBuffer[] segments, long[] index, int id) {
+        if (starting != null && id <= starting.size()) {
+            Clause clause = starting.clause(id - 1);
+            clause.setId(id);
+            return clause;
+        }
+        long offset = index[id - 1 - (starting == null ? 0 : starting.size())];
+        MappedByteBuffer segment = segments[(int) (offset >>> 32)];
+        int at = (int) offset;
+        Clause clause = new Clause();
+        clause.setId(id);
+        clause.setDepth(segment.getInt(at));
+        int literals = segment.getShort(at + 4);
+        at += 6;
+        for (int i = 0; i < literals; i++) {
+            boolean positive = segment.get(at) == 1;
+            int predicateLength = Short.toUnsignedInt(segment.getShort(at + 1));
+            String predicate = string(segment, at + 3, predicateLength);
+            at += 3 + predicateLength;
+            int argumentLength = Short.toUnsignedInt(segment.getShort(at));
+            String argument = string(segment, at + 2, argumentLength);
+            at += 2 + argumentLength;
+            clause.addLiteral(new Literal(predicate, argument, positive));
+        }
+        return clause;
+    }
+
+    private static String string(MappedByteBuffer segment, int at, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ArrayList<Clause> getClauses(int startingIndex, int amount) {
+        int first = Math.max(startingIndex, 1);
+        return read(first, (int) Math.min((long) first + Math.max(amount, 0), Integer.MAX_VALUE));
+    }
+
+    @Override
+    public ArrayList<Clause> getClausesInRange(int startingId, int endId) {
+        return read(Math.max(startingId, 1), endId);
+    }
+
+    // the clauses with first <= id < end that have been published
+    private ArrayList<Clause> read(int first, int end) {
+        int published = count; // read first, the index and segments below hold at least this many clauses
+        KbImage starting = image;
+        MappedByteBuffer[] mapped = segments;
+        long[] index = offsets;
+        ArrayList<Clause> clauses = new ArrayList<>();
+        for (int id = first; id < end && id <= published; id++) {
+            clauses.add(read(starting, mapped, index, id));
+        }
+        return clauses;
+    }
+
+    @Override
+    public ArrayList<Clause> getUnresolvedClauses(int amount) throws InterruptedException {
+        List<Integer> claimed = new ArrayList<>();
+        lock.lock();
+        try {
+            while (nextUnclaimed > count) {
+                hasNewClauses.await();
+            }
+            int id = nextUnclaimed;
+            for (; id <= count && claimed.size() < amount; id++) {
+                if (!resolved.get(id)) {
+                    claimed.add(id);
+                }
+            }
+            nextUnclaimed = id;
+        } finally {
+            lock.unlock();
+        }
+
+        int published = count;
+        KbImage starting = image;
+        MappedByteBuffer[] mapped = segments;
+        long[] index = offsets;
+        ArrayList<Clause> clauses = new ArrayList<>(claimed.size());
+        for (int id : claimed) {
+            if (id <= published) {
+                clauses.add(read(starting, mapped, index, id));
+            }
+        }
+        return clauses;
+    }
+
+    @Override
+    public void setResolved(List<Clause> clauses) {
+        if (clauses == null || clauses.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Clause clause : clauses) {
+                if (clause.getId() > 0) {
+                    resolved.set(clause.getId());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasEmptyClause() {
+        return emptyClauseId != 0;
+    }
+
+    @Override
+    public boolean hasUnresolvedClauses() {
+        lock.lock();
+        try {
+            return nextUnclaimed <= count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the starting set is the start of the log, everything after it is dropped and its space is written over
+    @Override
+    public void flushResolvents() {
+        lock.lock();
+        try {
+            if (count > startingCount) {
+                int kept = startingCount;
+                count = kept;
+                truncate(startingSegments, startingPosition);
+                if (emptyClauseId > kept) {
+                    emptyClauseId = 0;
+                }
+                fingerprints.clear();
+                KbImage starting = image;
+                for (int i = 0; i < kept; i++) {
+                    fingerprints.add(starting != null ? starting.fingerprint(i) : startingFingerprints[i]);
+                }
+            }
+            resolved.clear();
+            nextUnclaimed = 1;
+            hasNewClauses.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clearClauses() {
+        clear();
+    }
+
+    // not overridable, so the constructor can call it
+    private void clear() {
+        lock.lock();
+        try {
+            count = 0;
+            image = null;
+            startingCount = 0;
+            emptyClauseId = 0;
+            truncate(0, 0);
+            startingSegments = segments.length;
+            startingPosition = 0;
+            fingerprints.clear();
+            resolved.clear();
+            nextUnclaimed = 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // keeps the first segmentCount segments and deletes the others, the next record is written at position of the
+    // last one kept. Called with the lock held, with no segment a new one is started.
+    private void truncate(int segmentCount, int position) {
+        deleteSegments(segmentCount);
+        segments = Arrays.copyOf(segments, segmentCount);
+        this.position = position;
+        if (segmentCount == 0) {
+            newSegment();
+        }
+    }
+
+    // deletes the segment files from the given number on
+    private void deleteSegments(int first) {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && Integer.parseInt(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())) >= first) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Failed to truncate the clause log in " + directory, e);
+        }
+    }
+
+    @Override
+    public void replaceStartingSet(List<Clause> clauses) {
+        clearClauses();
+        addClauses(clauses, true);
+    }
+
+    @Override
+    public int countClauses() {
+        return count;
+    }
+
+    // kept for the duplicate check, nothing is decoded
+    @Override
+    public long[] getStartingFingerprints() {
+        lock.lock();
+        try {
+            KbImage starting = image;
+            return starting != null ? starting.fingerprints() : Arrays.copyOf(startingFingerprints, startingCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,28 +1,47 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class ClauseParser {
 
-    private static final Pattern LITERAL_PATTERN = Pattern
-            .compile(Constants.NEGATIVE_SYMBOL + "?([a-zA-Z0-9]+)\\(([a-zA-Z0-9]+)\\)");
-    private static final Pattern CLAUSE_PATTERN = Pattern.compile("\\s*∨\\s*|\\s*\\|\\s*|\\s*,\\s*");
+    private static final char DISJUNCTION_SYMBOL = '∨';
 
     public static Clause parseClause(String clauseString) {
-        if (clauseString.equals(Constants.EMPTY_CLAUSE))
-            return new Clause();
+        return parseClause(clauseString, null);
+    }
 
+    // Single pass scanner over the clause text. Literals have to be separated by ∨, | or , (runs of separators and
+    // surrounding whitespace are allowed). Predicate and argument names are interned in symbols as they are read,
+    // symbols may be null. parseClauses and parseFile share one table per call, so it lives as long as the load.
+    public static Clause parseClause(String clauseString, SymbolTable symbols) {
         Clause clause = new Clause();
+        int length = clauseString.length();
+        int position = skipWhitespace(clauseString, 0);
+
+        if (isEmptyClause(clauseString, position))
+            return clause;
 
-        String[] atomStrings = clauseString.split(CLAUSE_PATTERN.pattern());
+        while (true) {
+            position = skipSeparators(clauseString, position);
+            if (position == length)
+                break;
 
-        for (String atomString : atomStrings) {
-            atomString = atomString.trim();
-            if (atomString.isEmpty())
-                continue;
+            position = scanLiteral(clauseString, position, clause, symbols);
 
-            Literal literal = parseLiteral(atomString);
-            if (literal != null) {
-                clause.addLiteral(literal);
+            // a literal has to be followed by a separator or the end of the clause, whitespace alone is not one
+            position = skipWhitespace(clauseString, position);
+            if (position < length && !isSeparator(clauseString.charAt(position))) {
+                throw error(clauseString, position, "expected a separator");
             }
         }
 
@@ -30,28 +49,209 @@ public class ClauseParser {
     }
 
     public static Literal parseLiteral(String atomString) {
-        Matcher matcher = LITERAL_PATTERN.matcher(atomString.trim());
+        Clause holder = new Clause();
+        int position = skipWhitespace(atomString, 0);
+        if (position == atomString.length()) {
+            throw error(atomString, position, "expected a literal");
+        }
+
+        position = scanLiteral(atomString, position, holder, null);
+        if (skipWhitespace(atomString, position) != atomString.length()) {
+            throw error(atomString, position, "unexpected input after literal");
+        }
+        return holder.getLiterals().iterator().next();
+    }
 
-        if (matcher.matches()) {
-            boolean isPositive = !atomString.startsWith(Character.toString(Constants.NEGATIVE_SYMBOL));
-            String predicate = matcher.group(1);
-            String argument = matcher.group(2);
+    // scans ¬?name(name) starting at position, adds it to clause and returns the position after the ')'
+    private static int scanLiteral(String text, int position, Clause clause, SymbolTable symbols) {
+        boolean isPositive = true;
+        if (text.charAt(position) == Constants.NEGATIVE_SYMBOL) {
+            isPositive = false;
+            position++;
+        }
 
-            return new Literal(predicate, argument, isPositive);
+        int predicateStart = position;
+        position = scanName(text, position);
+        if (position == predicateStart) {
+            throw error(text, position, "expected a predicate name");
         }
+        String predicate = name(text, predicateStart, position, symbols);
+
+        position = expect(text, position, '(');
+
+        int argumentStart = position;
+        position = scanName(text, position);
+        if (position == argumentStart) {
+            throw error(text, position, "expected an argument name");
+        }
+        String argument = name(text, argumentStart, position, symbols);
+
+        position = expect(text, position, ')');
+
+        clause.addLiteral(new Literal(predicate, argument, isPositive));
+        return position;
+    }
+
+    private static String name(String text, int start, int end, SymbolTable symbols) {
+        return symbols == null ? text.substring(start, end) : symbols.intern(text, start, end);
+    }
+
+    private static int scanName(String text, int position) {
+        while (position < text.length() && isNameChar(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int expect(String text, int position, char expected) {
+        if (position == text.length() || text.charAt(position) != expected) {
+            throw error(text, position, "expected '" + expected + "'");
+        }
+        return position + 1;
+    }
+
+    private static int skipWhitespace(String text, int position) {
+        while (position < text.length() && isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipSeparators(String text, int position) {
+        while (position < text.length()
+                && (isSeparator(text.charAt(position)) || isWhitespace(text.charAt(position)))) {
+            position++;
+        }
+        return position;
+    }
+
+    // nil, optionally surrounded by whitespace
+    private static boolean isEmptyClause(String text, int position) {
+        return text.startsWith(Constants.EMPTY_CLAUSE, position)
+                && skipWhitespace(text, position + Constants.EMPTY_CLAUSE.length()) == text.length();
+    }
 
-        throw new IllegalArgumentException("Invalid literal format: " + atomString);
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == DISJUNCTION_SYMBOL || c == '|' || c == ',';
+    }
+
+    // same set of characters String.trim removes
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    private static IllegalArgumentException error(String text, int position, String reason) {
+        String found = position < text.length() ? "'" + text.charAt(position) + "'" : "end of input";
+        return new IllegalArgumentException("Invalid literal format at position " + position + ": " + reason
+                + " but found " + found + " in \"" + text + "\"");
     }
 
     public static List<Clause> parseClauses(List<String> clauseStrings) {
         List<Clause> clauses = new ArrayList<>();
+        SymbolTable symbols = new SymbolTable();
 
         for (String clauseStr : clauseStrings) {
-            clauses.add(parseClause(clauseStr));
+            clauses.add(parseClause(clauseStr, symbols));
         }
 
         return clauses;
     }
 
-    // TODO: Add ability to load clauses from file
+    // Streams a clause file (one clause per line) to sink in chunks, parsing the chunks in parallel. Chunks are
+    // delivered in file order and only a few are held in memory at once, so the file can be larger than the heap.
+    // Blank lines and lines starting with '#' are skipped, the empty clause has to be written as nil.
+    public static long parseFile(Path file, Consumer<List<Clause>> sink) throws IOException {
+        return parseFile(file, Constants.CLAUSE_FILE_CHUNK_SIZE, Runtime.getRuntime().availableProcessors(), sink);
+    }
+
+    public static long parseFile(Path file, int chunkSize, int threads, Consumer<List<Clause>> sink)
+            throws IOException {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("chunkSize and threads must be positive numbers");
+        }
+
+        ExecutorService parsers = Executors.newFixedThreadPool(threads);
+        SymbolTable symbols = new SymbolTable(); // shared by the parsers, dropped with the load
+        Deque<Future<List<Clause>>> inFlight = new ArrayDeque<>();
+        long clauseCount = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 1 << 20)) {
+            List<String> lines = new ArrayList<>(chunkSize);
+            long firstLineNumber = 1;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLineNumber = lineNumber;
+                }
+                lines.add(line);
+
+                if (lines.size() == chunkSize) {
+                    inFlight.add(parsers.submit(parseChunk(lines, firstLineNumber, symbols)));
+                    lines = new ArrayList<>(chunkSize);
+
+                    // bound the number of parsed chunks waiting to be consumed
+                    while (inFlight.size() >= threads * 2) {
+                        clauseCount += deliver(inFlight.poll(), sink);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                inFlight.add(parsers.submit(parseChunk(lines, firstLineNumber, symbols)));
+            }
+            while (!inFlight.isEmpty()) {
+                clauseCount += deliver(inFlight.poll(), sink);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        return clauseCount;
+    }
+
+    private static Callable<List<Clause>> parseChunk(List<String> lines, long firstLineNumber,
+                                                     SymbolTable symbols) {
+        return () -> {
+            List<Clause> clauses = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    clauses.add(parseClause(line, symbols));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            "Invalid clause on line " + (firstLineNumber + i) + ": " + e.getMessage(), e);
+                }
+            }
+            return clauses;
+        };
+    }
+
+    private static int deliver(Future<List<Clause>> chunk, Consumer<List<Clause>> sink) throws IOException {
+        List<Clause> clauses;
+        try {
+            clauses = chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing clauses", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to parse clauses", e.getCause());
+        }
+        if (!clauses.isEmpty()) {
+            sink.accept(clauses);
+        }
+        return clauses.size();
+    }
 }
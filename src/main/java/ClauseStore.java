@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The operations the provers need from a clause store. Clause ids are positive, increase in insertion order and
+// are unique across the whole store.
+public interface ClauseStore {
+
+    void addClause(Clause clause);
+
+    void addClauses(List<Clause> clauses);
+
+    // returns up to amount clauses with an id >= startingIndex, in id order
+    ArrayList<Clause> getClauses(int startingIndex, int amount);
+
+    // returns every clause with startingId <= id < endId, in id order
+    ArrayList<Clause> getClausesInRange(int startingId, int endId);
+
+    // claims the next batch of unresolved clauses, blocking until there is something to claim
+    ArrayList<Clause> getUnresolvedClauses(int amount) throws InterruptedException;
+
+    void setResolved(List<Clause> clauses);
+
+    boolean hasEmptyClause();
+
+    boolean hasUnresolvedClauses();
+
+    // removes every clause outside the starting set and marks the starting set unresolved again
+    void flushResolvents();
+
+    void clearClauses();
+
+    // removes every clause and stores clauses as the new starting set, see StartingSet
+    void replaceStartingSet(List<Clause> clauses);
+
+    int countClauses();
+
+    // Clause.fingerprint of every starting clause, call after flushResolvents and before any other clause is added.
+    // Streams the store one chunk at a time, stores that keep the fingerprints return them instead.
+    default long[] getStartingFingerprints() {
+        long[] fingerprints = new long[1024];
+        int count = 0;
+        int nextId = 1;
+        while (true) {
+            List<Clause> chunk = getClauses(nextId, Constants.CLAUSE_FILE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                return Arrays.copyOf(fingerprints, count);
+            }
+            for (Clause clause : chunk) {
+                if (count == fingerprints.length) {
+                    fingerprints = Arrays.copyOf(fingerprints, count * 2);
+                }
+                fingerprints[count++] = clause.fingerprint();
+                nextId = Math.max(nextId, clause.getId() + 1);
+            }
+        }
+    }
+
+    void close();
+}
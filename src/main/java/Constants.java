@@ -4,9 +4,17 @@ public class Constants {
 
     // Literal Constants
     public static final char NEGATIVE_SYMBOL = '¬';
+    public static final String PROPOSITION_ARGUMENT = "0T"; // argument of propositional atoms, never a variable
 
     // Database Constants
     public static final int CLAUSE_BATCH_SIZE = 300;
     public static final int UNRESOLVED_BATCH_SIZE = 100;
     public static final int RESOLVENT_SAVE_THRESHOLD = 100;
+    public static final int CLAUSE_LOG_SEGMENT_SIZE = 64 << 20; // bytes mapped per segment of a ClauseLog
+
+    // Loader Constants
+    public static final int CLAUSE_FILE_CHUNK_SIZE = 10000; // lines parsed and inserted per transaction
+
+    // Deduplication Constants
+    public static final int FINGERPRINT_SET_STRIPES = 64;
 }
@@ -1,11 +1,19 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class Database {
+public class Database implements ClauseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(Database.class);
 
     private int lastRetrieved;
     private String DB_PATH;
@@ -13,6 +21,8 @@ public class Database {
     private final Condition hasNewClauses = lock.newCondition();
     private Connection conn;
     private int lastId;
+    private final LatencyHistogram lockWaits = new LatencyHistogram();
+    private final LongAdder clausesInserted = new LongAdder();
 
     public Database(List<Clause> clauses) {
         this(clauses, "jdbc:sqlite:db.sqlite3");
@@ -22,6 +32,83 @@ public class Database {
         if (clauses == null || clauses.isEmpty()) {
             throw new IllegalArgumentException("clauses cannot be null or empty");
         }
+
+        connect(dbPath);
+        clearClauses();
+
+        // fill clauses table with clauses
+        addClauses(clauses, true);
+        lastRetrieved = getFirstId();
+        lastId = getLastId();
+    }
+
+    // Streams the starting set from a clause file (see ClauseParser.parseFile), inserting every parsed chunk in its
+    // own transaction so the whole knowledge base never has to be held in memory
+    public static Database fromFile(Path clauseFile, String dbPath) {
+        if (clauseFile == null) {
+            throw new IllegalArgumentException("clauseFile cannot be null");
+        }
+
+        Database database = new Database(dbPath);
+        long loaded;
+        try {
+            loaded = ClauseParser.parseFile(clauseFile, chunk -> database.addClauses(chunk, true));
+        } catch (IOException e) {
+            database.discard();
+            throw new RuntimeException("Failed to load clauses from " + clauseFile, e);
+        } catch (RuntimeException e) {
+            // e.g. a malformed line, the chunks before it have been inserted
+            database.discard();
+            throw e;
+        }
+        if (loaded == 0) {
+            database.close();
+            throw new IllegalArgumentException("clauseFile does not contain any clauses");
+        }
+
+        database.lastRetrieved = database.getFirstId();
+        database.lastId = database.getLastId();
+        return database;
+    }
+
+    // Starts from a compiled knowledge base (see KbImage). The file remembers the image it was loaded from, so a
+    // later start on the same file and image only drops the resolvents of the last run instead of loading again.
+    public static Database fromImage(KbImage image, String dbPath) {
+        if (image == null || image.size() == 0) {
+            throw new IllegalArgumentException("image cannot be null or empty");
+        }
+
+        Database database = new Database(dbPath, false);
+        Long loaded = database.getImageFingerprint();
+        if (loaded != null && loaded == image.getFingerprint()) {
+            database.flushResolvents();
+            return database;
+        }
+        database.clearClauses();
+        for (int from = 0; from < image.size(); from += Constants.CLAUSE_FILE_CHUNK_SIZE) {
+            database.addClauses(image.clauses(from, Math.min(image.size(), from + Constants.CLAUSE_FILE_CHUNK_SIZE)),
+                    true);
+        }
+        // written last, a load that fails half way is redone on the next start
+        database.setImageFingerprint(image.getFingerprint());
+        database.lastRetrieved = database.getFirstId();
+        database.lastId = database.getLastId();
+        return database;
+    }
+
+    // an empty database, the starting set has to be added by the caller
+    private Database(String dbPath) {
+        this(dbPath, true);
+    }
+
+    private Database(String dbPath, boolean clear) {
+        connect(dbPath);
+        if (clear) {
+            clearClauses();
+        }
+    }
+
+    private void connect(String dbPath) {
         if (dbPath == null || dbPath.isEmpty()) {
             throw new IllegalArgumentException("dbPath cannot be null or empty");
         }
@@ -37,74 +124,160 @@ public class Database {
                                 "(id INTEGER PRIMARY KEY AUTOINCREMENT," +
                                 "clause TEXT UNIQUE, " +
                                 "starting_set BOOLEAN DEFAULT FALSE," +
-                                "resolved BOOLEAN DEFAULT FALSE)");
+                                "resolved BOOLEAN DEFAULT FALSE," +
+                                "depth INTEGER DEFAULT 0)");
+                addDepthColumn(conn);
+                // the image the starting set was loaded from, see fromImage
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS kb_image (fingerprint INTEGER)");
                 // Enable WAL mode
                 stmt.executeUpdate("PRAGMA journal_mode=WAL");
             }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to connect to the database", e);
         }
+    }
 
-        clearClauses();
+    // files written before clauses had a derivation depth lack the column
+    static void addDepthColumn(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet columns = stmt.executeQuery("PRAGMA table_info(clauses)")) {
+            while (columns.next()) {
+                if (columns.getString("name").equals("depth")) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE clauses ADD COLUMN depth INTEGER DEFAULT 0");
+        }
+    }
 
-        // fill clauses table with clauses
-        addClauses(clauses, true);
-        lastRetrieved = getFirstId();
-        lastId = getLastId();
+    // parses a row selected with id, clause and depth
+    static Clause readClause(ResultSet results) throws SQLException {
+        Clause clause = ClauseParser.parseClause(results.getString("clause"));
+        clause.setId(results.getInt("id"));
+        clause.setDepth(results.getInt("depth"));
+        return clause;
+    }
+
+    // drops a half loaded starting set and closes the connection
+    private void discard() {
+        clearClauses();
+        close();
     }
 
+    @Override
     public void close() {
         if (this.conn != null) {
             try {
                 this.conn.close();
             } catch (SQLException e) {
-                System.out.println(e.getMessage());
+                log.error("close failed", e);
             }
         }
     }
 
-    public void addClause(Clause clause) {
+    // time spent waiting for the lock since the last resetStatistics, summed over all threads
+    public long getLockWaitNanos() {
+        return lockWaits.getTotalNanos();
+    }
+
+    // distribution of the contended lock acquisitions, uncontended ones are not timed
+    public LatencyHistogram getLockWaitHistogram() {
+        return lockWaits;
+    }
+
+    // rows actually inserted since the last resetStatistics (duplicates are ignored by the table)
+    public long getClausesInserted() {
+        return clausesInserted.sum();
+    }
+
+    public void resetStatistics() {
+        lockWaits.reset();
+        clausesInserted.reset();
+    }
+
+    // only contended acquisitions pay for the clock reads, returns the nanoseconds spent waiting
+    private long acquireLock() {
+        if (lock.tryLock()) {
+            return 0;
+        }
+        long start = System.nanoTime();
         lock.lock();
+        long waited = System.nanoTime() - start;
+        lockWaits.record(waited);
+        return waited;
+    }
+
+    // the event is created and begun by the caller so its duration covers the whole call
+    private static void commit(DatabaseCallEvent event, String operation, int rows, long lockWaitNanos) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.lockWait = lockWaitNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void addClause(Clause clause) {
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        long lockWait = acquireLock();
+        int inserted = 0;
         try {
             String clauseString = clause.toString();
-            try (PreparedStatement stmt = conn.prepareStatement("INSERT OR IGNORE INTO clauses (clause) VALUES (?)")) {
+            try (PreparedStatement stmt = conn
+                    .prepareStatement("INSERT OR IGNORE INTO clauses (clause, depth) VALUES (?,?)")) {
                 stmt.setString(1, clauseString);
-                stmt.executeUpdate();
+                stmt.setInt(2, clause.getDepth());
+                inserted = stmt.executeUpdate();
+                clausesInserted.add(inserted);
             } catch (SQLException e) {
-                System.out.println(e.getMessage());
+                log.error("addClause failed", e);
             }
             lastId = getLastId(); // we can't use ++ as insertion may be ignored
             hasNewClauses.signalAll();
         } finally {
             lock.unlock();
+            commit(event, "addClause", inserted, lockWait);
         }
     }
 
+    @Override
     public void addClauses(List<Clause> clauses) {
         addClauses(clauses, false);
     }
 
     private void addClauses(List<Clause> clauses, boolean isStartingSet) {
-        lock.lock();
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        long lockWait = acquireLock();
+        int rows = 0;
         try (PreparedStatement pstmt = conn
-                .prepareStatement("INSERT OR IGNORE INTO clauses (clause, starting_set) VALUES (?,?)")) {
+                .prepareStatement("INSERT OR IGNORE INTO clauses (clause, starting_set, depth) VALUES (?,?,?)")) {
             conn.setAutoCommit(false);
             for (Clause clause : clauses) {
                 pstmt.setString(1, clause.toString());
                 pstmt.setBoolean(2, isStartingSet);
+                pstmt.setInt(3, clause.getDepth());
                 pstmt.addBatch();
             }
-            pstmt.executeBatch();
+            int[] inserted = pstmt.executeBatch();
             lastId = getLastId();// we can't use simple + as some insertions may be ignored
             conn.commit();
+            for (int count : inserted) {
+                rows += Math.max(count, 0);
+            }
+            clausesInserted.add(rows);
             hasNewClauses.signalAll();
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("addClauses failed", e);
             if (conn != null) {
                 try {
                     conn.rollback();
                 } catch (SQLException ex) {
-                    System.out.println(ex.getMessage());
+                    log.error("addClauses failed", ex);
                 }
             }
         } finally {
@@ -112,51 +285,79 @@ public class Database {
                 try {
                     conn.setAutoCommit(true);
                 } catch (SQLException e) {
-                    System.out.println(e.getMessage());
+                    log.error("addClauses failed", e);
                 }
             }
             lock.unlock();
+            commit(event, "addClauses", rows, lockWait);
         }
     }
 
+    @Override
     public ArrayList<Clause> getClauses(int startingIndex, int amount) {
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
         ArrayList<Clause> clauses = new ArrayList<>();
-        try (PreparedStatement pstmt = conn.prepareStatement("SELECT id, clause FROM clauses WHERE id >= ? LIMIT ?")) {
+        try (PreparedStatement pstmt = conn
+                .prepareStatement("SELECT id, clause, depth FROM clauses WHERE id >= ? LIMIT ?")) {
             pstmt.setInt(1, startingIndex);
             pstmt.setInt(2, amount);
             try (ResultSet results = pstmt.executeQuery()) {
                 while (results.next()) {
-                    Clause new_clause = ClauseParser.parseClause(results.getString("clause"));
-                    new_clause.setId(results.getInt("id"));
-                    clauses.add(new_clause);
+                    clauses.add(readClause(results));
                 }
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("getClauses failed", e);
         }
+        commit(event, "getClauses", clauses.size(), 0);
         return clauses;
     }
 
+    @Override
+    public ArrayList<Clause> getClausesInRange(int startingId, int endId) {
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        ArrayList<Clause> clauses = new ArrayList<>();
+        try (PreparedStatement pstmt = conn
+                .prepareStatement("SELECT id, clause, depth FROM clauses WHERE id >= ? AND id < ? ORDER BY id")) {
+            pstmt.setInt(1, startingId);
+            pstmt.setInt(2, endId);
+            try (ResultSet results = pstmt.executeQuery()) {
+                while (results.next()) {
+                    clauses.add(readClause(results));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("getClausesInRange failed", e);
+        }
+        commit(event, "getClausesInRange", clauses.size(), 0);
+        return clauses;
+    }
+
+    @Override
     public ArrayList<Clause> getUnresolvedClauses(int amount) throws InterruptedException {
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
         ArrayList<Clause> clauses = new ArrayList<>();
+        long lockWait = 0;
         try {
-            lock.lock();
-            while (lastRetrieved >= lastId) {
+            lockWait = acquireLock();
+            while (lastRetrieved > lastId) {
                 hasNewClauses.await();
             }
             try (PreparedStatement pstmt = conn
-                    .prepareStatement("SELECT id, clause FROM clauses WHERE resolved is FALSE AND id >= ? LIMIT ?")) {
+                    .prepareStatement(
+                            "SELECT id, clause, depth FROM clauses WHERE resolved is FALSE AND id >= ? LIMIT ?")) {
                 pstmt.setInt(1, lastRetrieved);
                 pstmt.setInt(2, amount);
                 try (ResultSet results = pstmt.executeQuery()) {
                     while (results.next()) {
-                        Clause new_clause = ClauseParser.parseClause(results.getString("clause"));
-                        new_clause.setId(results.getInt("id"));
-                        clauses.add(new_clause);
+                        clauses.add(readClause(results));
                     }
                 }
             } catch (SQLException e) {
-                System.out.println(e.getMessage());
+                log.error("getUnresolvedClauses failed", e);
             }
 
             if (!clauses.isEmpty()) {
@@ -164,10 +365,12 @@ public class Database {
             }
         } finally {
             lock.unlock();
+            commit(event, "getUnresolvedClauses", clauses.size(), lockWait);
         }
         return clauses;
     }
 
+    @Override
     public void setResolved(List<Clause> clauses) {
         if (clauses == null || clauses.isEmpty()) {
             return;
@@ -181,19 +384,24 @@ public class Database {
         String sql = "UPDATE clauses SET resolved = TRUE WHERE id IN ("
                 + String.join(",", Collections.nCopies(clauseIds.length, "?")) + ")";
 
-        lock.lock();
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        long lockWait = acquireLock();
+        int updated = 0;
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < clauseIds.length; i++) {
                 pstmt.setInt(i + 1, clauseIds[i]);
             }
-            pstmt.executeUpdate();
+            updated = pstmt.executeUpdate();
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("setResolved failed", e);
         } finally {
             lock.unlock();
+            commit(event, "setResolved", updated, lockWait);
         }
     }
 
+    @Override
     public boolean hasEmptyClause() {
         try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM clauses WHERE clause like ? LIMIT 1")) {
             stmt.setString(1, Constants.EMPTY_CLAUSE);
@@ -201,13 +409,14 @@ public class Database {
                 return results.next(); // returns true if there is at least one result
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("hasEmptyClause failed", e);
             return false;
         }
     }
 
+    @Override
     public boolean hasUnresolvedClauses() {
-        lock.lock();
+        acquireLock();
         try {
             return lastRetrieved <= lastId;
         } finally {
@@ -215,12 +424,16 @@ public class Database {
         }
     }
 
+    @Override
     public void flushResolvents() {
-        lock.lock();
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        long lockWait = acquireLock();
+        int deleted = 0;
         try {
             // clear all clauses not in the starting set;
             try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate("DELETE FROM clauses where starting_set = FALSE");
+                deleted = stmt.executeUpdate("DELETE FROM clauses where starting_set = FALSE");
 
                 // reset starting set resolved to false
                 stmt.executeUpdate("UPDATE clauses SET resolved = FALSE WHERE starting_set = TRUE");
@@ -230,7 +443,7 @@ public class Database {
                 stmt.executeUpdate("PRAGMA optimize");
                 stmt.executeUpdate("PRAGMA wal_checkpoint(TRUNCATE)");
             } catch (SQLException e) {
-                System.out.println(e.getMessage());
+                log.error("flushResolvents failed", e);
             }
             // reset lastRetrieved index to first index in the database;
             lastRetrieved = getFirstId();
@@ -238,19 +451,59 @@ public class Database {
             hasNewClauses.signalAll();
         } finally {
             lock.unlock();
+            commit(event, "flushResolvents", deleted, lockWait);
         }
     }
 
+    @Override
     public void clearClauses() {
-        lock.lock();
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        long lockWait = acquireLock();
+        int deleted = 0;
         try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate("DELETE FROM clauses");
+            deleted = stmt.executeUpdate("DELETE FROM clauses");
+            stmt.executeUpdate("DELETE FROM kb_image");
             // reset autoincrement
             stmt.executeUpdate("DELETE FROM sqlite_sequence WHERE name='clauses'");
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("clearClauses failed", e);
         } finally {
             lock.unlock();
+            commit(event, "clearClauses", deleted, lockWait);
+        }
+    }
+
+    @Override
+    public void replaceStartingSet(List<Clause> clauses) {
+        clearClauses();
+        addClauses(clauses, true);
+        lock.lock();
+        try {
+            lastRetrieved = getFirstId();
+            lastId = getLastId();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // null when the starting set was not loaded from an image or has been changed since
+    private Long getImageFingerprint() {
+        try (Statement stmt = conn.createStatement();
+             ResultSet result = stmt.executeQuery("SELECT fingerprint FROM kb_image LIMIT 1")) {
+            return result.next() ? result.getLong("fingerprint") : null;
+        } catch (SQLException e) {
+            log.error("getImageFingerprint failed", e);
+            return null;
+        }
+    }
+
+    private void setImageFingerprint(long fingerprint) {
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO kb_image (fingerprint) VALUES (?)")) {
+            pstmt.setLong(1, fingerprint);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error("setImageFingerprint failed", e);
         }
     }
 
@@ -261,7 +514,7 @@ public class Database {
                 return result.getInt("id");
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("getFirstId failed", e);
         }
         return -1;
     }
@@ -273,11 +526,12 @@ public class Database {
                 return result.getInt("id");
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("getLastId failed", e);
         }
         return -1;
     }
 
+    @Override
     public int countClauses() {
         int count = 0;
         try (Statement stmt = conn.createStatement();
@@ -286,7 +540,7 @@ public class Database {
                 count = rs.getInt(1);
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            log.error("countClauses failed", e);
         }
         return count;
     }
@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR event for a Database call. The duration includes the lock wait, which is also reported on its own.
+@Name("prover.DatabaseCall")
+@Label("Database Call")
+@Category({"Prover", "Database"})
+@Description("A call on the SQLite backed Database")
+@Enabled(false)
+@StackTrace(false)
+public class DatabaseCallEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    @Description("Rows read, inserted, updated or deleted")
+    int rows;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long lockWait;
+}
@@ -0,0 +1,141 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Reads DIMACS CNF files. Variable n becomes the propositional literal Vn(0T), a negative number its negation.
+// Clauses may span lines and end at 0, lines starting with c are comments and a line starting with % (used by the
+// SATLIB files) ends the clause list.
+public class DimacsImporter {
+
+    public static Problem load(Path file) throws IOException {
+        List<Clause> clauses = new ArrayList<>();
+        stream(file, Constants.CLAUSE_FILE_CHUNK_SIZE, clauses::addAll);
+        return Problem.withoutGoal(file.getFileName().toString(), clauses);
+    }
+
+    // delivers the clauses to sink in chunks of at most chunkSize, in file order
+    public static long stream(Path file, int chunkSize, Consumer<List<Clause>> sink) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be a positive number");
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Clause> chunk = new ArrayList<>(chunkSize);
+            Clause clause = new Clause();
+            boolean clauseOpen = false;
+            int declaredVariables = -1;
+            int declaredClauses = -1;
+            long clauseCount = 0;
+            int lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == 'c') {
+                    continue;
+                }
+                if (line.charAt(0) == '%') {
+                    break;
+                }
+                if (line.charAt(0) == 'p') {
+                    if (declaredVariables >= 0) {
+                        throw error(file, lineNumber, "duplicate problem line");
+                    }
+                    String[] header = line.split("\\s+");
+                    if (header.length != 4 || !header[1].equals("cnf")) {
+                        throw error(file, lineNumber, "expected 'p cnf <variables> <clauses>'");
+                    }
+                    declaredVariables = parseCount(header[2], file, lineNumber);
+                    declaredClauses = parseCount(header[3], file, lineNumber);
+                    continue;
+                }
+                if (declaredVariables < 0) {
+                    throw error(file, lineNumber, "clause before the problem line");
+                }
+
+                int position = 0;
+                while (position < line.length()) {
+                    char c = line.charAt(position);
+                    if (c == ' ' || c == '\t') {
+                        position++;
+                        continue;
+                    }
+
+                    int start = position;
+                    if (c == '-') {
+                        position++;
+                    }
+                    while (position < line.length() && Character.isDigit(line.charAt(position))) {
+                        position++;
+                    }
+                    if (position == start || (c == '-' && position == start + 1)) {
+                        throw error(file, lineNumber, "unexpected character '" + line.charAt(start)
+                                + "' at column " + (start + 1));
+                    }
+
+                    int value;
+                    try {
+                        value = Integer.parseInt(line, start, position, 10);
+                    } catch (NumberFormatException e) {
+                        throw error(file, lineNumber, "literal out of range at column " + (start + 1));
+                    }
+
+                    if (value == 0) {
+                        chunk.add(clause);
+                        clauseCount++;
+                        clause = new Clause();
+                        clauseOpen = false;
+                        if (chunk.size() == chunkSize) {
+                            sink.accept(chunk);
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                        continue;
+                    }
+
+                    int variable = Math.abs(value);
+                    if (variable > declaredVariables) {
+                        throw error(file, lineNumber, "variable " + variable + " is larger than the "
+                                + declaredVariables + " declared");
+                    }
+                    clause.addLiteral(new Literal("V" + variable, Constants.PROPOSITION_ARGUMENT, value > 0));
+                    clauseOpen = true;
+                }
+            }
+
+            if (clauseOpen) {
+                throw error(file, lineNumber, "last clause is not terminated by 0");
+            }
+            if (declaredClauses >= 0 && clauseCount != declaredClauses) {
+                throw error(file, lineNumber, "found " + clauseCount + " clauses but " + declaredClauses
+                        + " were declared");
+            }
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+            return clauseCount;
+        }
+    }
+
+    private static int parseCount(String value, Path file, int lineNumber) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw error(file, lineNumber, "invalid count '" + value + "' in the problem line");
+    }
+
+    private static IllegalArgumentException error(Path file, int lineNumber, String reason) {
+        return new IllegalArgumentException("Invalid DIMACS file " + file.getFileName() + " on line " + lineNumber
+                + ": " + reason);
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The eligible literals of one unresolved batch and of the clause window it is resolved against. The store hands out
+// a fresh copy of a clause with every window, so without this the selection would run again for every pair. The
+// batch's clauses are kept until the batch is resolved and a window's clauses until the next window, so the cache
+// never holds more than a batch and a window. Used by one worker at a time.
+public class EligibleLiterals {
+
+    private final LiteralSelection selection;
+    private final Map<Integer, List<Literal>> batch = new HashMap<>();
+    private final Map<Integer, List<Literal>> window = new HashMap<>();
+
+    public EligibleLiterals(LiteralSelection selection, List<Clause> unresolved) {
+        this.selection = selection;
+        for (Clause clause : unresolved) {
+            if (clause.getId() > 0) {
+                batch.put(clause.getId(), selection.eligible(clause));
+            }
+        }
+    }
+
+    // forgets the clauses of the last window that are not in the batch
+    public void nextWindow() {
+        window.clear();
+    }
+
+    public List<Literal> get(Clause clause) {
+        List<Literal> literals = batch.get(clause.getId());
+        if (literals != null) {
+            return literals;
+        }
+        if (clause.getId() <= 0) {
+            return selection.eligible(clause);
+        }
+        return window.computeIfAbsent(clause.getId(), id -> selection.eligible(clause));
+    }
+
+    // number of clauses whose eligible literals are stored
+    public int size() {
+        return batch.size() + window.size();
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Simplifies a new resolvent before it is deduplicated and stored. createResolvent merges the literals of both
+// parents into a set, which only removes literals that are equal as written: P(x) ∨ P(A) keeps both.
+//   - condensation replaces a clause with its smallest instance Cσ ⊆ C. Cσ and C imply each other, so nothing is
+//     lost, e.g. P(x) ∨ P(y) becomes P(y).
+//   - factoring unifies two literals of the same sign and predicate and adds the instance as a clause of its own,
+//     e.g. P(y) ∨ Q(y) for P(x) ∨ P(y) ∨ Q(x). The factor is weaker than the clause, so the clause is kept as well.
+// Binary resolution without factors cannot refute every unsatisfiable set. Literals are unary, so a literal only
+// holds one term and a substitution acts on every variable independently.
+public class Factoring {
+
+    private Factoring() {
+    }
+
+    // the condensed clause followed by its condensed factors, without duplicates
+    public static List<Clause> simplify(Clause clause) {
+        if (!repeatsPredicate(clause)) {
+            return List.of(clause); // both need two literals with the same sign and predicate
+        }
+        Set<Clause> simplified = new LinkedHashSet<>();
+        Deque<Clause> pending = new ArrayDeque<>();
+        pending.add(clause);
+        while (!pending.isEmpty()) {
+            Clause next = condense(pending.poll());
+            if (simplified.add(next)) {
+                pending.addAll(factors(next));
+            }
+        }
+        return new ArrayList<>(simplified);
+    }
+
+    // the smallest instance of the clause that is a subset of it, the clause itself when there is none
+    public static Clause condense(Clause clause) {
+        Set<Literal> literals = clause.getLiterals();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String variable : variables(literals)) {
+                for (String term : terms(literals)) {
+                    if (!term.equals(variable) && mapsInto(literals, variable, term)) {
+                        literals = substitute(literals, Map.of(variable, term));
+                        changed = true;
+                        break;
+                    }
+                }
+                if (changed) {
+                    break;
+                }
+            }
+        }
+        if (literals.size() == clause.size()) {
+            return clause;
+        }
+        return withDepth(new Clause(literals), clause.getDepth());
+    }
+
+    // one instance per pair of unifiable literals with the same sign
+    public static List<Clause> factors(Clause clause) {
+        List<Literal> literals = new ArrayList<>(clause.getLiterals());
+        List<Clause> factors = new ArrayList<>();
+        for (int i = 0; i < literals.size(); i++) {
+            for (int j = i + 1; j < literals.size(); j++) {
+                Literal literal1 = literals.get(i);
+                Literal literal2 = literals.get(j);
+                if (literal1.isPositive() != literal2.isPositive()
+                        || !literal1.getPredicate().equals(literal2.getPredicate())) {
+                    continue;
+                }
+                Map<String, String> substitution = ResolutionTheoremProver.unify(literal1, literal2);
+                if (substitution != null) {
+                    factors.add(withDepth(new Clause(substitute(clause.getLiterals(), substitution)),
+                            clause.getDepth()));
+                }
+            }
+        }
+        return factors;
+    }
+
+    private static boolean repeatsPredicate(Clause clause) {
+        Set<String> keys = new HashSet<>();
+        for (Literal literal : clause.getLiterals()) {
+            if (!keys.add((literal.isPositive() ? "+" : "-") + literal.getPredicate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // true when replacing the variable with the term only yields literals the clause already has
+    private static boolean mapsInto(Set<Literal> literals, String variable, String term) {
+        for (Literal literal : literals) {
+            if (literal.getArgument().equals(variable)
+                    && !literals.contains(new Literal(literal.getPredicate(), term, literal.isPositive()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> variables(Set<Literal> literals) {
+        Set<String> variables = new HashSet<>();
+        for (Literal literal : literals) {
+            if (!literal.isGround()) {
+                variables.add(literal.getArgument());
+            }
+        }
+        return variables;
+    }
+
+    private static Set<String> terms(Set<Literal> literals) {
+        Set<String> terms = new HashSet<>();
+        for (Literal literal : literals) {
+            terms.add(literal.getArgument());
+        }
+        return terms;
+    }
+
+    private static Set<Literal> substitute(Set<Literal> literals, Map<String, String> substitution) {
+        Set<Literal> substituted = new HashSet<>();
+        for (Literal literal : literals) {
+            substituted.add(ResolutionTheoremProver.applySubstitution(literal, substitution));
+        }
+        return substituted;
+    }
+
+    private static Clause withDepth(Clause clause, int depth) {
+        clause.setDepth(depth);
+        return clause;
+    }
+}
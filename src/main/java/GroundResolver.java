@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Resolution for ground clause sets, where no literal has a variable argument (DIMACS input, rules instantiated on
+// constants). Unification never does anything there, so the atoms are numbered densely and a clause becomes two
+// bitsets packed into one long[]: the atoms it contains positively (the first words) and negatively (the rest). Two
+// clauses clash on the atoms in (pos1 & neg2) | (neg1 & pos2), and the resolvent on a clashing atom is pos1 | pos2
+// and neg1 | neg2 with the atom removed from the parent it was resolved from, so a resolution step is a few word
+// operations instead of literal sets, substitutions and string hashing.
+//
+// The search is the saturation the provers run against the store, in memory: every clause is resolved once against
+// itself and every older clause, so the pair counts match. Clauses that were seen before are dropped, and so are
+// tautologies (an atom and its negation in one clause), which never help a ground refutation. An instance runs one
+// proof.
+public class GroundResolver {
+
+    private final Map<Literal, Integer> atoms = new HashMap<>(); // keyed by the positive literal
+    private final List<Literal> atomLiterals = new ArrayList<>();
+    private final int words;
+    private final List<long[]> clauses = new ArrayList<>();
+    private final Set<Bits> seen = new HashSet<>();
+    private final Bits probe = new Bits(null);
+    private boolean hasEmptyClause = false;
+    private long pairsExamined = 0;
+    private long duplicatesRejected = 0;
+
+    public GroundResolver(List<Clause> clauses) {
+        for (Clause clause : clauses) {
+            for (Literal literal : clause.getLiterals()) {
+                if (!literal.isGround()) {
+                    throw new IllegalArgumentException("Clause " + clause + " is not ground");
+                }
+                atoms.computeIfAbsent(literal.isPositive() ? literal : literal.negate(), atom -> {
+                    atomLiterals.add(atom);
+                    return atomLiterals.size() - 1;
+                });
+            }
+        }
+        this.words = (atomLiterals.size() + Long.SIZE - 1) / Long.SIZE;
+
+        for (Clause clause : clauses) {
+            long[] bits = encode(clause);
+            if (clause.isEmpty()) {
+                hasEmptyClause = true;
+            } else if (!isTautology(bits) && seen.add(new Bits(bits))) {
+                this.clauses.add(bits);
+            }
+        }
+    }
+
+    public int getAtomCount() {
+        return atomLiterals.size();
+    }
+
+    // number of clause pairs resolved during the proof
+    public long getPairsExamined() {
+        return pairsExamined;
+    }
+
+    // number of resolvents dropped because they were seen before
+    public long getDuplicatesRejected() {
+        return duplicatesRejected;
+    }
+
+    // the starting clauses and every resolvent kept so far, in the order they were added
+    public List<Clause> getClauses() {
+        List<Clause> decoded = new ArrayList<>(clauses.size());
+        for (long[] bits : clauses) {
+            decoded.add(decode(bits));
+        }
+        return decoded;
+    }
+
+    public boolean prove() throws InterruptedException {
+        if (hasEmptyClause) {
+            return true;
+        }
+
+        long[] resolvent = new long[2 * words];
+        for (int given = 0; given < clauses.size(); given++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            long[] clause = clauses.get(given);
+            for (int other = 0; other <= given; other++) {
+                pairsExamined++;
+                if (resolve(clause, clauses.get(other), resolvent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // adds the new resolvents of a and b, returns true when one of them is the empty clause
+    private boolean resolve(long[] a, long[] b, long[] resolvent) {
+        for (int word = 0; word < words; word++) {
+            long clash = a[word] & b[words + word];
+            while (clash != 0) {
+                long bit = clash & -clash;
+                clash ^= bit;
+                if (addResolvent(a, b, word, bit, resolvent)) {
+                    return true;
+                }
+            }
+            clash = a[words + word] & b[word];
+            while (clash != 0) {
+                long bit = clash & -clash;
+                clash ^= bit;
+                if (addResolvent(b, a, word, bit, resolvent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // resolves positive, which contains the atom positively, with negative, which contains it negatively
+    private boolean addResolvent(long[] positive, long[] negative, int atomWord, long atomBit, long[] resolvent) {
+        long used = 0;
+        long clashing = 0;
+        for (int word = 0; word < words; word++) {
+            long keep = word == atomWord ? ~atomBit : -1L;
+            long pos = (positive[word] & keep) | negative[word];
+            long neg = positive[words + word] | (negative[words + word] & keep);
+            resolvent[word] = pos;
+            resolvent[words + word] = neg;
+            used |= pos | neg;
+            clashing |= pos & neg;
+        }
+        if (used == 0) {
+            return true;
+        }
+        if (clashing != 0) {
+            return false; // tautology
+        }
+
+        probe.bits = resolvent;
+        if (seen.contains(probe)) {
+            duplicatesRejected++;
+            return false;
+        }
+        long[] copy = resolvent.clone();
+        seen.add(new Bits(copy));
+        clauses.add(copy);
+        return false;
+    }
+
+    private boolean isTautology(long[] bits) {
+        for (int word = 0; word < words; word++) {
+            if ((bits[word] & bits[words + word]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    final long[] encode(Clause clause) {
+        long[] bits = new long[2 * words];
+        for (Literal literal : clause.getLiterals()) {
+            int atom = atoms.get(literal.isPositive() ? literal : literal.negate());
+            int word = (literal.isPositive() ? 0 : words) + atom / Long.SIZE;
+            bits[word] |= 1L << (atom % Long.SIZE);
+        }
+        return bits;
+    }
+
+    Clause decode(long[] bits) {
+        Clause clause = new Clause();
+        for (int word = 0; word < 2 * words; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int atom = (word % words) * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                Literal positive = atomLiterals.get(atom);
+                clause.addLiteral(word < words ? positive : positive.negate());
+            }
+        }
+        return clause;
+    }
+
+    // a clause as a hash set key, the array must not change while it is in the set
+    private static final class Bits {
+        private long[] bits;
+
+        private Bits(long[] bits) {
+            this.bits = bits;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bits);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Bits other && Arrays.equals(bits, other.bits);
+        }
+    }
+}
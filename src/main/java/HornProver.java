@@ -0,0 +1,222 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Refutation of Horn clause sets (every clause has at most one positive literal). Definite clauses are rules
+// head <- body, the clauses without a positive literal (the negated goal among them) are rules for false, and the
+// set is refuted exactly when false follows by forward chaining.
+//
+// Ground sets are chained the way Dowling and Gallier do it, in time linear in the size of the set: every rule
+// keeps a counter of the body atoms that are not known yet, an atom that becomes true decrements the counters of the
+// rules it appears in, and a rule whose counter reaches 0 makes its head true.
+//
+// Sets with variables are only chained over the instances that matter for the goals, like SLD resolution with
+// tabling. Without function symbols the constants of the set (or one constant when there are none) are the whole
+// Herbrand universe. Starting from the goal clauses, every atom that is needed is tabled once. Its rule instances
+// are made by binding the head variable to the atom's argument and the other body variables to every constant, and
+// their body atoms become the next subgoals. The instances are then chained like a ground set, so an atom is never
+// derived twice and recursive rules terminate.
+public class HornProver {
+
+    private static final String DEFAULT_CONSTANT = "C";
+    private static final int FALSE = -1; // head of the goal rules
+
+    private final List<Clause> clauses;
+    private final boolean ground;
+
+    // the chained program: interned ground atoms and the rule instances over them
+    private final Map<Literal, Integer> atomIds = new HashMap<>();
+    private final List<Literal> atoms = new ArrayList<>();
+    private final List<int[]> bodies = new ArrayList<>();
+    private final List<Integer> heads = new ArrayList<>();
+    private int derivedAtoms = 0;
+
+    public HornProver(List<Clause> clauses) {
+        boolean ground = true;
+        for (Clause clause : clauses) {
+            if (!clause.isHorn()) {
+                throw new IllegalArgumentException("Clause " + clause + " is not a Horn clause");
+            }
+            ground &= clause.isGround();
+        }
+        this.clauses = clauses;
+        this.ground = ground;
+    }
+
+    public boolean isGround() {
+        return ground;
+    }
+
+    // number of ground rule instances that were chained
+    public int getRuleInstances() {
+        return bodies.size();
+    }
+
+    // number of atoms found to be true
+    public int getDerivedAtoms() {
+        return derivedAtoms;
+    }
+
+    public boolean prove() throws InterruptedException {
+        for (Clause clause : clauses) {
+            if (clause.isEmpty()) {
+                return true;
+            }
+        }
+
+        if (ground) {
+            for (Clause clause : clauses) {
+                addInstance(clause, Map.of());
+            }
+        } else {
+            tableGoals();
+        }
+        return chain();
+    }
+
+    // Dowling-Gallier forward chaining over the instances, true when a goal rule fires
+    private boolean chain() throws InterruptedException {
+        int[] missing = new int[bodies.size()];
+        List<List<Integer>> occurrences = new ArrayList<>(atoms.size());
+        for (int atom = 0; atom < atoms.size(); atom++) {
+            occurrences.add(new ArrayList<>());
+        }
+
+        boolean[] known = new boolean[atoms.size()];
+        ArrayDeque<Integer> agenda = new ArrayDeque<>();
+        for (int rule = 0; rule < bodies.size(); rule++) {
+            int[] body = bodies.get(rule);
+            missing[rule] = body.length;
+            for (int atom : body) {
+                occurrences.get(atom).add(rule);
+            }
+            if (body.length == 0 && fire(heads.get(rule), known, agenda)) {
+                return true;
+            }
+        }
+
+        while (!agenda.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            for (int rule : occurrences.get(agenda.poll())) {
+                if (--missing[rule] == 0 && fire(heads.get(rule), known, agenda)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean fire(int head, boolean[] known, ArrayDeque<Integer> agenda) {
+        if (head == FALSE) {
+            return true;
+        }
+        if (!known[head]) {
+            known[head] = true;
+            derivedAtoms++;
+            agenda.add(head);
+        }
+        return false;
+    }
+
+    // makes the instances every goal clause needs, following the rule heads down from the goals
+    private void tableGoals() throws InterruptedException {
+        Set<String> constants = new LinkedHashSet<>();
+        Map<String, List<Clause>> rulesByHead = new HashMap<>();
+        for (Clause clause : clauses) {
+            for (Literal literal : clause.getLiterals()) {
+                if (literal.isGround()) {
+                    constants.add(literal.getArgument());
+                }
+            }
+            Literal head = head(clause);
+            if (head != null) {
+                rulesByHead.computeIfAbsent(head.getPredicate(), predicate -> new ArrayList<>()).add(clause);
+            }
+        }
+        if (constants.isEmpty()) {
+            constants.add(DEFAULT_CONSTANT);
+        }
+        List<String> universe = new ArrayList<>(constants);
+
+        for (Clause clause : clauses) {
+            if (head(clause) == null) {
+                instantiate(clause, new HashMap<>(), universe);
+            }
+        }
+        // every atom is tabled once, when it was interned
+        for (int next = 0; next < atoms.size(); next++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            Literal goal = atoms.get(next);
+            for (Clause rule : rulesByHead.getOrDefault(goal.getPredicate(), List.of())) {
+                String argument = head(rule).getArgument();
+                Map<String, String> binding = new HashMap<>();
+                if (ResolutionTheoremProver.isVariable(argument)) {
+                    binding.put(argument, goal.getArgument());
+                } else if (!argument.equals(goal.getArgument())) {
+                    continue;
+                }
+                instantiate(rule, binding, universe);
+            }
+        }
+    }
+
+    // adds an instance for every binding of the clause variables that binding leaves open
+    private void instantiate(Clause clause, Map<String, String> binding, List<String> universe) {
+        String open = null;
+        for (Literal literal : clause.getLiterals()) {
+            if (!literal.isGround() && !binding.containsKey(literal.getArgument())) {
+                open = literal.getArgument();
+                break;
+            }
+        }
+        if (open == null) {
+            addInstance(clause, binding);
+            return;
+        }
+        for (String constant : universe) {
+            binding.put(open, constant);
+            instantiate(clause, binding, universe);
+        }
+        binding.remove(open);
+    }
+
+    private void addInstance(Clause clause, Map<String, String> binding) {
+        int head = FALSE;
+        Set<Integer> body = new LinkedHashSet<>();
+        for (Literal literal : clause.getLiterals()) {
+            String argument = binding.getOrDefault(literal.getArgument(), literal.getArgument());
+            int atom = intern(new Literal(literal.getPredicate(), argument, true));
+            if (literal.isPositive()) {
+                head = atom;
+            } else {
+                body.add(atom);
+            }
+        }
+        bodies.add(body.stream().mapToInt(Integer::intValue).toArray());
+        heads.add(head);
+    }
+
+    private int intern(Literal atom) {
+        return atomIds.computeIfAbsent(atom, key -> {
+            atoms.add(key);
+            return atoms.size() - 1;
+        });
+    }
+
+    private static Literal head(Clause clause) {
+        for (Literal literal : clause.getLiterals()) {
+            if (literal.isPositive()) {
+                return literal;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,247 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Hyperresolution and unit-resulting resolution for the store search. Binary resolution stores every intermediate
+// clause of a multi-step inference, and each of them becomes a resolution partner of its own. These rules resolve a
+// nucleus with satellite clauses in one inference and only return the final resolvent:
+//   - HYPER resolves every negative literal of the nucleus with a positive clause, the resolvent is positive again.
+//     Positive hyperresolution is refutation complete like binary resolution.
+//   - UR resolves all literals of the nucleus but at most one with unit clauses, the resolvent is a unit or empty.
+//     UR resolution refutes every Horn set but is not complete in general.
+// The intermediate clauses are the binary resolvents of ResolutionTheoremProver, they are only kept in memory.
+//
+// A worker hands the clause windows of its unresolved batch to collect, which keeps the nuclei an unresolved satellite
+// can resolve with and only the satellites those nuclei and the unresolved ones can use. resolve then makes every
+// inference whose newest clause is in the batch, so like a pair in the binary search each inference is made once per
+// proof. A nucleus in an older window can need satellites an earlier window skipped, rescan then asks for the windows
+// once more.
+public class HyperResolver {
+
+    private final ProverConfig.Inference inference;
+    private final List<Clause> unresolved;
+    private final Set<String> unresolvedComplements = new HashSet<>(); // keys a nucleus literal needs to meet the batch
+    private final Set<Integer> unresolvedIds = new HashSet<>();
+    private final Set<String> neededKeys = new HashSet<>(); // satellite keys the collected nuclei resolve with
+    private final Set<String> skippedKeys = new HashSet<>(); // keys of the satellites collect did not keep
+    private final Map<String, List<Clause>> satellites = new HashMap<>(); // by the key of each of their literals
+    private final List<Clause> nuclei = new ArrayList<>();
+    private final List<Clause> resolvents = new ArrayList<>();
+    private long pairsExamined = 0;
+    private boolean refuted = false;
+    private boolean missedSatellites = false;
+    private boolean rescanning = false;
+
+    public HyperResolver(ProverConfig.Inference inference, List<Clause> unresolved) {
+        if (inference == ProverConfig.Inference.BINARY) {
+            throw new IllegalArgumentException("HyperResolver needs the HYPER or UR inference");
+        }
+        this.inference = inference;
+        this.unresolved = unresolved;
+        for (Clause clause : unresolved) {
+            unresolvedIds.add(clause.getId());
+            if (isSatellite(clause)) {
+                for (Literal literal : clause.getLiterals()) {
+                    unresolvedComplements.add(key(literal.negate()));
+                }
+            }
+            if (isNucleus(clause)) {
+                addNeededKeys(clause);
+            }
+        }
+    }
+
+    // number of (partial resolvent, satellite) pairs tried
+    public long getPairsExamined() {
+        return pairsExamined;
+    }
+
+    public final boolean isSatellite(Clause clause) {
+        if (inference == ProverConfig.Inference.UR) {
+            return clause.size() == 1;
+        }
+        for (Literal literal : clause.getLiterals()) {
+            if (literal.isNegative()) {
+                return false;
+            }
+        }
+        return !clause.isEmpty();
+    }
+
+    public final boolean isNucleus(Clause clause) {
+        if (inference == ProverConfig.Inference.UR) {
+            return !clause.isEmpty();
+        }
+        for (Literal literal : clause.getLiterals()) {
+            if (literal.isNegative()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void collect(List<Clause> window) {
+        for (Clause clause : window) {
+            if (!rescanning && isNucleus(clause) && meetsUnresolved(clause)) {
+                nuclei.add(clause);
+                addNeededKeys(clause);
+            }
+            if (isSatellite(clause)) {
+                if (unresolvedIds.contains(clause.getId()) || isNeeded(clause)) {
+                    for (Literal literal : clause.getLiterals()) {
+                        satellites.computeIfAbsent(key(literal), key -> new ArrayList<>()).add(clause);
+                    }
+                } else {
+                    for (Literal literal : clause.getLiterals()) {
+                        skippedKeys.add(key(literal));
+                    }
+                }
+            }
+        }
+    }
+
+    // true once, when a collected nucleus needs satellites that were skipped, the windows are then collected again
+    public boolean rescan() {
+        if (!missedSatellites || rescanning) {
+            return false;
+        }
+        rescanning = true;
+        satellites.clear();
+        return true;
+    }
+
+    public int getSatelliteCount() {
+        Set<Integer> kept = new HashSet<>();
+        for (List<Clause> clauses : satellites.values()) {
+            for (Clause clause : clauses) {
+                kept.add(clause.getId());
+            }
+        }
+        return kept.size();
+    }
+
+    // the keys of the satellites a nucleus resolves with: HYPER resolves its negative literals, UR any of them
+    private void addNeededKeys(Clause nucleus) {
+        for (Literal literal : nucleus.getLiterals()) {
+            if (inference == ProverConfig.Inference.UR || literal.isNegative()) {
+                String key = key(literal.negate());
+                if (neededKeys.add(key) && skippedKeys.contains(key)) {
+                    missedSatellites = true;
+                }
+            }
+        }
+    }
+
+    private boolean isNeeded(Clause satellite) {
+        for (Literal literal : satellite.getLiterals()) {
+            if (neededKeys.contains(key(literal))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean meetsUnresolved(Clause clause) {
+        for (Literal literal : clause.getLiterals()) {
+            if (unresolvedComplements.contains(key(literal))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the resolvents of the collected clauses, stops after the empty clause
+    public List<Clause> resolve() {
+        for (Clause clause : unresolved) {
+            // as the nucleus with older satellites
+            if (isNucleus(clause)) {
+                start(clause, clause.getId() - 1, null);
+            }
+            // as a satellite of an older nucleus, next to satellites up to its own id
+            if (isSatellite(clause)) {
+                for (Clause nucleus : nuclei) {
+                    if (nucleus.getId() < clause.getId()) {
+                        start(nucleus, clause.getId(), clause);
+                    }
+                }
+            }
+        }
+        return resolvents;
+    }
+
+    private void start(Clause nucleus, int maxSatelliteId, Clause required) {
+        List<Literal> literals = new ArrayList<>(nucleus.getLiterals());
+        literals.sort(Comparator.comparing(Literal::toString)); // the same inference order in every run
+        List<Literal> pending = new ArrayList<>();
+        List<Literal> rest = new ArrayList<>();
+        for (Literal literal : literals) {
+            (inference == ProverConfig.Inference.HYPER && literal.isPositive() ? rest : pending).add(literal);
+        }
+        step(pending, rest, nucleus.getDepth(), maxSatelliteId, required, required == null, false);
+    }
+
+    // resolves the first pending literal with every satellite that fits, the rest holds the literals of the resolvent
+    // and depth the deepest clause used so far
+    private void step(List<Literal> pending, List<Literal> rest, int depth, int maxSatelliteId, Clause required,
+                      boolean used, boolean resolved) {
+        if (refuted) {
+            return;
+        }
+        if (pending.isEmpty()) {
+            if (used && resolved) {
+                Clause resolvent = new Clause(new HashSet<>(rest));
+                resolvent.setDepth(depth + 1); // one inference, however many satellites it took
+                resolvents.addAll(Factoring.simplify(resolvent));
+                refuted = resolvent.isEmpty();
+            }
+            return;
+        }
+
+        Literal literal = pending.getFirst();
+        List<Literal> remaining = pending.subList(1, pending.size());
+        for (Clause satellite : satellites.getOrDefault(key(literal.negate()), List.of())) {
+            if (satellite.getId() > maxSatelliteId) {
+                continue;
+            }
+            pairsExamined++;
+            for (Literal other : satellite.getLiterals()) {
+                if (!literal.canResolveWith(other)) {
+                    continue;
+                }
+                Map<String, String> substitution = ResolutionTheoremProver.unify(literal, other);
+                if (substitution == null) {
+                    continue;
+                }
+                List<Literal> nextRest = substitute(rest, substitution);
+                for (Literal satelliteLiteral : satellite.getLiterals()) {
+                    if (!satelliteLiteral.equals(other)) {
+                        nextRest.add(ResolutionTheoremProver.applySubstitution(satelliteLiteral, substitution));
+                    }
+                }
+                step(substitute(remaining, substitution), nextRest, Math.max(depth, satellite.getDepth()),
+                        maxSatelliteId, required, used || satellite.getId() == required.getId(), true);
+            }
+        }
+
+        // UR leaves one literal of the nucleus unresolved
+        if (inference == ProverConfig.Inference.UR && rest.isEmpty()) {
+            step(new ArrayList<>(remaining), List.of(literal), depth, maxSatelliteId, required, used, resolved);
+        }
+    }
+
+    private static List<Literal> substitute(List<Literal> literals, Map<String, String> substitution) {
+        List<Literal> substituted = new ArrayList<>(literals.size());
+        for (Literal literal : literals) {
+            substituted.add(ResolutionTheoremProver.applySubstitution(literal, substitution));
+        }
+        return substituted;
+    }
+
+    private static String key(Literal literal) {
+        return (literal.isPositive() ? "+" : "-") + literal.getPredicate();
+    }
+}
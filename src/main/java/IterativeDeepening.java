@@ -0,0 +1,51 @@
+import java.util.function.BooleanSupplier;
+
+// Proves under ClauseLimits and reruns with raised limits while the answer is not final. The first round uses the
+// config's limits and every further round doubles them. It stops at the first proof, at the first failed round that
+// dropped no resolvent (it saturated, so the goal does not follow) or after maxRounds. The early rounds are cheap and
+// bounded, deep proofs pay for the shallow rounds before them.
+public class IterativeDeepening {
+
+    // complete is false when the last round still dropped resolvents, then a failed proof only means "not found yet"
+    public record Result(boolean proved, boolean complete, ClauseLimits limits, int rounds) {
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        boolean prove(ProverConfig config) throws InterruptedException;
+    }
+
+    private final int maxRounds;
+
+    public IterativeDeepening(int maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("maxRounds must be a positive number");
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    public Result prove(ResolutionTheoremProver prover, Clause negated, ProverConfig config)
+            throws InterruptedException {
+        return deepen(config, roundConfig -> prover.prove(negated, roundConfig), prover::isComplete);
+    }
+
+    public Result prove(MultiThreadedResolver resolver, Clause negated, ProverConfig config)
+            throws InterruptedException {
+        return deepen(config, roundConfig -> resolver.prove(negated, roundConfig), resolver::isComplete);
+    }
+
+    private Result deepen(ProverConfig config, Round round, BooleanSupplier complete)
+            throws InterruptedException {
+        ClauseLimits limits = config.getLimits();
+        for (int rounds = 1; ; rounds++) {
+            boolean proved = round.prove(config.withLimits(limits));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (proved || complete.getAsBoolean() || !limits.isBounded() || rounds == maxRounds) {
+                return new Result(proved, proved || complete.getAsBoolean(), limits, rounds);
+            }
+            limits = limits.raised();
+        }
+    }
+}
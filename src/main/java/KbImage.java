@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// A knowledge base compiled once into a binary file: the symbol table, the clauses encoded as symbol ids, the
+// fingerprint of every clause and the counts of the preprocessing stages that ran before it was written. open maps
+// the file and only reads the header, clauses and symbols are decoded when they are asked for, so opening takes the
+// same time for every size. ClauseLog.fromImage serves the starting set straight from the mapping and only writes the
+// clauses added to it, Database.fromImage instead copies the image into a SQLite file once and reuses that file as a
+// cache on later starts.
+//
+// Layout, every number is a big endian int unless noted:
+//   header        magic, version, fingerprint (long), clause count, symbol count, clauses before preprocessing,
+//                 mask of the preprocessing stages, clauses removed by each stage, section offsets
+//   symbols       symbol count + 1 offsets into the UTF-8 bytes that follow, sorted by name
+//   clauses       clause count + 1 offsets into the literals that follow, a literal is
+//                 (predicate << 1 | positive, argument)
+//   fingerprints  Clause.fingerprint of every clause (long), so a store can drop duplicates without decoding
+// The offsets are ints, so an image is limited to 2 GB.
+public class KbImage {
+
+    private static final int MAGIC = 0x4B42494D; // "KBIM"
+    private static final int VERSION = 2;
+    private static final int STAGES = Preprocessor.Stage.values().length;
+    private static final int REMOVED_OFFSET = 32;
+    private static final int SECTIONS_OFFSET = REMOVED_OFFSET + 4 * STAGES;
+    private static final int HEADER_SIZE = SECTIONS_OFFSET + 12;
+
+    private final MappedByteBuffer image;
+    private final long fingerprint;
+    private final int clauseCount;
+    private final int symbolCount;
+    private final int symbolsOffset;
+    private final int clausesOffset;
+    private final int fingerprintsOffset;
+    private final String[] symbols; // decoded on first use
+
+    private KbImage(MappedByteBuffer image) throws IOException {
+        if (image.capacity() < HEADER_SIZE || image.getInt(0) != MAGIC) {
+            throw new IOException("not a knowledge base image");
+        }
+        if (image.getInt(4) != VERSION) {
+            throw new IOException("unsupported image version " + image.getInt(4));
+        }
+        this.image = image;
+        this.fingerprint = image.getLong(8);
+        this.clauseCount = image.getInt(16);
+        this.symbolCount = image.getInt(20);
+        this.symbolsOffset = image.getInt(SECTIONS_OFFSET);
+        this.clausesOffset = image.getInt(SECTIONS_OFFSET + 4);
+        this.fingerprintsOffset = image.getInt(SECTIONS_OFFSET + 8);
+        this.symbols = new String[symbolCount];
+    }
+
+    public static KbImage open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("image is larger than 2 GB: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            return new KbImage(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Runs the goal independent preprocessing stages and writes the result to file. PURE_LITERALS depends on the
+    // goal and is left to the proofs.
+    public static KbImage compile(List<Clause> clauses, Set<Preprocessor.Stage> stages, Path file)
+            throws IOException {
+        if (clauses == null || stages == null) {
+            throw new IllegalArgumentException("clauses and stages cannot be null");
+        }
+        if (stages.contains(Preprocessor.Stage.PURE_LITERALS)) {
+            throw new IllegalArgumentException("PURE_LITERALS depends on the goal and cannot be compiled");
+        }
+        Preprocessor.Result result = Preprocessor.run(clauses, stages, null);
+        List<Clause> compiled = result.clauses();
+
+        TreeSet<String> names = new TreeSet<>();
+        int literalCount = 0;
+        for (Clause clause : compiled) {
+            for (Literal literal : clause.getLiterals()) {
+                names.add(literal.getPredicate());
+                names.add(literal.getArgument());
+                literalCount++;
+            }
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        List<byte[]> encodedNames = new ArrayList<>(names.size());
+        int symbolBytes = 0;
+        for (String name : names) {
+            ids.put(name, ids.size());
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            encodedNames.add(encoded);
+            symbolBytes += encoded.length;
+        }
+
+        long[] fingerprints = new long[compiled.size()];
+        long fingerprint = compiled.size();
+        for (int i = 0; i < compiled.size(); i++) {
+            fingerprints[i] = compiled.get(i).fingerprint();
+            fingerprint += fingerprints[i]; // does not depend on the clause order, like Clause.fingerprint
+        }
+
+        long symbolsOffset = HEADER_SIZE;
+        long clausesOffset = symbolsOffset + 4L * (names.size() + 1) + symbolBytes;
+        long fingerprintsOffset = clausesOffset + 4L * (compiled.size() + 1) + 8L * literalCount;
+        long size = fingerprintsOffset + 8L * compiled.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the knowledge base needs an image larger than 2 GB");
+        }
+
+        try (RandomAccessFile out = new RandomAccessFile(file.toFile(), "rw")) {
+            out.setLength(0);
+            out.setLength(size);
+            MappedByteBuffer buffer = out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putInt(compiled.size()).putInt(names.size())
+                    .putInt(clauses.size());
+            int mask = 0;
+            for (Preprocessor.Stage stage : stages) {
+                mask |= 1 << stage.ordinal();
+            }
+            buffer.putInt(mask);
+            for (Preprocessor.Stage stage : Preprocessor.Stage.values()) {
+                buffer.putInt(result.removed(stage));
+            }
+            buffer.putInt((int) symbolsOffset).putInt((int) clausesOffset).putInt((int) fingerprintsOffset);
+
+            int symbolOffset = 0;
+            for (byte[] encoded : encodedNames) {
+                buffer.putInt(symbolOffset);
+                symbolOffset += encoded.length;
+            }
+            buffer.putInt(symbolOffset);
+            for (byte[] encoded : encodedNames) {
+                buffer.put(encoded);
+            }
+
+            int literalOffset = 0;
+            for (Clause clause : compiled) {
+                buffer.putInt(literalOffset);
+                literalOffset += clause.size();
+            }
+            buffer.putInt(literalOffset);
+            for (Clause clause : compiled) {
+                for (Literal literal : clause.getLiterals()) {
+                    buffer.putInt(key(ids.get(literal.getPredicate()), literal.isPositive()))
+                            .putInt(ids.get(literal.getArgument()));
+                }
+            }
+
+            for (long clauseFingerprint : fingerprints) {
+                buffer.putLong(clauseFingerprint);
+            }
+            buffer.force();
+        }
+        return open(file);
+    }
+
+    // number of clauses in the image, after preprocessing
+    public int size() {
+        return clauseCount;
+    }
+
+    // number of clauses the image was compiled from
+    public int getLoadedCount() {
+        return image.getInt(24);
+    }
+
+    // changes with the clauses, not with their order
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public Set<Preprocessor.Stage> getStages() {
+        EnumSet<Preprocessor.Stage> stages = EnumSet.noneOf(Preprocessor.Stage.class);
+        int mask = image.getInt(28);
+        for (Preprocessor.Stage stage : Preprocessor.Stage.values()) {
+            if ((mask & 1 << stage.ordinal()) != 0) {
+                stages.add(stage);
+            }
+        }
+        return stages;
+    }
+
+    // clauses the stage removed before the image was written
+    public int removed(Preprocessor.Stage stage) {
+        return image.getInt(REMOVED_OFFSET + 4 * stage.ordinal());
+    }
+
+    // the clause at index, from 0
+    public Clause clause(int index) {
+        if (index < 0 || index >= clauseCount) {
+            throw new IndexOutOfBoundsException("clause " + index + " of " + clauseCount);
+        }
+        int offsets = clausesOffset;
+        int literals = offsets + 4 * (clauseCount + 1);
+        int first = image.getInt(offsets + 4 * index);
+        int end = image.getInt(offsets + 4 * (index + 1));
+        Clause clause = new Clause();
+        for (int literal = first; literal < end; literal++) {
+            int key = image.getInt(literals + 8 * literal);
+            clause.addLiteral(new Literal(symbol(key >>> 1), symbol(image.getInt(literals + 8 * literal + 4)),
+                    (key & 1) == 1));
+        }
+        return clause;
+    }
+
+    // the clauses with from <= index < to
+    public List<Clause> clauses(int from, int to) {
+        List<Clause> clauses = new ArrayList<>(Math.max(0, to - from));
+        for (int index = from; index < to; index++) {
+            clauses.add(clause(index));
+        }
+        return clauses;
+    }
+
+    public List<Clause> clauses() {
+        return clauses(0, clauseCount);
+    }
+
+    // Clause.fingerprint of the clause at index, without decoding it
+    public long fingerprint(int index) {
+        if (index < 0 || index >= clauseCount) {
+            throw new IndexOutOfBoundsException("clause " + index + " of " + clauseCount);
+        }
+        return image.getLong(fingerprintsOffset + 8 * index);
+    }
+
+    // Clause.fingerprint of every clause, in one bulk read of the section
+    public long[] fingerprints() {
+        long[] fingerprints = new long[clauseCount];
+        image.slice(fingerprintsOffset, 8 * clauseCount).asLongBuffer().get(fingerprints);
+        return fingerprints;
+    }
+
+    private String symbol(int id) {
+        String symbol = symbols[id];
+        if (symbol == null) {
+            int data = symbolsOffset + 4 * (symbolCount + 1);
+            int start = image.getInt(symbolsOffset + 4 * id);
+            int end = image.getInt(symbolsOffset + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            image.get(data + start, bytes);
+            symbol = new String(bytes, StandardCharsets.UTF_8);
+            symbols[id] = symbol; // racing threads decode the same string
+        }
+        return symbol;
+    }
+
+    private static int key(int predicate, boolean positive) {
+        return predicate << 1 | (positive ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return clauseCount + " clauses, " + symbolCount + " symbols, compiled from "
+                + getLoadedCount() + " with " + getStages() + " " + Arrays.toString(removedCounts());
+    }
+
+    private int[] removedCounts() {
+        int[] removed = new int[STAGES];
+        for (Preprocessor.Stage stage : Preprocessor.Stage.values()) {
+            removed[stage.ordinal()] = removed(stage);
+        }
+        return removed;
+    }
+}
@@ -29,6 +29,11 @@ public class Literal {
         return !positive;
     }
 
+    // ground literals have a constant argument, resolving on them never needs a substitution
+    public boolean isGround() {
+        return !ResolutionTheoremProver.isVariable(argument);
+    }
+
     public boolean canResolveWith(Literal other) {
         return this.predicate.equals(other.predicate) &&
                 this.positive != other.positive;
@@ -38,6 +43,22 @@ public class Literal {
         return new Literal(predicate, argument, !positive);
     }
 
+    // 64-bit hash of the literal, used to build clause fingerprints
+    public long fingerprint() {
+        long hash = 0xCBF29CE484222325L; // FNV-1a offset basis
+        hash = fnv(hash, predicate);
+        hash = (hash ^ '(') * 0x100000001B3L;
+        hash = fnv(hash, argument);
+        return positive ? hash : ~hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.argument, this.predicate, this.positive);
@@ -0,0 +1,127 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// The literals of a clause that resolution may resolve on. ALL is plain resolution, the other kinds are ordered
+// resolution over a precedence on predicates:
+//   - MAXIMAL: only the literals whose predicate is the greatest in the clause
+//   - NEGATIVE: one negative literal (the one with the greatest predicate) is selected when the clause has any,
+//     otherwise the maximal literals
+// A literal's rank only depends on its predicate, so it keeps its rank under every substitution, and both kinds
+// keep the completeness of plain resolution. The precedence lists predicates from the greatest down, predicates it
+// does not list are smaller than the listed ones and ordered by name. Other strategies can override eligible.
+public class LiteralSelection {
+
+    public enum Kind {
+        ALL, MAXIMAL, NEGATIVE
+    }
+
+    public static final LiteralSelection ALL = new LiteralSelection(Kind.ALL, List.of());
+
+    private final Kind kind;
+    private final List<String> precedence;
+    private final Map<String, Integer> ranks = new HashMap<>(); // 0 is the greatest
+
+    public LiteralSelection(Kind kind, List<String> precedence) {
+        if (kind == null || precedence == null) {
+            throw new IllegalArgumentException("kind and precedence cannot be null");
+        }
+        for (String predicate : precedence) {
+            if (predicate.isBlank() || ranks.putIfAbsent(predicate, ranks.size()) != null) {
+                throw new IllegalArgumentException("precedence must list distinct predicates but was " + precedence);
+            }
+        }
+        this.kind = kind;
+        this.precedence = List.copyOf(precedence);
+    }
+
+    // a kind name and a comma separated precedence, e.g. "negative" and "Mortal,Man"
+    public static LiteralSelection parse(String kind, String precedence) {
+        Kind parsed;
+        try {
+            parsed = Kind.valueOf(kind.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("selection must be one of " + Arrays.toString(Kind.values())
+                    + " but was " + kind);
+        }
+        if (parsed == Kind.ALL) {
+            return ALL; // the precedence does not matter, and the provers take the plain path for ALL
+        }
+        List<String> predicates = new ArrayList<>();
+        if (precedence != null && !precedence.isBlank()) {
+            for (String predicate : precedence.split(",")) {
+                predicates.add(predicate.trim());
+            }
+        }
+        return new LiteralSelection(parsed, predicates);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<String> getPrecedence() {
+        return precedence;
+    }
+
+    public List<Literal> eligible(Clause clause) {
+        List<Literal> literals = new ArrayList<>(clause.getLiterals());
+        if (kind == Kind.ALL || literals.size() <= 1) {
+            return literals;
+        }
+
+        if (kind == Kind.NEGATIVE) {
+            Literal selected = null;
+            for (Literal literal : literals) {
+                if (literal.isNegative() && (selected == null || compare(literal, selected) > 0)) {
+                    selected = literal;
+                }
+            }
+            if (selected != null) {
+                return List.of(selected);
+            }
+        }
+
+        String greatest = null;
+        for (Literal literal : literals) {
+            if (greatest == null || comparePredicates(literal.getPredicate(), greatest) > 0) {
+                greatest = literal.getPredicate();
+            }
+        }
+        List<Literal> maximal = new ArrayList<>();
+        for (Literal literal : literals) {
+            if (literal.getPredicate().equals(greatest)) {
+                maximal.add(literal);
+            }
+        }
+        return maximal;
+    }
+
+    // positive when predicate1 is greater
+    public int comparePredicates(String predicate1, String predicate2) {
+        Integer rank1 = ranks.get(predicate1);
+        Integer rank2 = ranks.get(predicate2);
+        if (rank1 != null && rank2 != null) {
+            return Integer.compare(rank2, rank1);
+        }
+        if (rank1 != null || rank2 != null) {
+            return rank1 != null ? 1 : -1;
+        }
+        return predicate1.compareTo(predicate2);
+    }
+
+    // the predicate first, the text only breaks ties so the selected literal does not depend on set order
+    private int compare(Literal literal1, Literal literal2) {
+        int byPredicate = comparePredicates(literal1.getPredicate(), literal2.getPredicate());
+        return byPredicate != 0 ? byPredicate : literal1.toString().compareTo(literal2.toString());
+    }
+
+    @Override
+    public String toString() {
+        String name = kind.name().toLowerCase(Locale.ROOT);
+        return precedence.isEmpty() ? name : name + "(" + String.join(" > ", precedence) + ")";
+    }
+}
@@ -1,3 +1,6 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -5,12 +8,39 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class MultiThreadedResolver {
 
-    private final Database database;
+    private static final Logger log = LoggerFactory.getLogger(MultiThreadedResolver.class);
+
+    private static final AtomicInteger instances = new AtomicInteger(0);
+
+    private final ClauseStore database;
+    private final StartingSet startingSet;
+    private volatile Preprocessor.Result preprocessing = null;
+    private long[] startingFingerprints = new long[0]; // seed seenClauses, see StartingSet.fingerprints
     private final AtomicInteger activeWorkers = new AtomicInteger(0);
     private final AtomicBoolean solutionFound = new AtomicBoolean(false);
+    private final ProverMetrics metrics;
+    private final ClauseFingerprintSet seenClauses = new ClauseFingerprintSet();
+    private volatile BatchAutoTuner tuner = null;
 
     public MultiThreadedResolver(List<Clause> clauses) {
-        this.database = new Database(clauses);
+        this(new Database(clauses));
+    }
+
+    public MultiThreadedResolver(ClauseStore database) {
+        this.database = database;
+        this.startingSet = new StartingSet(database);
+        LatencyHistogram lockWaits = database instanceof Database db ? db.getLockWaitHistogram() : null;
+        this.metrics = lockWaits != null ? new ProverMetrics(lockWaits) : new ProverMetrics();
+        metrics.register("MultiThreadedResolver-" + instances.incrementAndGet());
+    }
+
+    public ProverMetrics getMetrics() {
+        return metrics;
+    }
+
+    // counters, latencies and worker times of the running or last proof
+    public ProverMetrics.Snapshot metricsSnapshot() {
+        return metrics.snapshot();
     }
 
     public void workerStarted() {
@@ -29,23 +59,140 @@ public class MultiThreadedResolver {
         return solutionFound.get();
     }
 
+    public void pairsExamined(long pairs) {
+        metrics.pairsExamined(pairs);
+    }
+
+    // number of clause pairs resolved during the last proof
+    public long getPairsExamined() {
+        return metrics.getPairsExamined();
+    }
+
+    // returns false (and counts a duplicate) if any worker has already produced this clause during the proof
+    public boolean markSeen(Clause clause) {
+        if (seenClauses.add(clause)) {
+            return true;
+        }
+        metrics.duplicateRejected();
+        return false;
+    }
+
+    // number of resolvents dropped by the fingerprint set during the last proof
+    public long getDuplicatesRejected() {
+        return metrics.getDuplicatesRejected();
+    }
+
+    // number of resolvents dropped by the config's ClauseLimits during the last proof
+    public long getResolventsOverLimit() {
+        return metrics.getResolventsOverLimit();
+    }
+
+    // false when the last proof dropped resolvents over the limits, a failed proof then does not mean the goal does
+    // not follow
+    public boolean isComplete() {
+        return getResolventsOverLimit() == 0;
+    }
+
+    // the batch sizes of the running or last proof, as adjusted by the tuner when the config asked for it
+    public BatchAutoTuner getAutoTuner() {
+        return tuner;
+    }
+
+    // what the config's preprocessing stages removed from the starting set of the last proof, null without stages
+    public Preprocessor.Result getPreprocessing() {
+        return preprocessing;
+    }
+
     public void closeDatabase() {
+        metrics.unregister();
         database.close();
     }
 
     public Boolean prove(Clause negated) {
+        return prove(negated, ProverConfig.defaults());
+    }
+
+    public Boolean prove(Clause negated, int workerCount) {
+        return prove(negated, ProverConfig.defaults().withWorkerCount(workerCount));
+    }
+
+    public Boolean prove(Clause negated, ProverConfig config) {
+        ProveEvent event = new ProveEvent();
+        event.begin();
         database.flushResolvents();
+        preprocessing = startingSet.prepare(negated, config.getPreprocessing());
+        if (preprocessing != null) {
+            log.debug("Coordinator: preprocessing left {}", preprocessing);
+        }
+        startingFingerprints = startingSet.fingerprints();
+        database.addClause(negated);
+        BackendSelector.Selection selection = BackendSelector.select(database, config.getBackend());
+        boolean proved = selection.backend() == ProverConfig.Backend.RESOLUTION ? search(negated, config)
+                : proveInMemory(selection, config);
+        if (event.shouldCommit()) {
+            event.prover = "MultiThreadedResolver";
+            event.backend = selection.backend().name();
+            event.workers = config.getWorkerCount();
+            event.proved = proved;
+            event.pairsExamined = getPairsExamined();
+            event.duplicatesRejected = getDuplicatesRejected();
+            event.resolventsOverLimit = getResolventsOverLimit();
+            event.commit();
+        }
+        return proved;
+    }
+
+    // Horn and ground clause sets are refuted in memory on the calling thread, these engines leave no work for workers
+    private boolean proveInMemory(BackendSelector.Selection selection, ProverConfig config) {
         solutionFound.set(false);
+        metrics.reset(config.getWorkerCount());
+        tuner = new BatchAutoTuner(config);
 
-        database.addClause(negated);
+        List<Clause> clauses = selection.clauses();
+        try {
+            if (selection.backend() == ProverConfig.Backend.HORN) {
+                HornProver prover = new HornProver(clauses);
+                solutionFound.set(prover.prove());
+                log.debug("Coordinator: HornProver chained {} rule instances of {} clauses", prover.getRuleInstances(),
+                        clauses.size());
+            } else if (selection.backend() == ProverConfig.Backend.CDCL) {
+                CdclSolver solver = new CdclSolver(clauses);
+                solutionFound.set(!solver.solve());
+                log.debug("Coordinator: CdclSolver finished {} ground clauses over {} atoms after {} conflicts",
+                        clauses.size(), solver.getVariableCount(), solver.getConflicts());
+            } else {
+                GroundResolver resolver = new GroundResolver(clauses);
+                log.debug("Coordinator: {} ground clauses over {} atoms, running GroundResolver", clauses.size(),
+                        resolver.getAtomCount());
+                try {
+                    solutionFound.set(resolver.prove());
+                } finally {
+                    metrics.pairsExamined(resolver.getPairsExamined());
+                    metrics.duplicatesRejected(resolver.getDuplicatesRejected());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return solutionFound.get();
+    }
+
+    private boolean search(Clause negated, ProverConfig config) {
+        solutionFound.set(false);
+        metrics.reset(config.getWorkerCount());
+        seenClauses.clear();
+        for (long fingerprint : startingFingerprints) {
+            seenClauses.add(fingerprint);
+        }
+        seenClauses.add(negated);
+        tuner = new BatchAutoTuner(config);
 
         // Create Thread Pool
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
         List<Thread> resolverThreads = new ArrayList<>();
 
-        for (int i = 0; i < availableProcessors; i++) {
+        for (int i = 0; i < config.getWorkerCount(); i++) {
             // Creates a new Runnable
-            Runnable worker = new ProverThread(i, database, this); // adds the new thread
+            Runnable worker = new ProverThread(i, database, this, config, tuner); // adds the new thread
             resolverThreads.add(new Thread(worker));
             // runs the thread
             resolverThreads.get(i).start();
@@ -54,20 +201,20 @@ public class MultiThreadedResolver {
         // Coordinator loop to check for termination conditions
         while (true) {
             if (solutionFound.get()) {
-                System.out.println("Coordinator: Solution found, terminating.");
+                log.debug("Coordinator: Solution found, terminating.");
                 break;
             }
 
             if (activeWorkers.get() == 0 && !database.hasUnresolvedClauses()) {
-                System.out.println("Coordinator: No active workers and no new clauses. Double checking...");
+                log.debug("Coordinator: No active workers and no new clauses. Double checking...");
                 try {
                     // Wait a moment to ensure this is a stable state, not a transient one
                     Thread.sleep(100);
                     if (activeWorkers.get() == 0 && !database.hasUnresolvedClauses()) {
-                        System.out.println("Coordinator: Confirmed saturation, terminating.");
+                        log.debug("Coordinator: Confirmed saturation, terminating.");
                         break; // saturation reached
                     } else {
-                        System.out.println("Coordinator: Double check failed. Interruption cancelled.");
+                        log.debug("Coordinator: Double check failed. Interruption cancelled.");
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -92,11 +239,11 @@ public class MultiThreadedResolver {
             try {
                 thread.join();
             } catch (Exception e) {
-                System.out.println("Error joining thread: " + e.getMessage());
+                log.warn("Error joining thread", e);
             }
         }
 
-        System.out.println("Coordinator: All threads finished.");
+        log.debug("Coordinator: All threads finished.");
         return solutionFound.get();
     }
 
@@ -0,0 +1,287 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Shrinks a starting set before the search, the stages run in the order they are declared:
+//   - DUPLICATES and TAUTOLOGIES drop repeated clauses and clauses holding a literal and its complement
+//   - UNIT_PROPAGATION drops the clauses a ground unit satisfies and removes the complement of the unit from the
+//     others, which can make new units
+//   - SUBSUMPTION drops every clause that an instance of another clause is a subset of
+//   - PURE_LITERALS drops the clauses with a literal whose complement occurs nowhere, no resolvent can remove it
+// All but the last keep the set equivalent. A pure literal depends on the goal, so PURE_LITERALS counts the goal's
+// literals and StartingSet runs it again for every proof, the other stages run once per starting set.
+public class Preprocessor {
+
+    public enum Stage {
+        DUPLICATES, TAUTOLOGIES, UNIT_PROPAGATION, SUBSUMPTION, PURE_LITERALS
+    }
+
+    public static final Set<Stage> NONE = Collections.unmodifiableSet(EnumSet.noneOf(Stage.class));
+    public static final Set<Stage> ALL = Collections.unmodifiableSet(EnumSet.allOf(Stage.class));
+
+    // the simplified clauses and the number of clauses each stage removed
+    public record Result(List<Clause> clauses, Map<Stage, Integer> removed) {
+
+        public int removed(Stage stage) {
+            return removed.getOrDefault(stage, 0);
+        }
+
+        // the clauses of next, which preprocessed the clauses of this result, and the removals of both
+        public Result then(Result next) {
+            Map<Stage, Integer> merged = new EnumMap<>(Stage.class);
+            merged.putAll(removed);
+            next.removed.forEach((stage, count) -> merged.merge(stage, count, Integer::sum));
+            return new Result(next.clauses, merged);
+        }
+
+        @Override
+        public String toString() {
+            List<String> counts = new ArrayList<>();
+            removed.forEach((stage, count) -> counts.add(stage.name().toLowerCase(Locale.ROOT) + "=" + count));
+            return clauses.size() + " clauses, removed " + String.join(" ", counts);
+        }
+    }
+
+    private Preprocessor() {
+    }
+
+    // "all", "none" or a comma separated list of stages, e.g. "duplicates,subsumption"
+    public static Set<Stage> parseStages(String stages) {
+        String trimmed = stages.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.equals("all")) {
+            return ALL;
+        }
+        if (trimmed.isEmpty() || trimmed.equals("none")) {
+            return NONE;
+        }
+        EnumSet<Stage> parsed = EnumSet.noneOf(Stage.class);
+        for (String stage : trimmed.split(",")) {
+            try {
+                parsed.add(Stage.valueOf(stage.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("preprocessing stages must be all, none or a list of "
+                        + Arrays.toString(Stage.values()) + " but was " + stages);
+            }
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    // goal may be null, otherwise PURE_LITERALS counts its literals but it is not part of the result
+    public static Result run(List<Clause> clauses, Set<Stage> stages, Clause goal) {
+        Map<Stage, Integer> removed = new EnumMap<>(Stage.class);
+        List<Clause> current = clauses;
+        for (Stage stage : Stage.values()) {
+            if (!stages.contains(stage)) {
+                continue;
+            }
+            List<Clause> next = switch (stage) {
+                case DUPLICATES -> new ArrayList<>(new LinkedHashSet<>(current));
+                case TAUTOLOGIES -> withoutTautologies(current);
+                case UNIT_PROPAGATION -> propagateUnits(current);
+                case SUBSUMPTION -> withoutSubsumed(current);
+                case PURE_LITERALS -> withoutPureLiterals(current, goal);
+            };
+            removed.put(stage, current.size() - next.size());
+            current = next;
+        }
+        return new Result(current, removed);
+    }
+
+    public static boolean isTautology(Clause clause) {
+        for (Literal literal : clause.getLiterals()) {
+            if (literal.isPositive() && clause.contains(literal.negate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // true when clause1σ ⊆ clause2 for a substitution σ of the variables of clause1. Literals are unary, so every
+    // variable can be mapped on its own.
+    public static boolean subsumes(Clause clause1, Clause clause2) {
+        if (clause1.size() > clause2.size()) {
+            return false;
+        }
+        Map<String, List<Literal>> byVariable = new HashMap<>();
+        for (Literal literal : clause1.getLiterals()) {
+            if (literal.isGround()) {
+                if (!clause2.contains(literal)) {
+                    return false;
+                }
+            } else {
+                byVariable.computeIfAbsent(literal.getArgument(), variable -> new ArrayList<>()).add(literal);
+            }
+        }
+        for (List<Literal> literals : byVariable.values()) {
+            if (!hasImage(literals, clause2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a term the variable of literals can take so that every literal lands in clause
+    private static boolean hasImage(List<Literal> literals, Clause clause) {
+        Literal first = literals.getFirst();
+        for (Literal candidate : clause.getLiterals()) {
+            if (candidate.isPositive() != first.isPositive()
+                    || !candidate.getPredicate().equals(first.getPredicate())) {
+                continue;
+            }
+            boolean fits = true;
+            for (Literal literal : literals) {
+                fits &= clause.contains(new Literal(literal.getPredicate(), candidate.getArgument(),
+                        literal.isPositive()));
+            }
+            if (fits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Clause> withoutTautologies(List<Clause> clauses) {
+        List<Clause> kept = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            if (!isTautology(clause)) {
+                kept.add(clause);
+            }
+        }
+        return kept;
+    }
+
+    private static List<Clause> propagateUnits(List<Clause> clauses) {
+        Set<Literal> units = new HashSet<>();
+        for (Clause clause : clauses) {
+            if (isGroundUnit(clause)) {
+                units.addAll(clause.getLiterals());
+            }
+        }
+
+        List<Clause> current = clauses;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            List<Clause> next = new ArrayList<>(current.size());
+            for (Clause clause : current) {
+                if (isGroundUnit(clause)) {
+                    next.add(clause);
+                    continue;
+                }
+                Set<Literal> kept = new HashSet<>();
+                boolean satisfied = false;
+                for (Literal literal : clause.getLiterals()) {
+                    satisfied |= units.contains(literal);
+                    if (!units.contains(literal.negate())) {
+                        kept.add(literal);
+                    }
+                }
+                if (satisfied) {
+                    changed = true;
+                    continue;
+                }
+                if (kept.size() < clause.size()) {
+                    // an empty clause means the starting set is unsatisfiable, the search finds it right away
+                    clause = new Clause(kept);
+                    if (isGroundUnit(clause)) {
+                        units.addAll(kept);
+                    }
+                    changed = true;
+                }
+                next.add(clause);
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private static boolean isGroundUnit(Clause clause) {
+        return clause.size() == 1 && clause.isGround();
+    }
+
+    // shortest clauses first, so a clause can only be subsumed by one that is already kept. Each kept clause is
+    // indexed under one of its signed predicates, a subsuming clause's predicates all occur in the subsumed one.
+    private static List<Clause> withoutSubsumed(List<Clause> clauses) {
+        List<Clause> bySize = new ArrayList<>(clauses);
+        bySize.sort((clause1, clause2) -> Integer.compare(clause1.size(), clause2.size()));
+        Map<String, List<Clause>> index = new HashMap<>();
+        Set<Clause> subsumed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Clause clause : bySize) {
+            if (isSubsumed(clause, index)) {
+                subsumed.add(clause);
+            } else if (!clause.isEmpty()) {
+                index.computeIfAbsent(key(clause.getLiterals().iterator().next()), key -> new ArrayList<>())
+                        .add(clause);
+            }
+        }
+
+        List<Clause> kept = new ArrayList<>(clauses.size() - subsumed.size());
+        for (Clause clause : clauses) {
+            if (!subsumed.contains(clause)) {
+                kept.add(clause);
+            }
+        }
+        return kept;
+    }
+
+    private static boolean isSubsumed(Clause clause, Map<String, List<Clause>> index) {
+        Set<String> keys = new HashSet<>();
+        for (Literal literal : clause.getLiterals()) {
+            if (keys.add(key(literal))) {
+                for (Clause candidate : index.getOrDefault(key(literal), List.of())) {
+                    if (subsumes(candidate, clause)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // repeats until no clause is left with a pure literal, dropping a clause can make other literals pure
+    private static List<Clause> withoutPureLiterals(List<Clause> clauses, Clause goal) {
+        List<Clause> current = clauses;
+        while (true) {
+            Set<String> occurring = new HashSet<>();
+            for (Clause clause : current) {
+                for (Literal literal : clause.getLiterals()) {
+                    occurring.add(key(literal));
+                }
+            }
+            if (goal != null) {
+                for (Literal literal : goal.getLiterals()) {
+                    occurring.add(key(literal));
+                }
+            }
+
+            List<Clause> next = new ArrayList<>(current.size());
+            for (Clause clause : current) {
+                boolean pure = false;
+                for (Literal literal : clause.getLiterals()) {
+                    pure |= !occurring.contains(key(literal.negate()));
+                }
+                if (!pure) {
+                    next.add(clause);
+                }
+            }
+            if (next.size() == current.size()) {
+                return next;
+            }
+            current = next;
+        }
+    }
+
+    private static String key(Literal literal) {
+        return (literal.isPositive() ? "+" : "-") + literal.getPredicate();
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// A refutation problem: the clauses to load into the store and the negated goal that is handed to prove.
+public class Problem {
+
+    private final String name;
+    private final List<Clause> clauses;
+    private final Clause negatedGoal;
+
+    public Problem(String name, List<Clause> clauses, Clause negatedGoal) {
+        if (clauses == null || negatedGoal == null) {
+            throw new IllegalArgumentException("clauses and negatedGoal cannot be null");
+        }
+        this.name = name;
+        this.clauses = clauses;
+        this.negatedGoal = negatedGoal;
+    }
+
+    // Problems without a goal (plain CNF) are refuted as a whole, so the last clause is used as the goal. prove
+    // only adds the goal to the stored clauses, which leaves the problem unchanged.
+    public static Problem withoutGoal(String name, List<Clause> clauses) {
+        if (clauses == null || clauses.size() < 2) {
+            throw new IllegalArgumentException("clauses must contain at least two clauses");
+        }
+        List<Clause> rest = new ArrayList<>(clauses.subList(0, clauses.size() - 1));
+        return new Problem(name, rest, clauses.getLast());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Clause> getClauses() {
+        return clauses;
+    }
+
+    public Clause getNegatedGoal() {
+        return negatedGoal;
+    }
+
+    // clauses plus the negated goal
+    public int size() {
+        return clauses.size() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size() + " clauses)";
+    }
+}
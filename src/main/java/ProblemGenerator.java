@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Seeded generator of benchmark problems. The same seed and the same sequence of calls always give the same
+// problems, so a generated workload can be used to compare runs.
+//
+// Propositional problems use the DIMACS naming (Vn with the propositional argument), first order problems are
+// unary Horn clauses over the variable x and the constant C.
+public class ProblemGenerator {
+
+    private static final String CONSTANT = "C";
+
+    private final Random random;
+
+    public ProblemGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // Uniform random k-CNF with round(ratio * variables) clauses of k distinct variables each. For 3-CNF the
+    // satisfiability threshold is around a ratio of 4.26, problems near it are the hardest to refute.
+    public Problem randomKCnf(int variables, double ratio, int k) {
+        if (variables <= 0 || k <= 0 || k > variables || ratio <= 0) {
+            throw new IllegalArgumentException(
+                    "variables, k and ratio must be positive numbers and k can not exceed variables");
+        }
+
+        int clauseCount = Math.max(2, (int) Math.round(ratio * variables));
+        List<Clause> clauses = new ArrayList<>(clauseCount);
+        List<Integer> pool = new ArrayList<>(variables);
+        for (int i = 1; i <= variables; i++) {
+            pool.add(i);
+        }
+
+        for (int i = 0; i < clauseCount; i++) {
+            // partial Fisher-Yates shuffle picks k distinct variables
+            Clause clause = new Clause();
+            for (int j = 0; j < k; j++) {
+                Collections.swap(pool, j, j + random.nextInt(variables - j));
+                clause.addLiteral(proposition(pool.get(j), random.nextBoolean()));
+            }
+            clauses.add(clause);
+        }
+
+        return Problem.withoutGoal("random-" + k + "-cnf-" + variables + "-" + ratio, clauses);
+    }
+
+    // The pigeonhole principle: every pigeon sits in a hole and no hole holds two pigeons. Unsatisfiable when there
+    // are more pigeons than holes and exponentially hard for resolution.
+    public Problem pigeonhole(int pigeons, int holes) {
+        if (pigeons <= 0 || holes <= 0) {
+            throw new IllegalArgumentException("pigeons and holes must be positive numbers");
+        }
+
+        List<Clause> clauses = new ArrayList<>();
+        for (int pigeon = 0; pigeon < pigeons; pigeon++) {
+            Clause somewhere = new Clause();
+            for (int hole = 0; hole < holes; hole++) {
+                somewhere.addLiteral(proposition(pigeon * holes + hole + 1, true));
+            }
+            clauses.add(somewhere);
+        }
+        for (int hole = 0; hole < holes; hole++) {
+            for (int first = 0; first < pigeons; first++) {
+                for (int second = first + 1; second < pigeons; second++) {
+                    Clause apart = new Clause();
+                    apart.addLiteral(proposition(first * holes + hole + 1, false));
+                    apart.addLiteral(proposition(second * holes + hole + 1, false));
+                    clauses.add(apart);
+                }
+            }
+        }
+
+        return Problem.withoutGoal("pigeonhole-" + pigeons + "-" + holes, clauses);
+    }
+
+    // Random Horn program over the predicates H0..H(predicates - 1). Every rule derives a predicate from one to
+    // maxBody lower numbered ones, so heads can be reached along several branches and the program is acyclic. The
+    // goal is the highest numbered predicate that follows from the facts, so the problem is always provable.
+    public Problem randomHorn(int predicates, int rules, int maxBody) {
+        if (predicates < 2 || rules <= 0 || maxBody <= 0) {
+            throw new IllegalArgumentException("predicates must be at least 2, rules and maxBody must be positive");
+        }
+
+        List<Clause> clauses = new ArrayList<>();
+        boolean[] derivable = new boolean[predicates];
+
+        // facts about the lowest quarter of the predicates
+        int factCount = Math.max(1, predicates / 10);
+        int factRange = Math.max(1, predicates / 4);
+        for (int i = 0; i < factCount; i++) {
+            int predicate = i == 0 ? 0 : random.nextInt(factRange);
+            Clause fact = new Clause();
+            fact.addLiteral(new Literal("H" + predicate, CONSTANT, true));
+            clauses.add(fact);
+            derivable[predicate] = true;
+        }
+
+        List<int[]> bodies = new ArrayList<>(rules);
+        int[] heads = new int[rules];
+        for (int i = 0; i < rules; i++) {
+            int head = 1 + random.nextInt(predicates - 1);
+            int bodySize = 1 + random.nextInt(Math.min(maxBody, head));
+            int[] body = random.ints(0, head).distinct().limit(bodySize).toArray();
+
+            Clause rule = new Clause();
+            for (int predicate : body) {
+                rule.addLiteral(new Literal("H" + predicate, "x", false));
+            }
+            rule.addLiteral(new Literal("H" + head, "x", true));
+            clauses.add(rule);
+            heads[i] = head;
+            bodies.add(body);
+        }
+
+        // rule bodies only use lower numbered predicates, so one pass over the rules sorted by head is enough
+        Integer[] order = new Integer[rules];
+        for (int i = 0; i < rules; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(heads[a], heads[b]));
+        for (int rule : order) {
+            boolean fires = true;
+            for (int predicate : bodies.get(rule)) {
+                fires &= derivable[predicate];
+            }
+            derivable[heads[rule]] |= fires;
+        }
+
+        int goal = predicates - 1;
+        while (!derivable[goal]) {
+            goal--;
+        }
+
+        Collections.shuffle(clauses, random);
+        Clause negatedGoal = new Clause();
+        negatedGoal.addLiteral(new Literal("H" + goal, CONSTANT, false));
+        return new Problem("horn-" + predicates + "-" + rules + "-" + maxBody, clauses, negatedGoal);
+    }
+
+    // The implication chain P1 => P2 => ... => Pn from Benchmark.nSizedExample, proving Pn(C) from P1(C), mixed
+    // with round(density * chainLength) distractor clauses: implications, branching rules and facts over
+    // predicates the proof never needs.
+    public Problem distractorKb(int chainLength, double density) {
+        if (chainLength < 2 || density < 0) {
+            throw new IllegalArgumentException("chainLength must be at least 2 and density can not be negative");
+        }
+
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 1; i < chainLength; i++) {
+            Clause link = new Clause();
+            link.addLiteral(new Literal("P" + i, "x", false));
+            link.addLiteral(new Literal("P" + (i + 1), "x", true));
+            clauses.add(link);
+        }
+        Clause start = new Clause();
+        start.addLiteral(new Literal("P1", CONSTANT, true));
+        clauses.add(start);
+
+        int distractors = (int) Math.round(density * chainLength);
+        int distractorPredicates = Math.max(2, distractors / 2);
+        for (int i = 0; i < distractors; i++) {
+            Clause distractor = new Clause();
+            String head = "Q" + random.nextInt(distractorPredicates);
+            int kind = random.nextInt(4);
+            if (kind == 0) {
+                distractor.addLiteral(new Literal(head, CONSTANT, true));
+            } else {
+                // one body literal for a plain implication, two for a branching rule
+                for (int j = 0; j < kind / 2 + 1; j++) {
+                    distractor.addLiteral(new Literal("Q" + random.nextInt(distractorPredicates), "x", false));
+                }
+                distractor.addLiteral(new Literal(head, "x", true));
+            }
+            clauses.add(distractor);
+        }
+
+        Collections.shuffle(clauses, random);
+        Clause negatedGoal = new Clause();
+        negatedGoal.addLiteral(new Literal("P" + chainLength, CONSTANT, false));
+        return new Problem("distractor-" + chainLength + "-" + density, clauses, negatedGoal);
+    }
+
+    private static Literal proposition(int variable, boolean positive) {
+        return new Literal("V" + variable, Constants.PROPOSITION_ARGUMENT, positive);
+    }
+}
@@ -0,0 +1,352 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs binary resolution on its store with remote ProofWorkers. Every work unit carries the batch sizes, literal
+// selection and clause limits of the proof's ProverConfig, and the clauses carry their depth. The in memory engines,
+// the other inference rules and the tuner need the whole clause set or the workers' timings in one JVM, so configs
+// asking for them are rejected. The worker count is the number of workers that connect.
+public class ProofCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ProofCoordinator.class);
+
+    private final ClauseStore database;
+    private final StartingSet startingSet;
+    private final AtomicInteger activeWorkers = new AtomicInteger(0);
+    private final AtomicBoolean solutionFound = new AtomicBoolean(false);
+    private final LongAdder pairsExamined = new LongAdder();
+    private final LongAdder duplicatesRejected = new LongAdder();
+    private final LongAdder resolventsOverLimit = new LongAdder();
+    private final ClauseFingerprintSet seenClauses = new ClauseFingerprintSet();
+    private final List<WorkerSession> sessions = new CopyOnWriteArrayList<>();
+
+    // sessions only hand out work while a proof is running
+    private final ReentrantLock proofLock = new ReentrantLock();
+    private final Condition proofStarted = proofLock.newCondition();
+    private boolean proving = false;
+    private volatile ProverConfig config = ProverConfig.defaults(); // of the running or last proof
+
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+
+    public ProofCoordinator(List<Clause> clauses) {
+        this(clauses, "jdbc:sqlite:db.sqlite3");
+    }
+
+    public ProofCoordinator(List<Clause> clauses, String dbPath) {
+        this(new Database(clauses, dbPath));
+    }
+
+    public ProofCoordinator(ClauseStore database) {
+        this.database = database;
+        this.startingSet = new StartingSet(database);
+    }
+
+    // binds to the loopback interface, port 0 picks a free port
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptWorkers, "coordinator-accept");
+        acceptThread.start();
+        return serverSocket.getLocalPort();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean solutionFound() {
+        return solutionFound.get();
+    }
+
+    // number of clause pairs the workers resolved during the last proof
+    public long getPairsExamined() {
+        return pairsExamined.sum();
+    }
+
+    // number of streamed resolvents dropped by the fingerprint set during the last proof
+    public long getDuplicatesRejected() {
+        return duplicatesRejected.sum();
+    }
+
+    // number of resolvents the workers dropped by the config's ClauseLimits during the last proof
+    public long getResolventsOverLimit() {
+        return resolventsOverLimit.sum();
+    }
+
+    // false when the last proof dropped resolvents over the limits, a failed proof then does not mean the goal does
+    // not follow
+    public boolean isComplete() {
+        return getResolventsOverLimit() == 0;
+    }
+
+    private void acceptWorkers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                WorkerSession session = new WorkerSession(socket);
+                sessions.add(session);
+                session.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Coordinator: failed to accept worker", e);
+                }
+            }
+        }
+    }
+
+    public boolean prove(Clause negated) {
+        return prove(negated, ProverConfig.defaults());
+    }
+
+    public boolean prove(Clause negated, ProverConfig config) {
+        ProverConfig.Backend backend = config.getBackend();
+        if (backend != ProverConfig.Backend.AUTO && backend != ProverConfig.Backend.RESOLUTION) {
+            throw new IllegalArgumentException("the coordinator only runs the store search, not " + backend);
+        }
+        if (config.getInference() != ProverConfig.Inference.BINARY) {
+            throw new IllegalArgumentException("the workers only run binary resolution, not " + config.getInference());
+        }
+        if (config.isAutoTune()) {
+            throw new IllegalArgumentException("the batch sizes of remote workers cannot be tuned");
+        }
+        this.config = config;
+        database.flushResolvents();
+        solutionFound.set(false);
+        pairsExamined.reset();
+        duplicatesRejected.reset();
+        resolventsOverLimit.reset();
+        seenClauses.clear();
+        startingSet.prepare(negated, config.getPreprocessing());
+        for (long fingerprint : startingSet.fingerprints()) {
+            seenClauses.add(fingerprint);
+        }
+        seenClauses.add(negated);
+        database.addClause(negated);
+
+        setProving(true);
+
+        // Coordinator loop to check for termination conditions
+        while (true) {
+            if (solutionFound.get()) {
+                log.debug("Coordinator: Solution found, terminating.");
+                break;
+            }
+
+            if (activeWorkers.get() == 0 && !database.hasUnresolvedClauses()) {
+                try {
+                    // Wait a moment to ensure this is a stable state, not a transient one
+                    Thread.sleep(100);
+                    if (activeWorkers.get() == 0 && !database.hasUnresolvedClauses()) {
+                        log.debug("Coordinator: Confirmed saturation, terminating.");
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        setProving(false);
+
+        // workers only live for a single proof
+        for (WorkerSession session : sessions) {
+            session.shutdown();
+        }
+        for (WorkerSession session : sessions) {
+            try {
+                session.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sessions.clear();
+        activeWorkers.set(0);
+
+        return solutionFound.get();
+    }
+
+    private void setProving(boolean proving) {
+        proofLock.lock();
+        try {
+            this.proving = proving;
+            proofStarted.signalAll();
+        } finally {
+            proofLock.unlock();
+        }
+    }
+
+    private void awaitProof() throws InterruptedException {
+        proofLock.lock();
+        try {
+            while (!proving) {
+                proofStarted.await();
+            }
+        } finally {
+            proofLock.unlock();
+        }
+    }
+
+    public void close() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+            if (acceptThread != null) {
+                acceptThread.join();
+            }
+        } catch (IOException e) {
+            log.error("close failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (WorkerSession session : sessions) {
+            session.shutdown();
+        }
+        database.close();
+    }
+
+    // serves a single worker connection
+    private class WorkerSession extends Thread {
+        private final Socket socket;
+        private ArrayList<Clause> unit = null;
+
+        WorkerSession(Socket socket) {
+            super("coordinator-session-" + socket.getPort());
+            this.socket = socket;
+        }
+
+        void shutdown() {
+            interrupt();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.error("close failed", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                try {
+                    awaitProof();
+                    serve(in, out);
+                } catch (InterruptedException e) {
+                    // the proof is over, tell the worker to stop if it is still listening
+                    try {
+                        WireProtocol.writeFrame(out, WireProtocol.SHUTDOWN);
+                    } catch (IOException ignored) {
+                        // the socket has already been closed
+                    }
+                }
+            } catch (IOException e) {
+                // the worker disconnected or the session was shut down
+            } finally {
+                if (unit != null) {
+                    unit = null;
+                    activeWorkers.decrementAndGet();
+                }
+            }
+        }
+
+        private void serve(DataInputStream in, DataOutputStream out) throws IOException, InterruptedException {
+            while (!isInterrupted()) {
+                WireProtocol.Frame frame = WireProtocol.readFrame(in);
+                switch (frame.getType()) {
+                    case WireProtocol.REQUEST_WORK -> {
+                        if (solutionFound.get()) {
+                            WireProtocol.writeFrame(out, WireProtocol.SHUTDOWN);
+                            return;
+                        }
+                        ProverConfig proof = config;
+                        ArrayList<Clause> unresolved = database.getUnresolvedClauses(proof.getUnresolvedBatchSize());
+                        if (!unresolved.isEmpty()) {
+                            unit = unresolved;
+                            activeWorkers.incrementAndGet();
+                        }
+                        WireProtocol.writeFrame(out, WireProtocol.WORK, WireProtocol.encodeWork(proof, unresolved));
+                    }
+                    case WireProtocol.FETCH_CLAUSES -> {
+                        if (solutionFound.get()) {
+                            WireProtocol.writeFrame(out, WireProtocol.SHUTDOWN);
+                            return;
+                        }
+                        DataInputStream payload = frame.payload();
+                        int startingId = payload.readInt();
+                        int endId = payload.readInt();
+                        ArrayList<Clause> clauses = database.getClausesInRange(startingId, endId);
+                        WireProtocol.writeFrame(out, WireProtocol.CLAUSES, WireProtocol.encodeClauses(clauses));
+                    }
+                    case WireProtocol.RESOLVENTS -> {
+                        List<Clause> newResolvents = new ArrayList<>();
+                        for (Clause resolvent : WireProtocol.decodeClauses(frame.payload())) {
+                            if (resolvent.isEmpty()) {
+                                solutionFound.set(true);
+                            }
+                            // drop resolvents another worker has already sent
+                            if (seenClauses.add(resolvent)) {
+                                newResolvents.add(resolvent);
+                            } else {
+                                duplicatesRejected.increment();
+                            }
+                        }
+                        database.addClauses(newResolvents);
+                    }
+                    case WireProtocol.WORK_DONE -> {
+                        DataInputStream payload = frame.payload();
+                        pairsExamined.add(payload.readLong());
+                        resolventsOverLimit.add(payload.readLong());
+                        if (unit != null) {
+                            database.setResolved(unit);
+                            unit = null;
+                            activeWorkers.decrementAndGet();
+                        }
+                    }
+                    default -> throw new IOException("Unknown message type: " + frame.getType());
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+
+        ProofCoordinator coordinator = new ProofCoordinator(clauses);
+        try {
+            System.out.println("Coordinator listening on port " + coordinator.start(port));
+            System.out.println("Attempting to prove: Mortal(Socrates)");
+            boolean result = coordinator.prove(ClauseParser.parseClause("¬Mortal(Socrates)"));
+            System.out.println("\nProof " + (result ? "succeeded" : "failed"));
+        } finally {
+            coordinator.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ProofWorker implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProofWorker.class);
+
+    private final String host;
+    private final int port;
+    private boolean shutdown = false;
+    private long overLimit = 0; // resolvents of the current unit dropped by the clause limits
+
+    public ProofWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public void run() {
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            log.info("Worker connected to {}:{}", host, port);
+
+            while (!shutdown && !Thread.currentThread().isInterrupted()) {
+                WireProtocol.writeFrame(out, WireProtocol.REQUEST_WORK);
+                WireProtocol.Frame frame = WireProtocol.readFrame(in);
+                if (frame.getType() != WireProtocol.WORK) {
+                    break;
+                }
+
+                DataInputStream payload = frame.payload();
+                ProverConfig config = WireProtocol.readConfig(payload);
+                List<Clause> unresolved = WireProtocol.decodeClauses(payload);
+                if (unresolved.isEmpty()) {
+                    continue;
+                }
+
+                overLimit = 0;
+                long pairsExamined = resolveUnit(config, unresolved, in, out);
+                if (!shutdown) {
+                    WireProtocol.writeFrame(out, WireProtocol.WORK_DONE,
+                            WireProtocol.encodeCounts(pairsExamined, overLimit));
+                }
+            }
+        } catch (IOException e) {
+            // the coordinator closes the connection once the proof is over
+        }
+        log.info("Worker finished.");
+    }
+
+    // mirrors ProverThread.run with the coordinator's batch sizes, selection and limits, fetching clause windows
+    // from the coordinator instead of the database
+    private long resolveUnit(ProverConfig config, List<Clause> unresolved, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        int maxId = unresolved.getLast().getId();
+        Set<Clause> newResolutions = new HashSet<>();
+        long pairsExamined = 0;
+        EligibleLiterals eligible = config.getSelection().getKind() == LiteralSelection.Kind.ALL ? null
+                : new EligibleLiterals(config.getSelection(), unresolved);
+
+        int windowEnd = maxId + 1;
+        while (windowEnd > 0) {
+            int windowStart = windowEnd - config.getClauseBatchSize();
+            List<Clause> batchClauses = fetchClauses(windowStart, windowEnd, in, out);
+            if (batchClauses == null) {
+                return pairsExamined;
+            }
+            if (eligible != null) {
+                eligible.nextWindow();
+            }
+
+            // each pair is only resolved by its newer clause
+            boolean emptyClauseFound = false;
+            for (Clause clause1 : unresolved) {
+                for (Clause clause2 : batchClauses) {
+                    if (clause2.getId() > clause1.getId()) {
+                        break; // clauses are in id order
+                    }
+                    pairsExamined++;
+                    List<Clause> resolvents = eligible == null ? ResolutionTheoremProver.resolve(clause1, clause2)
+                            : ResolutionTheoremProver.resolve(clause1, eligible.get(clause1), clause2,
+                            eligible.get(clause2));
+                    for (Clause resolvent : resolvents) {
+                        if (resolvent.isEmpty()) {
+                            emptyClauseFound = true;
+                        } else if (!config.getLimits().admits(resolvent)) {
+                            overLimit++;
+                            continue;
+                        }
+                        newResolutions.add(resolvent);
+                    }
+                }
+            }
+
+            windowEnd = windowStart;
+
+            // stream resolvents back once the save threshold is reached or a proof is found
+            if (emptyClauseFound || newResolutions.size() >= config.getResolventSaveThreshold()) {
+                sendResolvents(newResolutions, out);
+            }
+            if (emptyClauseFound) {
+                return pairsExamined;
+            }
+        }
+        sendResolvents(newResolutions, out);
+        return pairsExamined;
+    }
+
+    private List<Clause> fetchClauses(int startingId, int endId, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        WireProtocol.writeFrame(out, WireProtocol.FETCH_CLAUSES, WireProtocol.encodeRange(startingId, endId));
+        WireProtocol.Frame frame = WireProtocol.readFrame(in);
+        if (frame.getType() != WireProtocol.CLAUSES) {
+            shutdown = true;
+            return null;
+        }
+        return WireProtocol.decodeClauses(frame.payload());
+    }
+
+    private void sendResolvents(Set<Clause> resolvents, DataOutputStream out) throws IOException {
+        if (!resolvents.isEmpty()) {
+            WireProtocol.writeFrame(out, WireProtocol.RESOLVENTS, WireProtocol.encodeClauses(resolvents));
+            resolvents.clear();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ProofWorker <port> [host]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        String host = args.length > 1 ? args[1] : "localhost";
+        new ProofWorker(host, port).run();
+    }
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for a whole prove call. Like the other prover events it is disabled unless a recording turns it on,
+// e.g. with -XX:StartFlightRecording:settings=default,settings=docs/prover.jfc
+@Name("prover.Prove")
+@Label("Prove")
+@Category("Prover")
+@Description("A prove call of ResolutionTheoremProver or MultiThreadedResolver")
+@Enabled(false)
+@StackTrace(false)
+public class ProveEvent extends Event {
+
+    @Label("Prover")
+    String prover;
+
+    @Label("Backend")
+    String backend;
+
+    @Label("Workers")
+    int workers;
+
+    @Label("Proved")
+    boolean proved;
+
+    @Label("Pairs Examined")
+    long pairsExamined;
+
+    @Label("Duplicates Rejected")
+    long duplicatesRejected;
+
+    @Label("Resolvents Over Limit")
+    long resolventsOverLimit;
+}
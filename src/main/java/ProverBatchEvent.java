@@ -0,0 +1,33 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for one batch of unresolved clauses worked off by a ProverThread, from claiming the batch to marking it
+// resolved
+@Name("prover.Batch")
+@Label("Prover Batch")
+@Category("Prover")
+@Description("A batch of unresolved clauses resolved by a ProverThread")
+@Enabled(false)
+@StackTrace(false)
+public class ProverBatchEvent extends Event {
+
+    @Label("Worker")
+    int worker;
+
+    @Label("Unresolved Clauses")
+    int unresolvedCount;
+
+    @Label("Clauses Scanned")
+    int clausesScanned;
+
+    @Label("Pairs Examined")
+    long pairsExamined;
+
+    @Label("Resolvents Produced")
+    long resolventsProduced;
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+// Tuning knobs of a proof. The defaults are the Constants values and one worker per available processor, and
+// fromSystemProperties lets a run override them without recompiling. With autoTune the batch sizes are only the
+// starting point and a BatchAutoTuner adjusts them while the proof runs. The backend chooses the engine, by default
+// BackendSelector picks one that fits the clauses, and the inference rule, literal selection and clause limits are the
+// ones the store search derives with. The preprocessing stages simplify the starting set before every engine.
+public class ProverConfig {
+
+    // the engine a proof runs on, AUTO lets BackendSelector pick one for the starting set
+    public enum Backend {
+        AUTO, RESOLUTION, GROUND, CDCL, HORN
+    }
+
+    // the inference rule of the store search: binary resolution, hyperresolution or unit-resulting (UR) resolution
+    public enum Inference {
+        BINARY, HYPER, UR
+    }
+
+    private final int workerCount;
+    private final int clauseBatchSize;
+    private final int unresolvedBatchSize;
+    private final int resolventSaveThreshold;
+    private final boolean autoTune;
+    private final Backend backend;
+    private final Inference inference;
+    private final LiteralSelection selection;
+    private final ClauseLimits limits;
+    private final Set<Preprocessor.Stage> preprocessing;
+
+    // start from defaults() or fromProperties and change one field at a time with the with methods
+    private ProverConfig(int workerCount, int clauseBatchSize, int unresolvedBatchSize, int resolventSaveThreshold,
+                         boolean autoTune, Backend backend, Inference inference, LiteralSelection selection,
+                         ClauseLimits limits, Set<Preprocessor.Stage> preprocessing) {
+        if (workerCount <= 0 || clauseBatchSize <= 0 || unresolvedBatchSize <= 0 || resolventSaveThreshold <= 0) {
+            throw new IllegalArgumentException("workerCount and batch sizes must be positive numbers");
+        }
+        if (backend == null) {
+            throw new IllegalArgumentException("backend cannot be null");
+        }
+        if (inference == null) {
+            throw new IllegalArgumentException("inference cannot be null");
+        }
+        if (selection == null) {
+            throw new IllegalArgumentException("selection cannot be null");
+        }
+        if (limits == null) {
+            throw new IllegalArgumentException("limits cannot be null");
+        }
+        if (preprocessing == null) {
+            throw new IllegalArgumentException("preprocessing cannot be null");
+        }
+        this.workerCount = workerCount;
+        this.clauseBatchSize = clauseBatchSize;
+        this.unresolvedBatchSize = unresolvedBatchSize;
+        this.resolventSaveThreshold = resolventSaveThreshold;
+        this.autoTune = autoTune;
+        this.backend = backend;
+        this.inference = inference;
+        this.selection = selection;
+        this.limits = limits;
+        EnumSet<Preprocessor.Stage> stages = EnumSet.noneOf(Preprocessor.Stage.class);
+        stages.addAll(preprocessing);
+        this.preprocessing = Collections.unmodifiableSet(stages);
+    }
+
+    public static ProverConfig defaults() {
+        return new ProverConfig(Runtime.getRuntime().availableProcessors(), Constants.CLAUSE_BATCH_SIZE,
+                Constants.UNRESOLVED_BATCH_SIZE, Constants.RESOLVENT_SAVE_THRESHOLD, false, Backend.AUTO,
+                Inference.BINARY, LiteralSelection.ALL, ClauseLimits.NONE, Preprocessor.NONE);
+    }
+
+    // the defaults overridden by -Dprover.workers, -Dprover.clauseBatchSize, -Dprover.unresolvedBatchSize,
+    // -Dprover.resolventSaveThreshold, -Dprover.autoTune, -Dprover.backend, -Dprover.inference, -Dprover.selection,
+    // -Dprover.precedence, -Dprover.maxLiterals, -Dprover.maxDepth and -Dprover.preprocess
+    public static ProverConfig fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    public static ProverConfig fromProperties(Properties properties) {
+        ProverConfig defaults = defaults();
+        return new ProverConfig(
+                intProperty(properties, "prover.workers", defaults.workerCount),
+                intProperty(properties, "prover.clauseBatchSize", defaults.clauseBatchSize),
+                intProperty(properties, "prover.unresolvedBatchSize", defaults.unresolvedBatchSize),
+                intProperty(properties, "prover.resolventSaveThreshold", defaults.resolventSaveThreshold),
+                Boolean.parseBoolean(properties.getProperty("prover.autoTune", "false")),
+                enumProperty(properties, "prover.backend", defaults.backend),
+                enumProperty(properties, "prover.inference", defaults.inference),
+                LiteralSelection.parse(properties.getProperty("prover.selection", "all"),
+                        properties.getProperty("prover.precedence")),
+                new ClauseLimits(intProperty(properties, "prover.maxLiterals", defaults.limits.getMaxLiterals()),
+                        intProperty(properties, "prover.maxDepth", defaults.limits.getMaxDepth())),
+                Preprocessor.parseStages(properties.getProperty("prover.preprocess", "none")));
+    }
+
+    private static <E extends Enum<E>> E enumProperty(Properties properties, String name, E defaultValue) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " must be one of "
+                    + Arrays.toString(defaultValue.getDeclaringClass().getEnumConstants()) + " but was " + value);
+        }
+    }
+
+    private static int intProperty(Properties properties, String name, int defaultValue) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number but was " + value);
+        }
+    }
+
+    public ProverConfig withWorkerCount(int workerCount) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withClauseBatchSize(int clauseBatchSize) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withUnresolvedBatchSize(int unresolvedBatchSize) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withResolventSaveThreshold(int resolventSaveThreshold) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withAutoTune(boolean autoTune) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withBackend(Backend backend) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withInference(Inference inference) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withSelection(LiteralSelection selection) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withLimits(ClauseLimits limits) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    public ProverConfig withPreprocessing(Set<Preprocessor.Stage> preprocessing) {
+        return new ProverConfig(workerCount, clauseBatchSize, unresolvedBatchSize, resolventSaveThreshold, autoTune,
+                backend, inference, selection, limits, preprocessing);
+    }
+
+    // number of ProverThreads started by MultiThreadedResolver
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    // clauses fetched per id window when resolving a batch
+    public int getClauseBatchSize() {
+        return clauseBatchSize;
+    }
+
+    // unresolved clauses claimed at once
+    public int getUnresolvedBatchSize() {
+        return unresolvedBatchSize;
+    }
+
+    // resolvents buffered before they are written to the store
+    public int getResolventSaveThreshold() {
+        return resolventSaveThreshold;
+    }
+
+    // whether the batch sizes are adjusted during the proof
+    public boolean isAutoTune() {
+        return autoTune;
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public Inference getInference() {
+        return inference;
+    }
+
+    // the literals binary resolution may resolve on
+    public LiteralSelection getSelection() {
+        return selection;
+    }
+
+    // resolvents over these limits are dropped before they are stored
+    public ClauseLimits getLimits() {
+        return limits;
+    }
+
+    // the Preprocessor stages run on the starting set before the proof
+    public Set<Preprocessor.Stage> getPreprocessing() {
+        return preprocessing;
+    }
+
+    @Override
+    public String toString() {
+        return "workers=" + workerCount + ", clauseBatch=" + clauseBatchSize + ", unresolvedBatch="
+                + unresolvedBatchSize + ", saveThreshold=" + resolventSaveThreshold + (autoTune ? ", autoTune" : "")
+                + (backend != Backend.AUTO ? ", backend=" + backend : "")
+                + (inference != Inference.BINARY ? ", inference=" + inference : "")
+                + (selection.getKind() != LiteralSelection.Kind.ALL ? ", selection=" + selection : "")
+                + (limits.isBounded() ? ", limits=" + limits : "")
+                + (!preprocessing.isEmpty() ? ", preprocess=" + preprocessing : "");
+    }
+}
@@ -0,0 +1,265 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Metrics of the proof a MultiThreadedResolver is running (or ran last), reset when a proof starts.
+//   - counters: clause pairs examined, resolvents generated, duplicates rejected, resolvents over the clause limits,
+//     unresolved batches and clause windows fetched. Workers add their counts once per batch, so these are always on.
+//   - histograms: database read latency (clause windows), write latency (inserts and setResolved) and, for a
+//     Database, the contended waits for its lock
+//   - per worker busy time (working on a batch) and idle time (waiting for and claiming a batch)
+// Timing needs two clock reads per database call and can be switched off with setEnabled(false).
+public class ProverMetrics implements ProverMetricsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProverMetrics.class);
+
+    public record Snapshot(long pairsExamined, long resolventsGenerated, long duplicatesRejected,
+                           long resolventsOverLimit, long unresolvedBatchesFetched, long clauseWindowsFetched,
+                           LatencyHistogram.Snapshot databaseReads, LatencyHistogram.Snapshot databaseWrites,
+                           LatencyHistogram.Snapshot lockWaits, long[] workerBusyNanos, long[] workerIdleNanos) {
+    }
+
+    private volatile boolean enabled = true;
+
+    private final LongAdder pairsExamined = new LongAdder();
+    private final LongAdder resolventsGenerated = new LongAdder();
+    private final LongAdder duplicatesRejected = new LongAdder();
+    private final LongAdder resolventsOverLimit = new LongAdder();
+    private final LongAdder unresolvedBatchesFetched = new LongAdder();
+    private final LongAdder clauseWindowsFetched = new LongAdder();
+    private final LatencyHistogram databaseReads = new LatencyHistogram();
+    private final LatencyHistogram databaseWrites = new LatencyHistogram();
+    private final LatencyHistogram lockWaits;
+
+    // every worker only writes its own slot
+    private volatile AtomicLongArray workerBusyNanos = new AtomicLongArray(0);
+    private volatile AtomicLongArray workerIdleNanos = new AtomicLongArray(0);
+
+    private ObjectName registeredName;
+
+    public ProverMetrics() {
+        this(new LatencyHistogram());
+    }
+
+    // lockWaits is filled by the clause store, e.g. Database.getLockWaitHistogram()
+    public ProverMetrics(LatencyHistogram lockWaits) {
+        this.lockWaits = lockWaits;
+    }
+
+    public void reset(int workerCount) {
+        pairsExamined.reset();
+        resolventsGenerated.reset();
+        duplicatesRejected.reset();
+        resolventsOverLimit.reset();
+        unresolvedBatchesFetched.reset();
+        clauseWindowsFetched.reset();
+        databaseReads.reset();
+        databaseWrites.reset();
+        lockWaits.reset();
+        workerBusyNanos = new AtomicLongArray(workerCount);
+        workerIdleNanos = new AtomicLongArray(workerCount);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // start of a timed section, 0 while timing is disabled
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void pairsExamined(long pairs) {
+        pairsExamined.add(pairs);
+    }
+
+    public void resolventsGenerated(long resolvents) {
+        resolventsGenerated.add(resolvents);
+    }
+
+    public void duplicateRejected() {
+        duplicatesRejected.increment();
+    }
+
+    public void duplicatesRejected(long duplicates) {
+        duplicatesRejected.add(duplicates);
+    }
+
+    public void resolventOverLimit() {
+        resolventsOverLimit.increment();
+    }
+
+    public void unresolvedBatchFetched() {
+        unresolvedBatchesFetched.increment();
+    }
+
+    public void clauseWindowFetched(long start) {
+        clauseWindowsFetched.increment();
+        if (start != 0) {
+            databaseReads.record(System.nanoTime() - start);
+        }
+    }
+
+    public void databaseWrite(long start) {
+        if (start != 0) {
+            databaseWrites.record(System.nanoTime() - start);
+        }
+    }
+
+    public void workerBusy(int worker, long start) {
+        addWorkerTime(workerBusyNanos, worker, start);
+    }
+
+    public void workerIdle(int worker, long start) {
+        addWorkerTime(workerIdleNanos, worker, start);
+    }
+
+    private static void addWorkerTime(AtomicLongArray times, int worker, long start) {
+        if (start != 0 && worker >= 0 && worker < times.length()) {
+            times.addAndGet(worker, System.nanoTime() - start);
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(pairsExamined.sum(), resolventsGenerated.sum(), duplicatesRejected.sum(),
+                resolventsOverLimit.sum(), unresolvedBatchesFetched.sum(), clauseWindowsFetched.sum(),
+                databaseReads.snapshot(), databaseWrites.snapshot(), lockWaits.snapshot(), toArray(workerBusyNanos, 1),
+                toArray(workerIdleNanos, 1));
+    }
+
+    private static long[] toArray(AtomicLongArray times, long divisor) {
+        long[] values = new long[times.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = times.get(i) / divisor;
+        }
+        return values;
+    }
+
+    // registers this object with the platform MBean server, failures are reported and otherwise ignored
+    public synchronized void register(String name) {
+        unregister();
+        try {
+            ObjectName objectName = new ObjectName("prover:type=ProverMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+        } catch (JMException e) {
+            log.warn("Could not register the metrics of {} with JMX", name, e);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+        } catch (JMException e) {
+            log.warn("Could not unregister {} from JMX", registeredName, e);
+        }
+        registeredName = null;
+    }
+
+    public synchronized ObjectName getObjectName() {
+        return registeredName;
+    }
+
+    @Override
+    public long getPairsExamined() {
+        return pairsExamined.sum();
+    }
+
+    @Override
+    public long getResolventsGenerated() {
+        return resolventsGenerated.sum();
+    }
+
+    @Override
+    public long getDuplicatesRejected() {
+        return duplicatesRejected.sum();
+    }
+
+    @Override
+    public long getResolventsOverLimit() {
+        return resolventsOverLimit.sum();
+    }
+
+    @Override
+    public long getUnresolvedBatchesFetched() {
+        return unresolvedBatchesFetched.sum();
+    }
+
+    @Override
+    public long getClauseWindowsFetched() {
+        return clauseWindowsFetched.sum();
+    }
+
+    @Override
+    public long getDatabaseReads() {
+        return databaseReads.getCount();
+    }
+
+    @Override
+    public long getDatabaseReadMeanMicros() {
+        return databaseReads.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getDatabaseReadP99Micros() {
+        return databaseReads.getPercentileNanos(99) / 1000;
+    }
+
+    @Override
+    public long getDatabaseWrites() {
+        return databaseWrites.getCount();
+    }
+
+    @Override
+    public long getDatabaseWriteMeanMicros() {
+        return databaseWrites.getMeanNanos() / 1000;
+    }
+
+    @Override
+    public long getDatabaseWriteP99Micros() {
+        return databaseWrites.getPercentileNanos(99) / 1000;
+    }
+
+    @Override
+    public long getLockWaits() {
+        return lockWaits.getCount();
+    }
+
+    @Override
+    public long getLockWaitTotalMicros() {
+        return lockWaits.getTotalNanos() / 1000;
+    }
+
+    @Override
+    public long getLockWaitP99Micros() {
+        return lockWaits.getPercentileNanos(99) / 1000;
+    }
+
+    @Override
+    public long[] getWorkerBusyMillis() {
+        return toArray(workerBusyNanos, 1_000_000);
+    }
+
+    @Override
+    public long[] getWorkerIdleMillis() {
+        return toArray(workerIdleNanos, 1_000_000);
+    }
+}
@@ -0,0 +1,42 @@
+// JMX view of ProverMetrics, registered as prover:type=ProverMetrics,name=<resolver> while the resolver is open.
+// Durations are in microseconds, worker times in milliseconds, indexed by worker id.
+public interface ProverMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getPairsExamined();
+
+    long getResolventsGenerated();
+
+    long getDuplicatesRejected();
+
+    long getResolventsOverLimit();
+
+    long getUnresolvedBatchesFetched();
+
+    long getClauseWindowsFetched();
+
+    long getDatabaseReads();
+
+    long getDatabaseReadMeanMicros();
+
+    long getDatabaseReadP99Micros();
+
+    long getDatabaseWrites();
+
+    long getDatabaseWriteMeanMicros();
+
+    long getDatabaseWriteP99Micros();
+
+    long getLockWaits();
+
+    long getLockWaitTotalMicros();
+
+    long getLockWaitP99Micros();
+
+    long[] getWorkerBusyMillis();
+
+    long[] getWorkerIdleMillis();
+}
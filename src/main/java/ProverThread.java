@@ -1,3 +1,6 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -5,92 +8,217 @@ import java.util.Set;
 
 public class ProverThread implements Runnable {
 
+    private static final Logger log = LoggerFactory.getLogger(ProverThread.class);
+
     private final int id;
-    private final Database database;
+    private final ClauseStore database;
     private final MultiThreadedResolver resolver;
+    private final ProverConfig config;
+    private final ProverMetrics metrics;
+    private final BatchAutoTuner tuner;
+
+    // totals of the batch being worked on, for its ProverBatchEvent
+    private long batchPairs;
+    private long batchResolvents;
+
+    public ProverThread(int id, ClauseStore database, MultiThreadedResolver resolver) {
+        this(id, database, resolver, ProverConfig.defaults());
+    }
+
+    public ProverThread(int id, ClauseStore database, MultiThreadedResolver resolver, ProverConfig config) {
+        this(id, database, resolver, config, new BatchAutoTuner(config));
+    }
 
-    public ProverThread(int id, Database database, MultiThreadedResolver resolver) {
+    // the tuner is shared by all workers of a proof and hands out the current batch sizes
+    public ProverThread(int id, ClauseStore database, MultiThreadedResolver resolver, ProverConfig config,
+                        BatchAutoTuner tuner) {
         this.id = id;
         this.database = database;
         this.resolver = resolver;
+        this.config = config;
+        this.metrics = resolver.getMetrics();
+        this.tuner = tuner;
     }
 
-    private Set<Clause> resolveArrayLists(ArrayList<Clause> unresolved, ArrayList<Clause> clauses) {
+    // eligible is null for plain resolution
+    private Set<Clause> resolveArrayLists(ArrayList<Clause> unresolved, ArrayList<Clause> clauses,
+                                          EligibleLiterals eligible) {
         Set<Clause> newResolutions = new HashSet<>();
-
-        // iterate over all clauses in unresolved and resolves them against clauses
-        for (Clause clause1 : unresolved) {
-            for (Clause clause2 : clauses) {
-                if (resolver.solutionFound()) {
-                    return newResolutions;
-                }
-                List<Clause> resolvents = ResolutionTheoremProver.resolve(clause1, clause2);
-                for (Clause resolvent : resolvents) {
-                    if (resolvent.isEmpty()) {
-                        resolver.solutionWasFound();
+        long pairsExamined = 0;
+        long resolventsGenerated = 0;
+
+        // iterate over all clauses in unresolved and resolves them against clauses. A pair is only resolved by
+        // its newer clause (clause2 id <= clause1 id), so every unordered pair is examined exactly once per proof
+        try {
+            for (Clause clause1 : unresolved) {
+                for (Clause clause2 : clauses) {
+                    if (clause2.getId() > clause1.getId()) {
+                        break; // clauses are in id order
+                    }
+                    if (resolver.solutionFound()) {
+                        return newResolutions;
                     }
-                    newResolutions.add(resolvent);
+                    pairsExamined++;
+                    List<Clause> resolvents = eligible == null
+                            ? ResolutionTheoremProver.resolve(clause1, clause2)
+                            : ResolutionTheoremProver.resolve(clause1, eligible.get(clause1), clause2,
+                            eligible.get(clause2));
+                    resolventsGenerated += resolvents.size();
+                    keep(resolvents, newResolutions);
                 }
             }
+        } finally {
+            resolver.pairsExamined(pairsExamined);
+            metrics.resolventsGenerated(resolventsGenerated);
+            batchPairs += pairsExamined;
+            batchResolvents += resolventsGenerated;
         }
 
         return newResolutions;
     }
 
+    // the hyperresolvents or UR resolvents of the collected windows
+    private Set<Clause> resolveHyper(HyperResolver hyper) {
+        Set<Clause> newResolutions = new HashSet<>();
+        List<Clause> resolvents = hyper.resolve();
+        resolver.pairsExamined(hyper.getPairsExamined());
+        metrics.resolventsGenerated(resolvents.size());
+        batchPairs += hyper.getPairsExamined();
+        batchResolvents += resolvents.size();
+        keep(resolvents, newResolutions);
+        return newResolutions;
+    }
+
+    // queues the resolvents within the clause limits that no worker has queued yet
+    private void keep(List<Clause> resolvents, Set<Clause> newResolutions) {
+        for (Clause resolvent : resolvents) {
+            if (resolvent.isEmpty()) {
+                resolver.solutionWasFound();
+            } else if (!config.getLimits().admits(resolvent)) {
+                metrics.resolventOverLimit();
+                continue;
+            }
+            // skip resolvents any worker has already queued
+            if (resolver.markSeen(resolvent)) {
+                newResolutions.add(resolvent);
+            }
+        }
+    }
+
     private void saveResolvents(Set<Clause> resolvents) {
         if (!resolvents.isEmpty()) {
+            long start = metrics.startTimer();
             database.addClauses(new ArrayList<>(resolvents));
+            metrics.databaseWrite(start);
             resolvents.clear();
         }
     }
 
     public void run() {
-        System.out.println("Thread " + id + " started.");
+        log.debug("Thread {} started.", id);
         // while there is no empty clause and not interrupted, try and solve the problem
         while (!resolver.solutionFound() && !Thread.currentThread().isInterrupted()) {
             try {
-                ArrayList<Clause> unresolved = database.getUnresolvedClauses(Constants.UNRESOLVED_BATCH_SIZE);
+                long idleStart = metrics.startTimer();
+                long tunerIdleStart = tuner.startTimer();
+                int requested = tuner.getUnresolvedBatchSize();
+                ArrayList<Clause> unresolved = database.getUnresolvedClauses(requested);
+                metrics.workerIdle(id, idleStart);
+                tuner.workerIdle(tunerIdleStart);
 
                 // double check to see if getUnresolvedClauses() returned anything
                 if (unresolved.isEmpty()) {
                     continue;
                 }
 
+                long busyStart = metrics.startTimer();
+                long tunerBusyStart = tuner.startTimer();
+                tuner.batchClaimed(unresolved.size(), requested);
+                metrics.unresolvedBatchFetched();
+                ProverBatchEvent event = new ProverBatchEvent();
+                event.begin();
+                batchPairs = 0;
+                batchResolvents = 0;
+                int clausesScanned = 0;
                 resolver.workerStarted();
-                System.out.println("Working on unresolved on Thread: " + id);
+                // the guard keeps the disabled call free of boxing
+                if (log.isTraceEnabled()) {
+                    log.trace("Thread {} working on {} unresolved clauses", id, unresolved.size());
+                }
                 // the max unresolved id (this will be the last in unresolved)
-                int startingId = unresolved.getLast().getId() - Constants.CLAUSE_BATCH_SIZE;
+                int maxId = unresolved.getLast().getId();
 
                 Set<Clause> newResolutions = new HashSet<>();
-
-                // iterate backwards from the latest resolved chosen, get clauses in chunks and
-                // resolve them
-                int databaseIndex = startingId;
-
-                while (databaseIndex >= -Constants.CLAUSE_BATCH_SIZE) {
+                // hyperresolution and UR resolution collect the windows first and resolve once they have all of them,
+                // a second pass only when an older nucleus needs satellites the first one skipped
+                HyperResolver hyper = config.getInference() == ProverConfig.Inference.BINARY ? null
+                        : new HyperResolver(config.getInference(), unresolved);
+                EligibleLiterals eligible = hyper != null
+                        || config.getSelection().getKind() == LiteralSelection.Kind.ALL ? null
+                        : new EligibleLiterals(config.getSelection(), unresolved);
+
+                // iterate backwards from the latest unresolved clause, get clauses in id windows and resolve them
+                int windowEnd = maxId + 1;
+                while (windowEnd > 0) {
                     if (resolver.solutionFound()) {
                         break;
                     }
-                    ArrayList<Clause> batch_clauses = database.getClauses(databaseIndex, Constants.CLAUSE_BATCH_SIZE);
-                    newResolutions.addAll(resolveArrayLists(unresolved, batch_clauses));
+                    int windowStart = windowEnd - tuner.getClauseBatchSize();
+                    long readStart = metrics.startTimer();
+                    long fetchStart = tuner.startTimer();
+                    ArrayList<Clause> batch_clauses = database.getClausesInRange(windowStart, windowEnd);
+                    metrics.clauseWindowFetched(readStart);
+                    long resolveStart = tuner.windowFetched(fetchStart);
+                    clausesScanned += batch_clauses.size();
+                    long pairsBefore = batchPairs;
+                    if (hyper != null) {
+                        hyper.collect(batch_clauses);
+                    } else {
+                        if (eligible != null) {
+                            eligible.nextWindow();
+                        }
+                        newResolutions.addAll(resolveArrayLists(unresolved, batch_clauses, eligible));
+                    }
+                    tuner.windowResolved(resolveStart, batchPairs - pairsBefore);
 
-                    databaseIndex -= Constants.CLAUSE_BATCH_SIZE;
+                    windowEnd = windowStart;
+                    if (windowEnd <= 0 && hyper != null && hyper.rescan()) {
+                        windowEnd = maxId + 1;
+                    }
 
                     // once newResolutions reaches the save threshold, save resolvents and clear
-                    if (newResolutions.size() >= Constants.RESOLVENT_SAVE_THRESHOLD) {
+                    if (newResolutions.size() >= config.getResolventSaveThreshold()) {
                         saveResolvents(newResolutions);
                     }
                 }
+                if (hyper != null && !resolver.solutionFound()) {
+                    long resolveStart = tuner.startTimer();
+                    long pairsBefore = batchPairs;
+                    newResolutions.addAll(resolveHyper(hyper));
+                    tuner.windowResolved(resolveStart, batchPairs - pairsBefore);
+                }
                 saveResolvents(newResolutions);
+                long writeStart = metrics.startTimer();
                 database.setResolved(unresolved);
+                metrics.databaseWrite(writeStart);
                 resolver.workerStopped();
+                metrics.workerBusy(id, busyStart);
+                tuner.workerBusy(tunerBusyStart);
+                if (event.shouldCommit()) {
+                    event.worker = id;
+                    event.unresolvedCount = unresolved.size();
+                    event.clausesScanned = clausesScanned;
+                    event.pairsExamined = batchPairs;
+                    event.resolventsProduced = batchResolvents;
+                    event.commit();
+                }
 
             } catch (InterruptedException e) {
-                System.out.println("Thread " + id + " interrupted.");
+                log.debug("Thread {} interrupted.", id);
                 Thread.currentThread().interrupt();
                 break;
             }
         }
-        System.out.println("Thread " + id + " finished.");
+        log.debug("Thread {} finished.", id);
     }
 }
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -7,16 +8,61 @@ import java.util.Set;
 
 public class ResolutionTheoremProver {
 
-    private final Database database;
+    private final ClauseStore database;
+    private final StartingSet startingSet;
+    private Preprocessor.Result preprocessing = null;
+    private long[] startingFingerprints = new long[0]; // seed seenClauses, see StartingSet.fingerprints
+    private long pairsExamined = 0;
+    private long duplicatesRejected = 0;
+    private long resolventsOverLimit = 0;
+    private ClauseLimits limits = ClauseLimits.NONE;
+    private final ClauseFingerprintSet seenClauses = new ClauseFingerprintSet(1);
+    private BatchAutoTuner tuner = null;
 
     public ResolutionTheoremProver(List<Clause> clauses) {
-        this.database = new Database(clauses);
+        this(new Database(clauses));
+    }
+
+    public ResolutionTheoremProver(ClauseStore database) {
+        this.database = database;
+        this.startingSet = new StartingSet(database);
+    }
+
+    // the batch sizes of the last proof, as adjusted by the tuner when the config asked for it
+    public BatchAutoTuner getAutoTuner() {
+        return tuner;
     }
 
     public void closeDatabase() {
         database.close();
     }
 
+    // number of clause pairs resolved during the last proof
+    public long getPairsExamined() {
+        return pairsExamined;
+    }
+
+    // number of resolvents dropped by the fingerprint set during the last proof
+    public long getDuplicatesRejected() {
+        return duplicatesRejected;
+    }
+
+    // number of resolvents dropped by the config's ClauseLimits during the last proof
+    public long getResolventsOverLimit() {
+        return resolventsOverLimit;
+    }
+
+    // false when the last proof dropped resolvents over the limits, a failed proof then does not mean the goal does
+    // not follow
+    public boolean isComplete() {
+        return resolventsOverLimit == 0;
+    }
+
+    // what the config's preprocessing stages removed from the starting set of the last proof, null without stages
+    public Preprocessor.Result getPreprocessing() {
+        return preprocessing;
+    }
+
     public static void main(String[] args) throws InterruptedException {
 
         List<Clause> clauses = new ArrayList<>();
@@ -53,15 +99,21 @@ public class ResolutionTheoremProver {
     }
 
     public static List<Clause> resolve(Clause clause1, Clause clause2) {
+        return resolve(clause1, clause1.getLiterals(), clause2, clause2.getLiterals());
+    }
+
+    // only resolves on the given literals of each clause, see LiteralSelection
+    public static List<Clause> resolve(Clause clause1, Collection<Literal> literals1, Clause clause2,
+                                       Collection<Literal> literals2) {
         List<Clause> resolvents = new ArrayList<>();
 
-        for (Literal literal1 : clause1.getLiterals()) {
-            for (Literal literal2 : clause2.getLiterals()) {
+        for (Literal literal1 : literals1) {
+            for (Literal literal2 : literals2) {
                 if (literal1.canResolveWith(literal2)) {
                     Map<String, String> substitution = unify(literal1, literal2);
                     if (substitution != null) {
                         Clause resolvent = createResolvent(clause1, clause2, literal1, literal2, substitution);
-                        resolvents.add(resolvent);
+                        resolvents.addAll(Factoring.simplify(resolvent));
                     }
                 }
             }
@@ -70,7 +122,7 @@ public class ResolutionTheoremProver {
         return resolvents;
     }
 
-    private static Map<String, String> unify(Literal literal1, Literal literal2) {
+    static Map<String, String> unify(Literal literal1, Literal literal2) {
         if (!literal1.getPredicate().equals(literal2.getPredicate())) {
             return null;
         }
@@ -102,13 +154,14 @@ public class ResolutionTheoremProver {
         return null;
     }
 
-    private static boolean isVariable(String term) {
+    static boolean isVariable(String term) {
         return term.matches("^[a-z]$");
     }
 
     private static Clause createResolvent(Clause clause1, Clause clause2, Literal literal1, Literal literal2,
                                           Map<String, String> substitution) {
         Clause resolvent = new Clause();
+        resolvent.setDepth(Math.max(clause1.getDepth(), clause2.getDepth()) + 1);
 
         for (Literal literal : clause1.getLiterals()) {
             if (!literal.equals(literal1)) {
@@ -127,55 +180,157 @@ public class ResolutionTheoremProver {
         return resolvent;
     }
 
-    private static Literal applySubstitution(Literal literal, Map<String, String> substitution) {
+    static Literal applySubstitution(Literal literal, Map<String, String> substitution) {
         String newArg = substitution.getOrDefault(literal.getArgument(), literal.getArgument());
         return new Literal(literal.getPredicate(), newArg, literal.isPositive());
     }
 
     public boolean prove(Clause negativeCase) throws InterruptedException {
+        return prove(negativeCase, ProverConfig.defaults());
+    }
+
+    // uses the batch sizes and backend of config, the worker count does not apply to the single threaded prover
+    public boolean prove(Clause negativeCase, ProverConfig config) throws InterruptedException {
+        ProveEvent event = new ProveEvent();
+        event.begin();
+        tuner = new BatchAutoTuner(config.withWorkerCount(1));
+        resolventsOverLimit = 0;
         database.flushResolvents(); // clear resolvents from previous runs
+        preprocessing = startingSet.prepare(negativeCase, config.getPreprocessing());
+        startingFingerprints = startingSet.fingerprints();
         database.addClause(negativeCase);
 
+        BackendSelector.Selection selection = BackendSelector.select(database, config.getBackend());
+        boolean proved = switch (selection.backend()) {
+            case HORN -> proveHorn(selection.clauses());
+            case CDCL -> proveCdcl(selection.clauses());
+            case GROUND -> proveGround(selection.clauses());
+            default -> search(negativeCase, config);
+        };
+        if (event.shouldCommit()) {
+            event.prover = "ResolutionTheoremProver";
+            event.backend = selection.backend().name();
+            event.workers = 1;
+            event.proved = proved;
+            event.pairsExamined = pairsExamined;
+            event.duplicatesRejected = duplicatesRejected;
+            event.resolventsOverLimit = resolventsOverLimit;
+            event.commit();
+        }
+        return proved;
+    }
+
+    // the engines without resolution steps report no pairs
+    private boolean proveHorn(List<Clause> clauses) throws InterruptedException {
+        pairsExamined = 0;
+        duplicatesRejected = 0;
+        return new HornProver(clauses).prove();
+    }
+
+    // the clauses are refuted exactly when they are unsatisfiable
+    private boolean proveCdcl(List<Clause> clauses) throws InterruptedException {
+        pairsExamined = 0;
+        duplicatesRejected = 0;
+        return !new CdclSolver(clauses).solve();
+    }
+
+    private boolean proveGround(List<Clause> clauses) throws InterruptedException {
+        GroundResolver resolver = new GroundResolver(clauses);
+        try {
+            return resolver.prove();
+        } finally {
+            pairsExamined = resolver.getPairsExamined();
+            duplicatesRejected = resolver.getDuplicatesRejected();
+        }
+    }
+
+    private boolean search(Clause negativeCase, ProverConfig config) throws InterruptedException {
+        ProverConfig.Inference inference = config.getInference();
+        LiteralSelection selection = config.getSelection();
+        limits = config.getLimits();
+        pairsExamined = 0;
+        duplicatesRejected = 0;
+        seenClauses.clear();
+        for (long fingerprint : startingFingerprints) {
+            seenClauses.add(fingerprint);
+        }
+        seenClauses.add(negativeCase);
+
         while (!database.hasEmptyClause()) {
-            // get batch of unresolved clauses
-            ArrayList<Clause> unresolved = database.getUnresolvedClauses(Constants.UNRESOLVED_BATCH_SIZE);
+            // if there is nothing left to resolve we have failed (getUnresolvedClauses would block forever)
+            if (!database.hasUnresolvedClauses()) {
+                return false;
+            }
 
-            // if there is nothing left to resolve we have failed
+            // get batch of unresolved clauses
+            ArrayList<Clause> unresolved = database.getUnresolvedClauses(tuner.getUnresolvedBatchSize());
             if (unresolved.isEmpty()) {
-                return false;
+                continue;
             }
 
             // the max unresolved id (this will be the last in unresolved)
-            int startingId = unresolved.getLast().getId() - Constants.CLAUSE_BATCH_SIZE;
+            int maxId = unresolved.getLast().getId();
 
             // Use a set to maximize the amount of new things added to the database
             Set<Clause> newResolutions = new HashSet<>();
-
-            // iterate backwards from the latest resolved chosen, get clauses in chunks and resolve them
-            int databaseIndex = startingId;
-            while (databaseIndex >= -Constants.CLAUSE_BATCH_SIZE) {
-                ArrayList<Clause> batch_clauses = database.getClauses(databaseIndex, Constants.CLAUSE_BATCH_SIZE);
-
-                // resolve unresolved against clauses from database
-                for (Clause unresolved_clause : unresolved) {
-                    for (Clause batch_clause : batch_clauses) {
-                        List<Clause> resolvents = resolve(unresolved_clause, batch_clause);
-                        newResolutions.addAll(resolvents);
-
-                        // Check if we found an empty clause
-                        for (Clause resolvent : resolvents) {
-                            if (resolvent.isEmpty()) {
+            // hyperresolution and UR resolution collect the windows first and resolve once they have all of them,
+            // a second pass only when an older nucleus needs satellites the first one skipped
+            HyperResolver hyper = inference == ProverConfig.Inference.BINARY ? null
+                    : new HyperResolver(inference, unresolved);
+            EligibleLiterals eligible = hyper != null || selection.getKind() == LiteralSelection.Kind.ALL ? null
+                    : new EligibleLiterals(selection, unresolved);
+
+            // iterate backwards from the latest unresolved clause, get clauses in id windows and resolve them
+            int windowEnd = maxId + 1;
+            while (windowEnd > 0) {
+                int windowStart = windowEnd - tuner.getClauseBatchSize();
+                long fetchStart = tuner.startTimer();
+                ArrayList<Clause> batch_clauses = database.getClausesInRange(windowStart, windowEnd);
+                long resolveStart = tuner.windowFetched(fetchStart);
+                long pairsBefore = pairsExamined;
+                if (hyper != null) {
+                    hyper.collect(batch_clauses);
+                } else {
+                    if (eligible != null) {
+                        eligible.nextWindow();
+                    }
+                    // resolve unresolved against clauses from database, each pair is only resolved by its newer clause
+                    for (Clause unresolved_clause : unresolved) {
+                        for (Clause batch_clause : batch_clauses) {
+                            if (batch_clause.getId() > unresolved_clause.getId()) {
+                                break; // clauses are in id order
+                            }
+                            pairsExamined++;
+                            List<Clause> resolvents = eligible == null
+                                    ? resolve(unresolved_clause, batch_clause)
+                                    : resolve(unresolved_clause, eligible.get(unresolved_clause), batch_clause,
+                                    eligible.get(batch_clause));
+                            if (addResolvents(resolvents, newResolutions)) {
                                 return true;
                             }
                         }
                     }
                 }
+                tuner.windowResolved(resolveStart, pairsExamined - pairsBefore);
 
                 // Save resolvents
                 database.addClauses(new ArrayList<>(newResolutions));
                 newResolutions.clear();
 
-                databaseIndex -= Constants.CLAUSE_BATCH_SIZE;
+                windowEnd = windowStart;
+                if (windowEnd <= 0 && hyper != null && hyper.rescan()) {
+                    windowEnd = maxId + 1;
+                }
+            }
+
+            if (hyper != null) {
+                long resolveStart = tuner.startTimer();
+                List<Clause> resolvents = hyper.resolve();
+                pairsExamined += hyper.getPairsExamined();
+                tuner.windowResolved(resolveStart, hyper.getPairsExamined());
+                if (addResolvents(resolvents, newResolutions)) {
+                    return true;
+                }
             }
 
             // Save any remaining resolvents
@@ -186,4 +341,24 @@ public class ResolutionTheoremProver {
         return true;
     }
 
+    // true when one of the resolvents is the empty clause
+    private boolean addResolvents(List<Clause> resolvents, Set<Clause> newResolutions) {
+        for (Clause resolvent : resolvents) {
+            // Check if we found an empty clause
+            if (resolvent.isEmpty()) {
+                return true;
+            }
+            if (!limits.admits(resolvent)) {
+                resolventsOverLimit++;
+                continue;
+            }
+            // skip resolvents that were already produced during this proof
+            if (seenClauses.add(resolvent)) {
+                newResolutions.add(resolvent);
+            } else {
+                duplicatesRejected++;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Scaling sweep of MultiThreadedResolver (BenchmarkHarness --mode sweep). Every problem size is proved with every
+// combination of worker count and batch sizes, with the same warmup, run count and store isolation as the
+// comparison mode. For every point it reports
+//   - the median and p95 proof time
+//   - throughput: clause pairs resolved per second and clauses inserted into the database per second
+//   - speedup over one worker with the same batch sizes, and efficiency (speedup / workers)
+//   - lock wait share: time spent waiting for the Database lock as a share of the workers' total time
+// Throughput and lock wait share are medians over the measured runs.
+//
+// With --auto-tune on every size and worker count is also proved with a BatchAutoTuner starting from the default
+// batch sizes. These points have auto_tune 1 in the CSV and are compared with the best static batch sizes.
+// The sweep runs the store search (--backend resolution) unless another backend is given, the in memory engines
+// run on one thread and do not use the batch sizes. It always runs on a Database, --store is only for the comparison.
+public class ScalingSweep {
+
+    public static class Point {
+        final int n;
+        final ProverConfig config;
+        final BenchmarkHarness.Summary time;
+        final double pairsPerSecond;
+        final double insertsPerSecond;
+        final double lockWaitShare;
+        double speedup = Double.NaN;
+        double efficiency = Double.NaN;
+
+        Point(int n, ProverConfig config, BenchmarkHarness.Summary time, double pairsPerSecond,
+              double insertsPerSecond, double lockWaitShare) {
+            this.n = n;
+            this.config = config;
+            this.time = time;
+            this.pairsPerSecond = pairsPerSecond;
+            this.insertsPerSecond = insertsPerSecond;
+            this.lockWaitShare = lockWaitShare;
+        }
+    }
+
+    private final BenchmarkHarness.Options options;
+    private final Path storeDirectory;
+    private int storeCount = 0;
+
+    public ScalingSweep(BenchmarkHarness.Options options) throws IOException {
+        this.options = options;
+        this.storeDirectory = Files.createTempDirectory("prover-sweep");
+    }
+
+    public List<Point> run() throws IOException {
+        List<Point> points = new ArrayList<>();
+        int[] threadCounts = options.threads.clone();
+        Arrays.sort(threadCounts); // the single worker baseline has to be measured first
+        try {
+            for (int size : BenchmarkHarness.sizes(options)) {
+                Problem problem = BenchmarkHarness.problem(options, size);
+                int n = BenchmarkHarness.isFile(options) ? problem.size() : size;
+
+                for (int clauseBatchSize : options.clauseBatchSizes) {
+                    for (int unresolvedBatchSize : options.unresolvedBatchSizes) {
+                        points.addAll(measureThreads(n, problem, threadCounts, ProverConfig.defaults()
+                                .withBackend(options.backend).withInference(options.inference)
+                                .withSelection(options.selection).withLimits(options.limits)
+                                .withPreprocessing(options.preprocessing).withClauseBatchSize(clauseBatchSize)
+                                .withUnresolvedBatchSize(unresolvedBatchSize)));
+                    }
+                }
+
+                if (options.autoTune) {
+                    List<Point> tuned = measureThreads(n, problem, threadCounts,
+                            ProverConfig.defaults().withBackend(options.backend).withInference(options.inference)
+                                    .withSelection(options.selection).withLimits(options.limits)
+                                    .withPreprocessing(options.preprocessing).withAutoTune(true));
+                    for (Point point : tuned) {
+                        Point best = bestStatic(points, n, point.config.getWorkerCount());
+                        System.out.printf(Locale.ROOT, "n=%d workers=%d: auto-tuned median %.3fms, best static "
+                                        + "%.3fms (clauseBatch=%d, unresolvedBatch=%d)%n", n,
+                                point.config.getWorkerCount(), point.time.median, best.time.median,
+                                best.config.getClauseBatchSize(), best.config.getUnresolvedBatchSize());
+                    }
+                    points.addAll(tuned);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(storeDirectory);
+        }
+        return points;
+    }
+
+    // one point per worker count, speedups are relative to the single worker point
+    private List<Point> measureThreads(int n, Problem problem, int[] threadCounts, ProverConfig base)
+            throws IOException {
+        List<Point> points = new ArrayList<>();
+        Point baseline = null;
+        for (int threads : threadCounts) {
+            ProverConfig config = base.withWorkerCount(threads);
+            Point point = measure(n, problem, config);
+            if (threads == 1) {
+                baseline = point;
+            }
+            if (baseline != null) {
+                point.speedup = baseline.time.median / point.time.median;
+                point.efficiency = point.speedup / threads;
+            }
+            points.add(point);
+            System.out.printf(Locale.ROOT, "n=%d %s: median %.3fms, %.0f pairs/s, %.0f inserts/s, "
+                            + "speedup %.2f, lock wait %.1f%%%n", n, config, point.time.median,
+                    point.pairsPerSecond, point.insertsPerSecond, point.speedup, point.lockWaitShare * 100);
+        }
+        return points;
+    }
+
+    // the static point with the lowest median for the size and worker count
+    static Point bestStatic(List<Point> points, int n, int threads) {
+        Point best = null;
+        for (Point point : points) {
+            if (point.n == n && point.config.getWorkerCount() == threads && !point.config.isAutoTune()
+                    && (best == null || point.time.median < best.time.median)) {
+                best = point;
+            }
+        }
+        return best;
+    }
+
+    private Point measure(int n, Problem problem, ProverConfig config) throws IOException {
+        double[] millis = new double[options.runs];
+        double[] pairsPerSecond = new double[options.runs];
+        double[] insertsPerSecond = new double[options.runs];
+        double[] lockWaitShare = new double[options.runs];
+
+        for (int run = -options.warmup; run < options.runs; run++) {
+            Path store = storeDirectory.resolve("run" + storeCount++ + ".sqlite3");
+            Database database = new Database(problem.getClauses(), BenchmarkHarness.url(store));
+            MultiThreadedResolver prover = new MultiThreadedResolver(database);
+            prover.getMetrics().setEnabled(options.metrics);
+            try {
+                database.resetStatistics();
+                long start = System.nanoTime();
+                prover.prove(problem.getNegatedGoal(), config);
+                long elapsed = System.nanoTime() - start;
+
+                if (run >= 0) {
+                    double seconds = elapsed / 1e9;
+                    millis[run] = elapsed / 1e6;
+                    pairsPerSecond[run] = prover.getPairsExamined() / seconds;
+                    insertsPerSecond[run] = database.getClausesInserted() / seconds;
+                    lockWaitShare[run] = database.getLockWaitNanos() / ((double) elapsed * config.getWorkerCount());
+                }
+            } finally {
+                prover.closeDatabase();
+                BenchmarkHarness.deleteStore(store);
+            }
+        }
+
+        return new Point(n, config, new BenchmarkHarness.Summary(millis), median(pairsPerSecond),
+                median(insertsPerSecond), median(lockWaitShare));
+    }
+
+    private static double median(double[] values) {
+        return new BenchmarkHarness.Summary(values).median;
+    }
+
+    public static void writeCsv(List<Point> points, Path file) throws IOException {
+        StringBuilder csv = new StringBuilder("n,threads,clause_batch,unresolved_batch,median_ms,p95_ms,"
+                + "pairs_per_s,inserts_per_s,speedup,efficiency,lock_wait_share,auto_tune\n");
+        for (Point point : points) {
+            csv.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%.3f,%.3f,%.1f,%.1f,%.3f,%.3f,%.4f,%d%n", point.n,
+                    point.config.getWorkerCount(), point.config.getClauseBatchSize(),
+                    point.config.getUnresolvedBatchSize(), point.time.median, point.time.p95, point.pairsPerSecond,
+                    point.insertsPerSecond, point.speedup, point.efficiency, point.lockWaitShare,
+                    point.config.isAutoTune() ? 1 : 0));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, csv.toString(), StandardCharsets.UTF_8);
+    }
+
+    static void sweep(BenchmarkHarness.Options options) throws IOException {
+        if (Arrays.stream(options.threads).noneMatch(threads -> threads == 1)) {
+            System.out.println("No run with 1 thread, speedup and efficiency are left empty");
+        }
+        List<Point> points = new ScalingSweep(options).run();
+        writeCsv(points, options.csv);
+        System.out.println("Wrote " + options.csv);
+    }
+}
@@ -0,0 +1,563 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ShardedDatabase implements ClauseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedDatabase.class);
+
+    private final Shard[] shards;
+
+    // ids are handed out globally so they stay unique and ordered across shards
+    private final AtomicInteger nextId = new AtomicInteger(0);
+    private final IdWatermark watermark = new IdWatermark();
+    private final AtomicInteger nextShardToClaim = new AtomicInteger(0);
+
+    // only used to park threads waiting for new clauses, writers never hold it while inserting
+    private final ReentrantLock signalLock = new ReentrantLock();
+    private final Condition hasNewClauses = signalLock.newCondition();
+
+    public ShardedDatabase(List<Clause> clauses, int shardCount) {
+        this(clauses, defaultShardPaths(shardCount));
+    }
+
+    public ShardedDatabase(List<Clause> clauses, List<String> shardPaths) {
+        if (clauses == null || clauses.isEmpty()) {
+            throw new IllegalArgumentException("clauses cannot be null or empty");
+        }
+
+        this.shards = openShards(shardPaths);
+        clear();
+
+        // fill the shards with the starting set
+        addClauses(clauses, true);
+    }
+
+    // Streams the starting set from a clause file (see ClauseParser.parseFile) one chunk at a time
+    public static ShardedDatabase fromFile(Path clauseFile, List<String> shardPaths) {
+        if (clauseFile == null) {
+            throw new IllegalArgumentException("clauseFile cannot be null");
+        }
+
+        ShardedDatabase database = new ShardedDatabase(shardPaths);
+        long loaded;
+        try {
+            loaded = ClauseParser.parseFile(clauseFile, chunk -> database.addClauses(chunk, true));
+        } catch (IOException e) {
+            database.discard();
+            throw new RuntimeException("Failed to load clauses from " + clauseFile, e);
+        } catch (RuntimeException e) {
+            // e.g. a malformed line, the chunks before it have been inserted
+            database.discard();
+            throw e;
+        }
+        if (loaded == 0) {
+            database.close();
+            throw new IllegalArgumentException("clauseFile does not contain any clauses");
+        }
+        return database;
+    }
+
+    // empty shards, the starting set has to be added by the caller
+    private ShardedDatabase(List<String> shardPaths) {
+        this.shards = openShards(shardPaths);
+        clear();
+    }
+
+    private Shard[] openShards(List<String> shardPaths) {
+        if (shardPaths == null || shardPaths.isEmpty()) {
+            throw new IllegalArgumentException("shardPaths cannot be null or empty");
+        }
+
+        Shard[] opened = new Shard[shardPaths.size()];
+        for (int i = 0; i < opened.length; i++) {
+            String shardPath = shardPaths.get(i);
+            if (shardPath == null || shardPath.isEmpty()) {
+                throw new IllegalArgumentException("shard paths cannot be null or empty");
+            }
+            opened[i] = new Shard(shardPath);
+        }
+        return opened;
+    }
+
+    private static List<String> defaultShardPaths(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be a positive number");
+        }
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            paths.add("jdbc:sqlite:db-shard" + i + ".sqlite3");
+        }
+        return paths;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // clauses are routed by a hash of their leading (lexicographically smallest) predicate, the empty clause
+    // always lives in the first shard
+    final int shardOf(Clause clause) {
+        String leading = null;
+        for (Literal literal : clause.getLiterals()) {
+            if (leading == null || literal.getPredicate().compareTo(leading) < 0) {
+                leading = literal.getPredicate();
+            }
+        }
+        if (leading == null) {
+            return 0;
+        }
+        return Math.floorMod(leading.hashCode(), shards.length);
+    }
+
+    public int countClauses(int shard) {
+        return shards[shard].countClauses();
+    }
+
+    // drops a half loaded starting set and closes the shards
+    private void discard() {
+        clearClauses();
+        close();
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    @Override
+    public void addClause(Clause clause) {
+        addClauses(Collections.singletonList(clause), false);
+    }
+
+    @Override
+    public void addClauses(List<Clause> clauses) {
+        addClauses(clauses, false);
+    }
+
+    private void addClauses(List<Clause> clauses, boolean isStartingSet) {
+        if (clauses.isEmpty()) {
+            return;
+        }
+
+        List<List<Clause>> routed = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            routed.add(new ArrayList<>());
+        }
+        for (Clause clause : clauses) {
+            routed.get(shardOf(clause)).add(clause);
+        }
+
+        boolean inserted = false;
+        for (int i = 0; i < shards.length; i++) {
+            if (!routed.get(i).isEmpty()) {
+                shards[i].insert(routed.get(i), isStartingSet);
+                inserted = true;
+            }
+        }
+
+        if (inserted) {
+            signalNewClauses();
+        }
+    }
+
+    private void signalNewClauses() {
+        signalLock.lock();
+        try {
+            hasNewClauses.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    @Override
+    public ArrayList<Clause> getClauses(int startingIndex, int amount) {
+        ArrayList<Clause> clauses = new ArrayList<>();
+        for (Shard shard : shards) {
+            clauses.addAll(shard.getClauses(startingIndex, amount));
+        }
+        clauses.sort(Comparator.comparingInt(Clause::getId));
+
+        if (clauses.size() > amount) {
+            return new ArrayList<>(clauses.subList(0, Math.max(amount, 0)));
+        }
+        return clauses;
+    }
+
+    @Override
+    public ArrayList<Clause> getClausesInRange(int startingId, int endId) {
+        ArrayList<Clause> clauses = new ArrayList<>();
+        for (Shard shard : shards) {
+            clauses.addAll(shard.getClausesInRange(startingId, endId));
+        }
+        clauses.sort(Comparator.comparingInt(Clause::getId));
+        return clauses;
+    }
+
+    @Override
+    public ArrayList<Clause> getUnresolvedClauses(int amount) throws InterruptedException {
+        signalLock.lock();
+        try {
+            while (!hasUnresolvedClauses()) {
+                hasNewClauses.await();
+            }
+        } finally {
+            signalLock.unlock();
+        }
+
+        // spread claims across the shards, starting from a different one each time
+        int start = Math.floorMod(nextShardToClaim.getAndIncrement(), shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            ArrayList<Clause> clauses = shards[(start + i) % shards.length].claimUnresolved(amount);
+            if (!clauses.isEmpty()) {
+                return clauses;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void setResolved(List<Clause> clauses) {
+        if (clauses == null || clauses.isEmpty()) {
+            return;
+        }
+
+        List<List<Integer>> routed = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            routed.add(new ArrayList<>());
+        }
+        for (Clause clause : clauses) {
+            routed.get(shardOf(clause)).add(clause.getId());
+        }
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].setResolved(routed.get(i));
+        }
+    }
+
+    @Override
+    public boolean hasEmptyClause() {
+        return shards[0].hasEmptyClause();
+    }
+
+    @Override
+    public boolean hasUnresolvedClauses() {
+        int committed = watermark.get();
+        for (Shard shard : shards) {
+            if (shard.hasUnclaimed(committed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flushResolvents() {
+        for (Shard shard : shards) {
+            shard.flushResolvents();
+        }
+        signalNewClauses();
+    }
+
+    @Override
+    public void clearClauses() {
+        clear();
+    }
+
+    // not overridable, so the constructor can call it
+    private void clear() {
+        for (Shard shard : shards) {
+            shard.clearClauses();
+        }
+        nextId.set(0);
+        watermark.reset();
+    }
+
+    @Override
+    public void replaceStartingSet(List<Clause> clauses) {
+        clearClauses();
+        addClauses(clauses, true);
+    }
+
+    @Override
+    public int countClauses() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.countClauses();
+        }
+        return count;
+    }
+
+    // Tracks the highest id below which every reserved id has been committed. Shards commit independently, so a
+    // clause is only handed out for resolution once every clause with a smaller id is visible as well.
+    private static class IdWatermark {
+        private int watermark = 0;
+        private final Map<Integer, Integer> completed = new TreeMap<>();
+
+        synchronized void complete(int firstId, int lastId) {
+            completed.put(firstId, lastId);
+            Integer end;
+            while ((end = completed.remove(watermark + 1)) != null) {
+                watermark = end;
+            }
+        }
+
+        synchronized int get() {
+            return watermark;
+        }
+
+        synchronized void reset() {
+            watermark = 0;
+            completed.clear();
+        }
+    }
+
+    private class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Connection conn;
+        private int lastRetrieved = 1; // next id this shard will hand out for resolution
+        private int lastId = 0; // largest id stored in this shard
+
+        Shard(String dbPath) {
+            try {
+                this.conn = DriverManager.getConnection(dbPath);
+                try (Statement stmt = conn.createStatement()) {
+                    // ids come from the global sequence rather than AUTOINCREMENT
+                    stmt.executeUpdate(
+                            "CREATE TABLE IF NOT EXISTS clauses" +
+                                    "(id INTEGER PRIMARY KEY," +
+                                    "clause TEXT UNIQUE, " +
+                                    "starting_set BOOLEAN DEFAULT FALSE," +
+                                    "resolved BOOLEAN DEFAULT FALSE," +
+                                    "depth INTEGER DEFAULT 0)");
+                    Database.addDepthColumn(conn);
+                    stmt.executeUpdate("PRAGMA journal_mode=WAL");
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to connect to the database shard " + dbPath, e);
+            }
+        }
+
+        void close() {
+            if (this.conn != null) {
+                try {
+                    this.conn.close();
+                } catch (SQLException e) {
+                    log.error("close failed", e);
+                }
+            }
+        }
+
+        void insert(List<Clause> clauses, boolean isStartingSet) {
+            int firstId;
+            int lastReserved;
+            lock.lock();
+            // ids are reserved under the shard lock so they increase in commit order within the shard
+            firstId = nextId.getAndAdd(clauses.size()) + 1;
+            lastReserved = firstId + clauses.size() - 1;
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT OR IGNORE INTO clauses (id, clause, starting_set, depth) VALUES (?,?,?,?)")) {
+                conn.setAutoCommit(false);
+                int id = firstId;
+                for (Clause clause : clauses) {
+                    pstmt.setInt(1, id++);
+                    pstmt.setString(2, clause.toString());
+                    pstmt.setBoolean(3, isStartingSet);
+                    pstmt.setInt(4, clause.getDepth());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                lastId = Math.max(lastId, getLastId());
+            } catch (SQLException e) {
+                log.error("insert failed", e);
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    log.error("insert failed", ex);
+                }
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    log.error("insert failed", e);
+                }
+                // ignored duplicates and failed batches leave holes, the watermark still has to move past them
+                watermark.complete(firstId, lastReserved);
+                lock.unlock();
+            }
+        }
+
+        ArrayList<Clause> getClauses(int startingIndex, int amount) {
+            ArrayList<Clause> clauses = new ArrayList<>();
+            try (PreparedStatement pstmt = conn
+                    .prepareStatement("SELECT id, clause, depth FROM clauses WHERE id >= ? ORDER BY id LIMIT ?")) {
+                pstmt.setInt(1, startingIndex);
+                pstmt.setInt(2, amount);
+                readClauses(pstmt, clauses);
+            } catch (SQLException e) {
+                log.error("getClauses failed", e);
+            }
+            return clauses;
+        }
+
+        ArrayList<Clause> getClausesInRange(int startingId, int endId) {
+            ArrayList<Clause> clauses = new ArrayList<>();
+            try (PreparedStatement pstmt = conn
+                    .prepareStatement("SELECT id, clause, depth FROM clauses WHERE id >= ? AND id < ? ORDER BY id")) {
+                pstmt.setInt(1, startingId);
+                pstmt.setInt(2, endId);
+                readClauses(pstmt, clauses);
+            } catch (SQLException e) {
+                log.error("getClausesInRange failed", e);
+            }
+            return clauses;
+        }
+
+        ArrayList<Clause> claimUnresolved(int amount) {
+            ArrayList<Clause> clauses = new ArrayList<>();
+            lock.lock();
+            try {
+                int committed = watermark.get();
+                if (lastRetrieved > Math.min(lastId, committed)) {
+                    return clauses;
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT id, clause, depth FROM clauses WHERE resolved is FALSE AND id >= ? AND id <= ? "
+                                + "ORDER BY id LIMIT ?")) {
+                    pstmt.setInt(1, lastRetrieved);
+                    pstmt.setInt(2, committed);
+                    pstmt.setInt(3, amount);
+                    readClauses(pstmt, clauses);
+                } catch (SQLException e) {
+                    log.error("claimUnresolved failed", e);
+                }
+
+                if (clauses.size() < amount) {
+                    // everything committed in this shard has been handed out
+                    lastRetrieved = committed + 1;
+                } else {
+                    lastRetrieved = clauses.getLast().getId() + 1;
+                }
+            } finally {
+                lock.unlock();
+            }
+            return clauses;
+        }
+
+        private void readClauses(PreparedStatement pstmt, List<Clause> clauses) throws SQLException {
+            try (ResultSet results = pstmt.executeQuery()) {
+                while (results.next()) {
+                    clauses.add(Database.readClause(results));
+                }
+            }
+        }
+
+        boolean hasUnclaimed(int committed) {
+            lock.lock();
+            try {
+                return lastRetrieved <= Math.min(lastId, committed);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void setResolved(List<Integer> clauseIds) {
+            if (clauseIds.isEmpty()) {
+                return;
+            }
+
+            String sql = "UPDATE clauses SET resolved = TRUE WHERE id IN ("
+                    + String.join(",", Collections.nCopies(clauseIds.size(), "?")) + ")";
+
+            lock.lock();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < clauseIds.size(); i++) {
+                    pstmt.setInt(i + 1, clauseIds.get(i));
+                }
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                log.error("setResolved failed", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean hasEmptyClause() {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM clauses WHERE clause like ? LIMIT 1")) {
+                stmt.setString(1, Constants.EMPTY_CLAUSE);
+                try (ResultSet results = stmt.executeQuery()) {
+                    return results.next();
+                }
+            } catch (SQLException e) {
+                log.error("hasEmptyClause failed", e);
+                return false;
+            }
+        }
+
+        void flushResolvents() {
+            lock.lock();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM clauses where starting_set = FALSE");
+                stmt.executeUpdate("UPDATE clauses SET resolved = FALSE WHERE starting_set = TRUE");
+                stmt.executeUpdate("PRAGMA wal_checkpoint(TRUNCATE)");
+            } catch (SQLException e) {
+                log.error("flushResolvents failed", e);
+            } finally {
+                lastRetrieved = 1;
+                lastId = getLastId();
+                lock.unlock();
+            }
+        }
+
+        void clearClauses() {
+            lock.lock();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM clauses");
+            } catch (SQLException e) {
+                log.error("clearClauses failed", e);
+            } finally {
+                lastRetrieved = 1;
+                lastId = 0;
+                lock.unlock();
+            }
+        }
+
+        private int getLastId() {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet result = stmt.executeQuery("SELECT id FROM clauses ORDER BY id DESC LIMIT 1")) {
+                if (result.next()) {
+                    return result.getInt("id");
+                }
+            } catch (SQLException e) {
+                log.error("getLastId failed", e);
+            }
+            return 0;
+        }
+
+        int countClauses() {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM clauses")) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            } catch (SQLException e) {
+                log.error("countClauses failed", e);
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+// The starting set of a prover's store and its preprocessed form. The store is read once, on the first proof that
+// asks for preprocessing, and the goal independent stages run again only when a proof asks for other stages, so
+// later proofs on the same knowledge base start from the cached result. PURE_LITERALS runs for every goal. The
+// store is only rewritten when the clauses differ from the ones it holds, and the clauses are only held while the
+// proofs ask for preprocessing. The fingerprints of the starting set seed the provers' duplicate checks, so a
+// resolvent equal to a starting clause never reaches the store. Without preprocessing they come from the store
+// (ClauseStore.getStartingFingerprints) and no clause is kept.
+public class StartingSet {
+
+    private final ClauseStore store;
+    private List<Clause> original = null; // the starting set as loaded, read by the first proof with stages
+    private Set<Preprocessor.Stage> cachedStages = null;
+    private Preprocessor.Result cached = null; // of the goal independent stages
+    private List<Clause> written = null; // the clauses the store holds when they differ from original
+    private long[] fingerprints = null; // of the clauses the store holds, until it is rewritten
+
+    public StartingSet(ClauseStore store) {
+        this.store = store;
+    }
+
+    // call after flushResolvents and before the goal is added, returns null when the config asks for no stages
+    public Preprocessor.Result prepare(Clause goal, Set<Preprocessor.Stage> stages) {
+        if (stages.isEmpty()) {
+            if (written != null) {
+                store.replaceStartingSet(original);
+                written = null;
+                fingerprints = null;
+            }
+            // the next proof with stages reads the store again
+            original = null;
+            cachedStages = null;
+            cached = null;
+            return null;
+        }
+        if (original == null) {
+            original = read(store);
+        }
+
+        Set<Preprocessor.Stage> goalIndependent = EnumSet.noneOf(Preprocessor.Stage.class);
+        goalIndependent.addAll(stages);
+        goalIndependent.remove(Preprocessor.Stage.PURE_LITERALS);
+        if (!goalIndependent.equals(cachedStages)) {
+            cached = Preprocessor.run(original, goalIndependent, null);
+            cachedStages = goalIndependent;
+        }
+        Preprocessor.Result result = cached;
+        if (stages.contains(Preprocessor.Stage.PURE_LITERALS)) {
+            result = result.then(Preprocessor.run(result.clauses(), EnumSet.of(Preprocessor.Stage.PURE_LITERALS),
+                    goal));
+        }
+
+        List<Clause> target = result.clauses().equals(original) ? null : result.clauses();
+        if (!Objects.equals(target, written)) {
+            store.replaceStartingSet(result.clauses());
+            written = target;
+            fingerprints = null;
+        }
+        return result;
+    }
+
+    // call after prepare and before the goal is added, the store is only asked when prepare holds no clauses
+    public long[] fingerprints() {
+        if (fingerprints == null) {
+            List<Clause> clauses = written != null ? written : original;
+            if (clauses == null) {
+                fingerprints = store.getStartingFingerprints();
+            } else {
+                fingerprints = new long[clauses.size()];
+                for (int i = 0; i < fingerprints.length; i++) {
+                    fingerprints[i] = clauses.get(i).fingerprint();
+                }
+            }
+        }
+        return fingerprints;
+    }
+
+    private static List<Clause> read(ClauseStore store) {
+        List<Clause> clauses = new ArrayList<>();
+        int nextId = 1;
+        while (true) {
+            List<Clause> chunk = store.getClauses(nextId, Constants.CLAUSE_FILE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                return clauses;
+            }
+            for (Clause clause : chunk) {
+                clauses.add(clause);
+                nextId = Math.max(nextId, clause.getId() + 1);
+            }
+        }
+    }
+}
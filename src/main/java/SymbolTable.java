@@ -0,0 +1,93 @@
+// Interns predicate and argument names straight from the text being parsed. Looking up a symbol that has been seen
+// before allocates nothing, and every literal built from the table shares the same String instances, so equality
+// checks between them usually stop at the reference comparison. A table only grows, so it should live as long as
+// one load (ClauseParser.parseFile and parseClauses make one per call) rather than as long as the process.
+public class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile String[] table = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // returns the canonical String for text[start, end)
+    public String intern(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+
+        // lock free lookup of symbols that are already present
+        String[] current = table;
+        int mask = current.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String symbol = current[slot];
+            if (symbol == null) {
+                break;
+            }
+            if (matches(symbol, text, start, end)) {
+                return symbol;
+            }
+        }
+
+        return insert(text, start, end, hash);
+    }
+
+    public String intern(String symbol) {
+        return intern(symbol, 0, symbol.length());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized String insert(CharSequence text, int start, int end, int hash) {
+        // another thread may have inserted the symbol (or resized the table) since the lock free lookup
+        String[] current = table;
+        int mask = current.length - 1;
+        int slot = hash & mask;
+        for (; current[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(current[slot], text, start, end)) {
+                return current[slot];
+            }
+        }
+
+        String symbol = text.subSequence(start, end).toString();
+        current[slot] = symbol;
+        size++;
+
+        // keep the load factor under one half
+        if (size * 2 > current.length) {
+            String[] resized = new String[current.length * 2];
+            int resizedMask = resized.length - 1;
+            for (String existing : current) {
+                if (existing != null) {
+                    int resizedSlot = hash(existing, 0, existing.length()) & resizedMask;
+                    while (resized[resizedSlot] != null) {
+                        resizedSlot = (resizedSlot + 1) & resizedMask;
+                    }
+                    resized[resizedSlot] = existing;
+                }
+            }
+            table = resized;
+        }
+        return symbol;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        // spread the high bits into the low bits used for the slot
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String symbol, CharSequence text, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
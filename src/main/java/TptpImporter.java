@@ -0,0 +1,472 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Reads TPTP cnf(name, role, formula) files, restricted to what the prover can represent: predicates of arity 0
+// or 1 whose argument is a variable or a constant. Function terms, equality and other formula languages are
+// rejected with the position of the offending token.
+//
+// TPTP names are mapped onto the prover's syntax:
+//   - variables (X, Y1, ...) become single lower case letters, assigned per clause in order of appearance
+//   - constants keep their letters and digits with the first letter upper cased, so a becomes A
+//   - propositional atoms p become p(0T)
+// Names that only differ in characters the prover does not accept (a_b and ab) are reported as an error instead of
+// being merged. include directives are resolved relative to the including file.
+public class TptpImporter {
+
+    private static final String VARIABLE_NAMES = "xyzwvutsrqponmlkjihgfedcba";
+
+    // the negated conjecture is used as the goal, every other clause goes into the problem
+    public static Problem load(Path file) throws IOException {
+        List<Clause> clauses = new ArrayList<>();
+        Clause[] goal = new Clause[1];
+        new TptpImporter().read(file, (role, clause) -> {
+            if (role.equals("negated_conjecture")) {
+                if (goal[0] != null) {
+                    clauses.add(goal[0]);
+                }
+                goal[0] = clause;
+            } else {
+                clauses.add(clause);
+            }
+        });
+
+        String name = file.getFileName().toString();
+        if (goal[0] == null) {
+            return Problem.withoutGoal(name, clauses);
+        }
+        return new Problem(name, clauses, goal[0]);
+    }
+
+    // delivers every clause (whatever its role) to sink in chunks of at most chunkSize, in file order
+    public static long stream(Path file, int chunkSize, Consumer<List<Clause>> sink) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be a positive number");
+        }
+
+        Chunker chunker = new Chunker(chunkSize, sink);
+        new TptpImporter().read(file, chunker);
+        return chunker.finish();
+    }
+
+    private interface ClauseHandler {
+        void accept(String role, Clause clause);
+    }
+
+    private static class Chunker implements ClauseHandler {
+        private final int chunkSize;
+        private final Consumer<List<Clause>> sink;
+        private List<Clause> chunk;
+        private long clauseCount = 0;
+
+        Chunker(int chunkSize, Consumer<List<Clause>> sink) {
+            this.chunkSize = chunkSize;
+            this.sink = sink;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        public void accept(String role, Clause clause) {
+            chunk.add(clause);
+            clauseCount++;
+            if (chunk.size() == chunkSize) {
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        long finish() {
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+            return clauseCount;
+        }
+    }
+
+    // mapped name -> TPTP name, to detect two TPTP names mapping onto the same prover name
+    private final Map<String, String> predicates = new HashMap<>();
+    private final Map<String, String> constants = new HashMap<>();
+    private final Map<String, Integer> arities = new HashMap<>();
+
+    private TptpImporter() {
+        constants.put(Constants.PROPOSITION_ARGUMENT, "(propositional atom)"); // no TPTP constant maps onto it
+    }
+
+    private void read(Path file, ClauseHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Lexer lexer = new Lexer(file, new PushbackReader(reader, 2));
+
+            while (true) {
+                lexer.skipLayout();
+                if (lexer.peek() == -1) {
+                    return;
+                }
+
+                String directive = lexer.lowerWord();
+                switch (directive) {
+                    case "cnf" -> readClause(lexer, handler);
+                    case "include" -> readInclude(lexer, file, handler);
+                    default -> throw lexer.error("unsupported directive '" + directive + "', only cnf is supported");
+                }
+            }
+        }
+    }
+
+    private void readInclude(Lexer lexer, Path file, ClauseHandler handler) throws IOException {
+        lexer.expect('(');
+        lexer.skipLayout();
+        if (lexer.peek() != '\'') {
+            throw lexer.error("expected a quoted file name");
+        }
+        String included = lexer.quoted();
+        lexer.skipLayout();
+        if (lexer.peek() == ',') {
+            throw lexer.error("include with a formula selection is not supported");
+        }
+        lexer.expect(')');
+        lexer.expect('.');
+
+        Path includedFile = file.resolveSibling(included);
+        try {
+            read(includedFile, handler);
+        } catch (NoSuchFileException e) {
+            throw lexer.error("included file " + included + " does not exist");
+        }
+    }
+
+    private void readClause(Lexer lexer, ClauseHandler handler) throws IOException {
+        lexer.expect('(');
+        lexer.skipLayout();
+        if (lexer.peek() == '\'') {
+            lexer.quoted();
+        } else {
+            lexer.word();
+        }
+        lexer.expect(',');
+        lexer.skipLayout();
+        String role = lexer.lowerWord();
+        lexer.expect(',');
+
+        Clause clause = new Clause();
+        Map<String, String> variables = new HashMap<>();
+        boolean tautology = readFormula(lexer, clause, variables);
+
+        // skip the optional source and useful info annotations
+        lexer.skipLayout();
+        if (lexer.peek() == ',') {
+            lexer.skipBalanced();
+        }
+        lexer.expect(')');
+        lexer.expect('.');
+
+        if (!tautology) {
+            handler.accept(role, clause);
+        }
+    }
+
+    // formula := '(' formula ')' | literal ('|' literal)*, returns true if the clause contains $true
+    private boolean readFormula(Lexer lexer, Clause clause, Map<String, String> variables) throws IOException {
+        lexer.skipLayout();
+        if (lexer.peek() == '(') {
+            lexer.next();
+            boolean tautology = readFormula(lexer, clause, variables);
+            lexer.expect(')');
+            return tautology;
+        }
+
+        boolean tautology = readLiteral(lexer, clause, variables);
+        lexer.skipLayout();
+        while (lexer.peek() == '|') {
+            lexer.next();
+            tautology |= readLiteral(lexer, clause, variables);
+            lexer.skipLayout();
+        }
+        return tautology;
+    }
+
+    private boolean readLiteral(Lexer lexer, Clause clause, Map<String, String> variables) throws IOException {
+        lexer.skipLayout();
+        boolean positive = true;
+        if (lexer.peek() == '~') {
+            lexer.next();
+            lexer.skipLayout();
+            positive = false;
+        }
+
+        if (lexer.peek() == '$') {
+            String constant = lexer.word();
+            if (constant.equals("$true") || constant.equals("$false")) {
+                // $false can be dropped from a disjunction, $true makes the clause a tautology
+                return constant.equals("$true") == positive;
+            }
+            throw lexer.error("unsupported defined predicate " + constant);
+        }
+
+        if (!Character.isLowerCase(lexer.peek()) && lexer.peek() != '\'') {
+            throw lexer.error("expected a predicate");
+        }
+        String name = lexer.peek() == '\'' ? lexer.quoted() : lexer.word();
+        String predicate = map(name, false, predicates, lexer);
+
+        String argument = Constants.PROPOSITION_ARGUMENT;
+        int arity = 0;
+        lexer.skipLayout();
+        if (lexer.peek() == '(') {
+            lexer.next();
+            argument = readTerm(lexer, variables);
+            lexer.skipLayout();
+            if (lexer.peek() == ',') {
+                throw lexer.error("predicate " + name + " has more than one argument, only arity 0 and 1 are supported");
+            }
+            lexer.expect(')');
+            arity = 1;
+        }
+
+        lexer.skipLayout();
+        if (lexer.peek() == '=' || lexer.peek() == '!') {
+            throw lexer.error("equality is not supported");
+        }
+
+        Integer previousArity = arities.putIfAbsent(predicate, arity);
+        if (previousArity != null && previousArity != arity) {
+            throw lexer.error("predicate " + name + " is used with arity " + previousArity + " and " + arity);
+        }
+
+        clause.addLiteral(new Literal(predicate, argument, positive));
+        return false;
+    }
+
+    private String readTerm(Lexer lexer, Map<String, String> variables) throws IOException {
+        lexer.skipLayout();
+        int c = lexer.peek();
+
+        String term;
+        if (Character.isUpperCase(c)) {
+            String variable = lexer.word();
+            term = variables.get(variable);
+            if (term == null) {
+                if (variables.size() == VARIABLE_NAMES.length()) {
+                    throw lexer.error("clause has more than " + VARIABLE_NAMES.length() + " variables");
+                }
+                term = String.valueOf(VARIABLE_NAMES.charAt(variables.size()));
+                variables.put(variable, term);
+            }
+            return term;
+        }
+
+        if (c == '\'') {
+            term = lexer.quoted();
+        } else if (c == '"') {
+            term = lexer.doubleQuoted();
+        } else if (Character.isLowerCase(c) || Character.isDigit(c) || c == '-' || c == '+') {
+            term = lexer.word();
+        } else {
+            throw lexer.error("expected a variable or a constant");
+        }
+
+        lexer.skipLayout();
+        if (lexer.peek() == '(') {
+            throw lexer.error("function term " + term + "(...) is not supported");
+        }
+        return map(term, true, constants, lexer);
+    }
+
+    // keeps letters and digits, constants get an upper case first letter so they can not be read as variables
+    private static String map(String name, boolean constant, Map<String, String> names, Lexer lexer) {
+        StringBuilder mapped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                mapped.append(c);
+            }
+        }
+        if (mapped.isEmpty()) {
+            throw lexer.error("name '" + name + "' has no letters or digits");
+        }
+        if (constant) {
+            mapped.setCharAt(0, Character.toUpperCase(mapped.charAt(0)));
+        }
+
+        String result = mapped.toString();
+        String previous = names.putIfAbsent(result, name);
+        if (previous != null && !previous.equals(name)) {
+            throw lexer.error("names " + previous + " and " + name + " both map to " + result);
+        }
+        return result;
+    }
+
+    // character level reader that keeps track of the position for error messages
+    private static class Lexer {
+        private final Path file;
+        private final PushbackReader reader;
+        private int line = 1;
+        private int column = 1;
+
+        Lexer(Path file, PushbackReader reader) {
+            this.file = file;
+            this.reader = reader;
+        }
+
+        int peek() throws IOException {
+            int c = reader.read();
+            if (c != -1) {
+                reader.unread(c);
+            }
+            return c;
+        }
+
+        int next() throws IOException {
+            int c = reader.read();
+            if (c == '\n') {
+                line++;
+                column = 1;
+            } else if (c != -1) {
+                column++;
+            }
+            return c;
+        }
+
+        // whitespace, % line comments and /* block comments */
+        void skipLayout() throws IOException {
+            while (true) {
+                int c = peek();
+                if (Character.isWhitespace(c)) {
+                    next();
+                } else if (c == '%') {
+                    while (c != '\n' && c != -1) {
+                        c = next();
+                    }
+                } else if (c == '/') {
+                    next();
+                    if (peek() != '*') {
+                        reader.unread('/');
+                        column--;
+                        return;
+                    }
+                    next();
+                    int previous = 0;
+                    while (!(previous == '*' && c == '/')) {
+                        previous = c;
+                        c = next();
+                        if (c == -1) {
+                            throw error("unterminated comment");
+                        }
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        void expect(char expected) throws IOException {
+            skipLayout();
+            if (peek() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+            next();
+        }
+
+        // letters, digits, _ and $ (defined names), plus the characters of numbers
+        String word() throws IOException {
+            StringBuilder word = new StringBuilder();
+            int c = peek();
+            while (isWordChar(c, word)) {
+                word.append((char) next());
+                c = peek();
+            }
+            if (word.isEmpty()) {
+                throw error("expected a name");
+            }
+            return word.toString();
+        }
+
+        private static boolean isWordChar(int c, StringBuilder word) {
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                return true;
+            }
+            if (c == '-' || c == '+') {
+                return word.isEmpty(); // sign of a number
+            }
+            // decimal point of a number
+            return c == '.' && !word.isEmpty() && Character.isDigit(word.charAt(word.length() - 1));
+        }
+
+        String lowerWord() throws IOException {
+            if (!Character.isLowerCase(peek())) {
+                throw error("expected a name");
+            }
+            return word();
+        }
+
+        String quoted() throws IOException {
+            return delimited('\'');
+        }
+
+        String doubleQuoted() throws IOException {
+            return delimited('"');
+        }
+
+        private String delimited(char quote) throws IOException {
+            next();
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                int c = next();
+                if (c == -1 || c == '\n') {
+                    throw error("unterminated quoted name");
+                }
+                if (c == quote) {
+                    return text.toString();
+                }
+                if (c == '\\') {
+                    c = next();
+                }
+                text.append((char) c);
+            }
+        }
+
+        // skips tokens up to (not including) the ')' closing the current term
+        void skipBalanced() throws IOException {
+            int depth = 0;
+            while (true) {
+                skipLayout();
+                int c = peek();
+                if (c == -1) {
+                    throw error("unexpected end of file");
+                }
+                if (c == '\'' || c == '"') {
+                    delimited((char) c);
+                    continue;
+                }
+                if (c == '(' || c == '[') {
+                    depth++;
+                } else if (c == ')' || c == ']') {
+                    if (depth == 0) {
+                        return;
+                    }
+                    depth--;
+                }
+                next();
+            }
+        }
+
+        IllegalArgumentException error(String reason) {
+            String found;
+            try {
+                int c = peek();
+                found = c == -1 ? "end of file" : "'" + (char) c + "'";
+            } catch (IOException e) {
+                found = "unreadable input";
+            }
+            return new IllegalArgumentException("Invalid TPTP file " + file.getFileName() + " at line " + line
+                    + ", column " + column + ": " + reason + " but found " + found);
+        }
+    }
+}
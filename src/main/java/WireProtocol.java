@@ -0,0 +1,197 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class WireProtocol {
+
+    // Worker -> Coordinator messages
+    public static final byte REQUEST_WORK = 1;
+    public static final byte FETCH_CLAUSES = 2;
+    public static final byte RESOLVENTS = 3;
+    public static final byte WORK_DONE = 4;
+
+    // Coordinator -> Worker messages
+    public static final byte WORK = 10;
+    public static final byte CLAUSES = 11;
+    public static final byte SHUTDOWN = 12;
+
+    // a frame is [type: byte][payload length: int][payload: bytes]
+    public static class Frame {
+        private final byte type;
+        private final byte[] payload;
+
+        public Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public DataInputStream payload() {
+            return new DataInputStream(new ByteArrayInputStream(payload));
+        }
+    }
+
+    public static void writeFrame(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    public static void writeFrame(DataOutputStream out, byte type) throws IOException {
+        writeFrame(out, type, new byte[0]);
+    }
+
+    public static Frame readFrame(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+
+    // clause ids in [startingId, endId)
+    public static byte[] encodeRange(int startingId, int endId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(startingId);
+        out.writeInt(endId);
+        return bytes.toByteArray();
+    }
+
+    // work done: [pairs examined: long][resolvents over the clause limits: long]
+    public static byte[] encodeCounts(long pairsExamined, long overLimit) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(pairsExamined);
+        out.writeLong(overLimit);
+        return bytes.toByteArray();
+    }
+
+    // work: the settings of the proof the worker applies, then the unresolved clauses
+    public static byte[] encodeWork(ProverConfig config, Collection<Clause> unresolved) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeConfig(out, config);
+        out.writeInt(unresolved.size());
+        for (Clause clause : unresolved) {
+            writeClause(out, clause);
+        }
+        return bytes.toByteArray();
+    }
+
+    // config: [clause batch size: int][resolvent save threshold: int][max literals: int][max depth: int]
+    // [selection: byte][precedence count: int][predicate: utf]..., the rest of the config stays with the coordinator
+    public static void writeConfig(DataOutputStream out, ProverConfig config) throws IOException {
+        out.writeInt(config.getClauseBatchSize());
+        out.writeInt(config.getResolventSaveThreshold());
+        out.writeInt(config.getLimits().getMaxLiterals());
+        out.writeInt(config.getLimits().getMaxDepth());
+        out.writeByte(config.getSelection().getKind().ordinal());
+        out.writeInt(config.getSelection().getPrecedence().size());
+        for (String predicate : config.getSelection().getPrecedence()) {
+            out.writeUTF(predicate);
+        }
+    }
+
+    public static ProverConfig readConfig(DataInputStream in) throws IOException {
+        int clauseBatchSize = in.readInt();
+        int resolventSaveThreshold = in.readInt();
+        int maxLiterals = in.readInt();
+        int maxDepth = in.readInt();
+        int kind = in.readUnsignedByte();
+        if (kind >= LiteralSelection.Kind.values().length) {
+            throw new IOException("Unknown literal selection: " + kind);
+        }
+        int count = in.readInt();
+        List<String> precedence = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            precedence.add(in.readUTF());
+        }
+        try {
+            LiteralSelection selection = LiteralSelection.Kind.values()[kind] == LiteralSelection.Kind.ALL
+                    ? LiteralSelection.ALL : new LiteralSelection(LiteralSelection.Kind.values()[kind], precedence);
+            return ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION)
+                    .withClauseBatchSize(clauseBatchSize).withResolventSaveThreshold(resolventSaveThreshold)
+                    .withLimits(new ClauseLimits(maxLiterals, maxDepth)).withSelection(selection);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid config: " + e.getMessage(), e);
+        }
+    }
+
+    public static byte[] encodeClauses(Collection<Clause> clauses) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(clauses.size());
+        for (Clause clause : clauses) {
+            writeClause(out, clause);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<Clause> decodeClauses(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<Clause> clauses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clauses.add(readClause(in));
+        }
+        return clauses;
+    }
+
+    // clause: [id: int][depth: int][literal count: unsigned short] followed by the literals
+    public static void writeClause(DataOutputStream out, Clause clause) throws IOException {
+        if (clause.size() > 0xFFFF) {
+            throw new IOException("Clause has too many literals to encode: " + clause.size());
+        }
+        out.writeInt(clause.getId());
+        out.writeInt(clause.getDepth());
+        out.writeShort(clause.size());
+        for (Literal literal : clause.getLiterals()) {
+            writeLiteral(out, literal);
+        }
+    }
+
+    public static Clause readClause(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int depth = in.readInt();
+        if (depth < 0) {
+            throw new IOException("Invalid clause depth: " + depth);
+        }
+        int size = in.readUnsignedShort();
+        Clause clause = new Clause();
+        clause.setDepth(depth);
+        for (int i = 0; i < size; i++) {
+            clause.addLiteral(readLiteral(in));
+        }
+        // resolvents that have not been stored yet travel without an id
+        if (id > 0) {
+            clause.setId(id);
+        }
+        return clause;
+    }
+
+    // literal: [positive: byte][predicate: utf][argument: utf]
+    private static void writeLiteral(DataOutputStream out, Literal literal) throws IOException {
+        out.writeBoolean(literal.isPositive());
+        out.writeUTF(literal.getPredicate());
+        out.writeUTF(literal.getArgument());
+    }
+
+    private static Literal readLiteral(DataInputStream in) throws IOException {
+        boolean positive = in.readBoolean();
+        String predicate = in.readUTF();
+        String argument = in.readUTF();
+        return new Literal(predicate, argument, positive);
+    }
+}
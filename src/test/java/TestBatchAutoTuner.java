@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBatchAutoTuner {
+
+    private static final ProverConfig TUNED = ProverConfig.defaults().withWorkerCount(4)
+            .withClauseBatchSize(300).withUnresolvedBatchSize(100).withResolventSaveThreshold(100).withAutoTune(true);
+
+    // one epoch of windows with the given totals
+    private static void epoch(BatchAutoTuner tuner, long fetch, long resolve, long pairs) {
+        for (int i = 0; i < BatchAutoTuner.EPOCH_WINDOWS; i++) {
+            tuner.windowMeasured(fetch / BatchAutoTuner.EPOCH_WINDOWS, resolve / BatchAutoTuner.EPOCH_WINDOWS,
+                    pairs / BatchAutoTuner.EPOCH_WINDOWS);
+        }
+    }
+
+    @Test
+    public void testStaticConfig_KeepsSizes() {
+        BatchAutoTuner tuner = new BatchAutoTuner(TUNED.withAutoTune(false));
+        assertFalse(tuner.isAdaptive());
+        assertEquals(0, tuner.startTimer());
+        assertEquals(0, tuner.windowFetched(0));
+
+        tuner.windowResolved(0, 1000);
+        tuner.workerIdle(0);
+        assertEquals(300, tuner.getClauseBatchSize());
+        assertEquals(100, tuner.getUnresolvedBatchSize());
+        assertEquals(0, tuner.getAdjustments());
+    }
+
+    @Test
+    public void testClauseBatchSize_KeepsStepsThatBeatTheNoise() {
+        BatchAutoTuner tuner = new BatchAutoTuner(TUNED);
+
+        epoch(tuner, 1_600_000, 16_000_000, 160_000); // the first epoch sets the baseline, then probe a step up
+        assertEquals(450, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 320_000);
+        assertEquals(450, tuner.getClauseBatchSize()); // one epoch is not enough
+        epoch(tuner, 1_600_000, 16_000_000, 320_000); // better beyond the noise, keep it and probe further
+        assertEquals(675, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 400_000);
+        epoch(tuner, 1_600_000, 16_000_000, 400_000); // within the noise, go back and stay
+        assertEquals(450, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 1_600_000);
+        epoch(tuner, 1_600_000, 16_000_000, 1_600_000);
+        assertEquals(450, tuner.getClauseBatchSize());
+        assertEquals(3, tuner.getAdjustments());
+    }
+
+    @Test
+    public void testClauseBatchSize_TriesTheOtherDirectionOnce() {
+        BatchAutoTuner tuner = new BatchAutoTuner(TUNED);
+
+        epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        assertEquals(450, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 80_000);
+        epoch(tuner, 1_600_000, 16_000_000, 80_000); // worse, probe below the configured size instead
+        assertEquals(200, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 320_000);
+        epoch(tuner, 1_600_000, 16_000_000, 320_000);
+        assertEquals(133, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        epoch(tuner, 1_600_000, 16_000_000, 160_000); // worse again, the last kept size stays
+        assertEquals(200, tuner.getClauseBatchSize());
+        epoch(tuner, 1_600_000, 16_000_000, 10_000);
+        epoch(tuner, 1_600_000, 16_000_000, 10_000);
+        assertEquals(200, tuner.getClauseBatchSize());
+    }
+
+    @Test
+    public void testUnresolvedBatchSize_FollowsStarvationAndFetchCost() {
+        BatchAutoTuner tuner = new BatchAutoTuner(TUNED);
+
+        // workers idle half of the time because there was no work: leave the batches alone
+        for (int i = 0; i < BatchAutoTuner.HOLD; i++) {
+            tuner.workerMeasured(5_000_000, 5_000_000);
+            tuner.batchClaimed(10, 100);
+            epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        }
+        assertEquals(100, tuner.getUnresolvedBatchSize());
+
+        // workers idle half of the time while the others claimed full batches: split the work finer, but only
+        // once it lasted HOLD epochs
+        tuner.workerMeasured(5_000_000, 5_000_000);
+        tuner.batchClaimed(100, 100);
+        epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        assertEquals(100, tuner.getUnresolvedBatchSize());
+        tuner.workerMeasured(5_000_000, 5_000_000);
+        tuner.batchClaimed(100, 100);
+        epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        assertEquals(66, tuner.getUnresolvedBatchSize());
+
+        // busy workers spending a third of their batch time on anything but resolving: claim more per batch
+        for (int i = 0; i < BatchAutoTuner.HOLD; i++) {
+            tuner.workerMeasured(0, 24_000_000);
+            epoch(tuner, 1_600_000, 16_000_000, 160_000);
+        }
+        assertEquals(99, tuner.getUnresolvedBatchSize());
+    }
+
+    @Test
+    public void testScale_StaysWithinBounds() {
+        assertEquals(450, BatchAutoTuner.scale(300, 1, 37, 2400));
+        assertEquals(200, BatchAutoTuner.scale(300, -1, 37, 2400));
+        assertEquals(2400, BatchAutoTuner.scale(2000, 1, 37, 2400));
+        assertEquals(37, BatchAutoTuner.scale(40, -1, 37, 2400));
+        assertEquals(1, BatchAutoTuner.scale(1, -1, 1, 8));
+    }
+}
@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBenchmarkHarness {
+
+    @Test
+    public void testSummaryStatistics() {
+        BenchmarkHarness.Summary summary = new BenchmarkHarness.Summary(
+                new double[]{5, 1, 4, 2, 3, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 100});
+
+        assertEquals(10.5, summary.median, 1e-9);
+        assertEquals(19, summary.p95, 1e-9);
+        assertEquals(14.5, summary.mean, 1e-9);
+        // order statistics 5 and 15 (0 based) for n = 20
+        assertEquals(6, summary.ciLow, 1e-9);
+        assertEquals(16, summary.ciHigh, 1e-9);
+        assertTrue(summary.ciLow <= summary.median && summary.median <= summary.ciHigh);
+    }
+
+    @Test
+    public void testRunWritesGraphCompatibleCsvAndJson(@TempDir Path dir) throws Exception {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(new String[]{
+                "--sizes", "3,4", "--warmup", "1", "--runs", "3",
+                "--csv", dir.resolve("results.csv").toString(), "--json", dir.resolve("results.json").toString()});
+
+        List<BenchmarkHarness.Result> results = new BenchmarkHarness(options).run();
+        BenchmarkHarness.writeCsv(results, options.csv);
+        BenchmarkHarness.writeJson(results, options, options.json);
+
+        List<String> csv = Files.readAllLines(options.csv);
+        assertTrue(csv.getFirst().startsWith("n,\"Single Threaded(ms)\",\"Multi Threaded (ms)\",Difference"));
+        assertEquals(3, csv.size());
+        assertTrue(csv.get(1).startsWith("3,"));
+        assertTrue(csv.get(2).startsWith("4,"));
+
+        String json = Files.readString(options.json);
+        assertTrue(json.contains("\"n\": 4"), json);
+        assertTrue(json.contains("\"samples_ms\": ["), json);
+    }
+
+    @Test
+    public void testBaselineComparison(@TempDir Path dir) throws IOException {
+        Path baseline = dir.resolve("baseline.csv");
+        Files.writeString(baseline, "n,\"Single Threaded(ms)\",\"Multi Threaded (ms)\",Difference\n"
+                + "5,10.0,20.0,10.0\n");
+
+        BenchmarkHarness.Summary fast = new BenchmarkHarness.Summary(new double[]{9, 10, 11});
+        BenchmarkHarness.Summary slow = new BenchmarkHarness.Summary(new double[]{30, 31, 32});
+        BenchmarkHarness.Summary noisy = new BenchmarkHarness.Summary(new double[]{5, 30, 31});
+
+        assertTrue(BenchmarkHarness.compareToBaseline(
+                List.of(new BenchmarkHarness.Result(5, fast, fast)), baseline, 0.1).isEmpty());
+
+        List<String> regressions = BenchmarkHarness.compareToBaseline(
+                List.of(new BenchmarkHarness.Result(5, slow, fast)), baseline, 0.1);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.getFirst().contains("single threaded"), regressions.getFirst());
+
+        // a slower median whose interval still reaches the baseline is not reported
+        assertTrue(BenchmarkHarness.compareToBaseline(
+                List.of(new BenchmarkHarness.Result(5, noisy, fast)), baseline, 0.1).isEmpty());
+
+        // sizes missing from the baseline are ignored
+        assertTrue(BenchmarkHarness.compareToBaseline(
+                List.of(new BenchmarkHarness.Result(6, slow, slow)), baseline, 0.1).isEmpty());
+    }
+}
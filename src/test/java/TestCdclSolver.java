@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCdclSolver {
+
+    @Test
+    public void testLuby() {
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], CdclSolver.luby(i + 1));
+        }
+    }
+
+    @Test
+    public void testSolve_AgreesWithGroundResolver() throws InterruptedException {
+        int unsatisfiable = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            List<Clause> clauses = clauses(new ProblemGenerator(seed).randomKCnf(5, 3.0 + seed % 4, 3));
+            CdclSolver solver = new CdclSolver(clauses);
+            boolean satisfiable = solver.solve();
+
+            assertEquals(!new GroundResolver(clauses).prove(), satisfiable, "seed " + seed);
+            if (satisfiable) {
+                assertSatisfies(solver.getModel(), clauses);
+            } else {
+                unsatisfiable++;
+            }
+        }
+        assertTrue(unsatisfiable > 0 && unsatisfiable < 40);
+    }
+
+    @Test
+    public void testSolve_LargerProblems() throws Exception {
+        // pigeonhole needs exponentially long resolution proofs, clause learning still finishes 6 into 5 quickly
+        CdclSolver pigeonhole = new CdclSolver(clauses(new ProblemGenerator(1).pigeonhole(6, 5)));
+        assertFalse(pigeonhole.solve());
+        assertTrue(pigeonhole.getConflicts() > 0 && pigeonhole.getLearnedClauses() > 0);
+
+        for (long seed = 0; seed < 5; seed++) {
+            List<Clause> clauses = clauses(new ProblemGenerator(seed).randomKCnf(150, 4.0, 3));
+            CdclSolver solver = new CdclSolver(clauses);
+            if (solver.solve()) {
+                assertSatisfies(solver.getModel(), clauses);
+            }
+        }
+
+        Path dimacs = Path.of(TestCdclSolver.class.getResource("/dimacs/satisfiable.cnf").toURI());
+        List<Clause> satisfiable = clauses(DimacsImporter.load(dimacs));
+        CdclSolver solver = new CdclSolver(satisfiable);
+        assertTrue(solver.solve());
+        assertSatisfies(solver.getModel(), satisfiable);
+        dimacs = Path.of(TestCdclSolver.class.getResource("/dimacs/php_3_2.cnf").toURI());
+        assertFalse(new CdclSolver(clauses(DimacsImporter.load(dimacs))).solve());
+    }
+
+    @Test
+    public void testSolve_UnitsAndEmptyClauses() throws InterruptedException {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(A)"));
+        clauses.add(ClauseParser.parseClause("¬P(A) ∨ Q(A)"));
+        clauses.add(ClauseParser.parseClause("Q(A) ∨ ¬Q(A)"));
+        assertTrue(new CdclSolver(clauses).solve());
+
+        clauses.add(ClauseParser.parseClause("¬Q(A)"));
+        CdclSolver solver = new CdclSolver(clauses);
+        assertFalse(solver.solve());
+        assertEquals(0, solver.getDecisions());
+
+        assertFalse(new CdclSolver(List.of(ClauseParser.parseClause("P(A)"), new Clause())).solve());
+        assertThrows(IllegalArgumentException.class, () -> new CdclSolver(List.of(ClauseParser.parseClause("P(x)"))));
+    }
+
+    @Test
+    public void testProvers_UseCdclForGroundProblems() throws InterruptedException {
+        Problem problem = new ProblemGenerator(3).pigeonhole(6, 5);
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+            assertEquals(0, prover.getPairsExamined());
+        } finally {
+            prover.closeDatabase();
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+        try {
+            assertTrue(resolver.prove(problem.getNegatedGoal()));
+            assertEquals(0, resolver.getPairsExamined());
+            // GROUND still runs the bitset resolution engine
+            Problem small = new ProblemGenerator(3).pigeonhole(3, 2);
+            MultiThreadedResolver ground = new MultiThreadedResolver(small.getClauses());
+            try {
+                assertTrue(ground.prove(small.getNegatedGoal(),
+                        ProverConfig.defaults().withBackend(ProverConfig.Backend.GROUND)));
+                assertTrue(ground.getPairsExamined() > 0);
+            } finally {
+                ground.closeDatabase();
+            }
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
+    private static List<Clause> clauses(Problem problem) {
+        List<Clause> clauses = new ArrayList<>(problem.getClauses());
+        clauses.add(problem.getNegatedGoal());
+        return clauses;
+    }
+
+    private static void assertSatisfies(List<Literal> model, List<Clause> clauses) {
+        Set<Literal> trueLiterals = new HashSet<>(model);
+        for (Clause clause : clauses) {
+            boolean satisfied = false;
+            for (Literal literal : clause.getLiterals()) {
+                satisfied |= trueLiterals.contains(literal);
+            }
+            assertTrue(satisfied, "model does not satisfy " + clause);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TestClauseFingerprintSet {
+
+    @Test
+    public void testFingerprintIgnoresLiteralOrder() {
+        Clause clause1 = ClauseParser.parseClause("P(x) ∨ ¬Q(y) ∨ R(a)");
+        Clause clause2 = ClauseParser.parseClause("R(a), P(x) | ¬Q(y)");
+        assertEquals(clause1.fingerprint(), clause2.fingerprint());
+    }
+
+    @Test
+    public void testFingerprintDistinguishesClauses() {
+        assertNotEquals(ClauseParser.parseClause("P(x)").fingerprint(), ClauseParser.parseClause("¬P(x)").fingerprint());
+        assertNotEquals(ClauseParser.parseClause("P(x)").fingerprint(), ClauseParser.parseClause("P(y)").fingerprint());
+        assertNotEquals(ClauseParser.parseClause("PQ(x)").fingerprint(), ClauseParser.parseClause("P(Qx)").fingerprint());
+        assertNotEquals(new Clause().fingerprint(), ClauseParser.parseClause("P(x)").fingerprint());
+    }
+
+    @Test
+    public void testAddRejectsDuplicates() {
+        ClauseFingerprintSet set = new ClauseFingerprintSet(4);
+        assertTrue(set.add(ClauseParser.parseClause("P(x) ∨ Q(y)")));
+        assertFalse(set.add(ClauseParser.parseClause("Q(y) ∨ P(x)")));
+        assertTrue(set.contains(ClauseParser.parseClause("P(x) ∨ Q(y)")));
+        assertFalse(set.contains(ClauseParser.parseClause("P(x)")));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void testZeroFingerprintIsStored() {
+        ClauseFingerprintSet set = new ClauseFingerprintSet(1);
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+    }
+
+    @Test
+    public void testGrowsAndClears() {
+        ClauseFingerprintSet set = new ClauseFingerprintSet(2);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(set.add(ClauseParser.parseClause("P" + i + "(a)")));
+        }
+        assertEquals(10000, set.size());
+        assertFalse(set.add(ClauseParser.parseClause("P9999(a)")));
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertTrue(set.add(ClauseParser.parseClause("P9999(a)")));
+    }
+
+    @Test
+    public void testInvalidStripeCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ClauseFingerprintSet(0));
+    }
+
+    @Test
+    public void testConcurrentAddsAcceptEachClauseOnce() throws InterruptedException {
+        ClauseFingerprintSet set = new ClauseFingerprintSet();
+        AtomicInteger accepted = new AtomicInteger();
+
+        // every thread offers the same clauses, only one of them may win each one
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    if (set.add(ClauseParser.parseClause("Q" + i + "(b)"))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(5000, accepted.get());
+        assertEquals(5000, set.size());
+    }
+}
@@ -0,0 +1,356 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestClauseLog {
+
+    @TempDir
+    Path dir;
+    private ClauseLog log;
+    private Clause clause1;
+    private Clause clause2;
+
+    @BeforeEach
+    public void setUp() {
+        clause1 = ClauseParser.parseClause("P(x) ∨ Q(y)");
+        clause2 = ClauseParser.parseClause("¬Q(y) ∨ R(Zeno)");
+        clause2.setDepth(3);
+        // small segments, so the tests cross segment boundaries
+        log = new ClauseLog(new ArrayList<>(Arrays.asList(clause1, clause2)), dir.resolve("log"), 128);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        log.close();
+    }
+
+    @Test
+    public void testConstructor_Success() {
+        assertEquals(2, log.countClauses());
+        ArrayList<Clause> clauses = log.getClauses(1, 2);
+        assertEquals(Arrays.asList(clause1, clause2), clauses);
+        assertEquals(2, clauses.get(1).getId());
+        assertEquals(3, clauses.get(1).getDepth());
+    }
+
+    @Test
+    public void testConstructor_InvalidArguments() {
+        List<Clause> clauses = Collections.singletonList(clause1);
+        assertThrows(IllegalArgumentException.class, () -> new ClauseLog(null, dir.resolve("other")));
+        assertThrows(IllegalArgumentException.class, () -> new ClauseLog(new ArrayList<>(), dir.resolve("other")));
+        assertThrows(IllegalArgumentException.class, () -> new ClauseLog(clauses, null));
+        assertThrows(IllegalArgumentException.class, () -> new ClauseLog(clauses, dir.resolve("other"), 16));
+        // a record larger than a segment
+        assertThrows(IllegalArgumentException.class, () -> log.addClause(ClauseParser.parseClause(
+                "LongPredicateName(a) ∨ LongPredicateName(b) ∨ LongPredicateName(c) ∨ LongPredicateName(d) ∨ "
+                        + "LongPredicateName(e) ∨ LongPredicateName(f)")));
+    }
+
+    @Test
+    public void testFromFile() throws IOException {
+        Path file = dir.resolve("kb.txt");
+        Files.write(file, Arrays.asList("P(x) ∨ Q(y)", "¬Q(y) ∨ R(z)", "S(a)", "# comment"));
+
+        ClauseLog loaded = ClauseLog.fromFile(file, dir.resolve("loaded"));
+        try {
+            assertEquals(3, loaded.countClauses());
+            assertEquals(3, loaded.getClausesInRange(1, 4).size());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    public void testFromFile_RemovesTheSegmentsOfAFailedLoad() throws IOException {
+        // the chunks before the malformed line are written before it is read
+        Path file = dir.resolve("malformed.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            lines.add("P" + i + "(x) ∨ Q(y)");
+        }
+        lines.add("P(x) Q(y");
+        Files.write(file, lines);
+        assertThrows(IllegalArgumentException.class, () -> ClauseLog.fromFile(file, dir.resolve("malformed")));
+        assertFalse(Files.exists(dir.resolve("malformed")));
+
+        Path empty = dir.resolve("empty.txt");
+        Files.write(empty, Collections.singletonList("# comment"));
+        assertThrows(IllegalArgumentException.class, () -> ClauseLog.fromFile(empty, dir.resolve("empty")));
+        assertFalse(Files.exists(dir.resolve("empty")));
+
+        // files the log did not write are left alone
+        Files.createDirectories(dir.resolve("shared"));
+        Files.writeString(dir.resolve("shared").resolve("notes.txt"), "keep");
+        assertThrows(IllegalArgumentException.class, () -> ClauseLog.fromFile(empty, dir.resolve("shared")));
+        try (var files = Files.list(dir.resolve("shared"))) {
+            assertEquals(List.of(dir.resolve("shared").resolve("notes.txt")), files.toList());
+        }
+    }
+
+    @Test
+    public void testFromImage_ReadsTheStartingSetFromTheImage() throws IOException, InterruptedException {
+        KbImage image = KbImage.compile(Arrays.asList(clause1, ClauseParser.parseClause("¬Q(y) ∨ R(Zeno)")),
+                Preprocessor.NONE, dir.resolve("kb.img"));
+        ClauseLog loaded = ClauseLog.fromImage(image, dir.resolve("image"));
+        try {
+            assertEquals(2, loaded.countClauses());
+            assertEquals(Arrays.asList(clause1, clause2), loaded.getClausesInRange(1, 3));
+            assertEquals(2, loaded.getClauses(2, 1).getFirst().getId());
+
+            // the starting clauses are duplicates, the others go to the segments after the image
+            loaded.addClauses(Arrays.asList(ClauseParser.parseClause("¬Q(y) ∨ R(Zeno)"),
+                    ClauseParser.parseClause("S(a)")));
+            assertEquals(3, loaded.countClauses());
+            assertEquals(ClauseParser.parseClause("S(a)"), loaded.getClausesInRange(3, 4).getFirst());
+            assertEquals(3, loaded.getUnresolvedClauses(5).size());
+
+            loaded.flushResolvents();
+            assertEquals(2, loaded.countClauses());
+            loaded.addClause(ClauseParser.parseClause("S(a)"));
+            assertEquals(3, loaded.countClauses());
+
+            // a new starting set replaces the image
+            loaded.replaceStartingSet(Collections.singletonList(ClauseParser.parseClause("T(b)")));
+            assertEquals(Collections.singletonList(ClauseParser.parseClause("T(b)")), loaded.getClauses(1, 5));
+        } finally {
+            loaded.close();
+        }
+
+        KbImage socrates = KbImage.compile(Arrays.asList(ClauseParser.parseClause("Man(Socrates)"),
+                ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)")), Preprocessor.NONE, dir.resolve("socrates.img"));
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(
+                ClauseLog.fromImage(socrates, dir.resolve("proof")));
+        try {
+            assertTrue(prover.prove(ClauseParser.parseClause("¬Mortal(Socrates)"), ProverConfig.defaults()
+                    .withBackend(ProverConfig.Backend.RESOLUTION)));
+            assertFalse(prover.prove(ClauseParser.parseClause("¬Mortal(Zeno)"), ProverConfig.defaults()
+                    .withBackend(ProverConfig.Backend.RESOLUTION)));
+        } finally {
+            prover.closeDatabase();
+        }
+        assertThrows(IllegalArgumentException.class, () -> ClauseLog.fromImage(null, dir.resolve("other")));
+    }
+
+    @Test
+    public void testGetStartingFingerprints_DoesNotDecodeTheImage() throws IOException {
+        KbImage image = spy(KbImage.compile(Arrays.asList(clause1, clause2, ClauseParser.parseClause("S(a)")),
+                Preprocessor.NONE, dir.resolve("kb.img")));
+        ClauseLog loaded = ClauseLog.fromImage(image, dir.resolve("image"));
+        try {
+            long[] expected = {clause1.fingerprint(), clause2.fingerprint(),
+                    ClauseParser.parseClause("S(a)").fingerprint()};
+            loaded.addClause(ClauseParser.parseClause("T(b)"));
+            assertArrayEquals(expected, loaded.getStartingFingerprints());
+            assertArrayEquals(expected, new StartingSet(loaded).fingerprints());
+            verify(image, never()).clause(anyInt());
+        } finally {
+            loaded.close();
+        }
+
+        // without an image the fingerprints kept for the duplicate check are returned
+        assertArrayEquals(new long[] {clause1.fingerprint(), clause2.fingerprint()}, log.getStartingFingerprints());
+    }
+
+    @Test
+    public void testAddClauses_AppendsSegmentsAndIgnoresDuplicates() {
+        log.addClause(clause1);
+        List<Clause> newClauses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            newClauses.add(ClauseParser.parseClause("T" + i + "(a) ∨ ¬S(x)"));
+        }
+        newClauses.add(ClauseParser.parseClause("T0(a) ∨ ¬S(x)"));
+        log.addClauses(newClauses);
+
+        assertEquals(22, log.countClauses());
+        assertTrue(log.getSegmentCount() > 1);
+        ArrayList<Clause> clauses = log.getClausesInRange(3, 23);
+        assertEquals(newClauses.subList(0, 20), clauses);
+        for (int i = 0; i < clauses.size(); i++) {
+            assertEquals(i + 3, clauses.get(i).getId());
+        }
+        assertEquals(5, log.getClauses(18, 100).size());
+        assertTrue(log.getClauses(23, 10).isEmpty());
+    }
+
+    @Test
+    public void testReads_DecodeIntactWhileAppendingAcrossSegments() throws InterruptedException {
+        List<Clause> newClauses = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            newClauses.add(ClauseParser.parseClause("W" + i + "(a" + i + ") ∨ ¬V(x)"));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger checked = new AtomicInteger();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            boolean ranges = r % 2 == 0;
+            readers.add(new Thread(() -> {
+                try {
+                    do {
+                        int published = log.countClauses();
+                        int first = Math.max(1, published - 50);
+                        ArrayList<Clause> clauses = ranges ? log.getClausesInRange(first, published + 50)
+                                : log.getClauses(first, 100);
+                        for (int i = 0; i < clauses.size(); i++) {
+                            Clause clause = clauses.get(i);
+                            assertEquals(first + i, clause.getId());
+                            Clause expected = clause.getId() <= 2 ? Arrays.asList(clause1, clause2)
+                                    .get(clause.getId() - 1) : newClauses.get(clause.getId() - 3);
+                            assertEquals(expected, clause);
+                            checked.incrementAndGet();
+                        }
+                    } while (writing.get());
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        // a few clauses per append, each segment of 128 bytes holds at most four of them
+        for (int i = 0; i < newClauses.size(); i += 3) {
+            log.addClauses(newClauses.subList(i, Math.min(i + 3, newClauses.size())));
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join(10000);
+        }
+
+        assertEquals(List.of(), failures);
+        assertTrue(checked.get() > 0);
+        assertTrue(log.getSegmentCount() > 400);
+        assertEquals(newClauses, log.getClausesInRange(3, 2003));
+    }
+
+    @Test
+    public void testGetUnresolvedClauses_ClaimsEachClauseOnce() throws InterruptedException {
+        List<Clause> newClauses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            newClauses.add(ClauseParser.parseClause("U" + i + "(a)"));
+        }
+        log.addClauses(newClauses);
+
+        Set<Integer> claimed = new HashSet<>();
+        while (log.hasUnresolvedClauses()) {
+            for (Clause clause : log.getUnresolvedClauses(4)) {
+                assertTrue(claimed.add(clause.getId()), "Clause " + clause.getId() + " was claimed twice");
+            }
+        }
+        assertEquals(22, claimed.size());
+    }
+
+    @Test
+    public void testGetUnresolvedClauses_BlocksWhenNoWork() throws InterruptedException {
+        while (log.hasUnresolvedClauses()) {
+            log.getUnresolvedClauses(5);
+        }
+
+        List<Clause> received = Collections.synchronizedList(new ArrayList<>());
+        Thread t = new Thread(() -> {
+            try {
+                received.addAll(log.getUnresolvedClauses(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        t.start();
+        Thread.sleep(100);
+        assertTrue(t.isAlive(), "Thread should block while there is nothing to claim");
+
+        Clause newClause = ClauseParser.parseClause("C(z)");
+        log.addClause(newClause);
+
+        t.join(5000);
+        assertFalse(t.isAlive(), "Thread should have terminated after being unblocked");
+        assertEquals(Collections.singletonList(newClause), received);
+    }
+
+    @Test
+    public void testFlushResolvents() throws InterruptedException {
+        log.getUnresolvedClauses(5);
+        for (int i = 0; i < 10; i++) {
+            log.addClause(ClauseParser.parseClause("P(x) ∨ R" + i + "(z)"));
+        }
+        log.addClause(new Clause());
+        assertTrue(log.hasEmptyClause());
+        int segments = log.getSegmentCount();
+
+        log.flushResolvents();
+        assertEquals(2, log.countClauses());
+        assertFalse(log.hasEmptyClause());
+        assertTrue(log.getSegmentCount() < segments);
+
+        ArrayList<Clause> unresolved = new ArrayList<>();
+        while (log.hasUnresolvedClauses()) {
+            unresolved.addAll(log.getUnresolvedClauses(5));
+        }
+        assertEquals(2, unresolved.size());
+
+        // the dropped resolvents are no duplicates any more, and are written over the old ones
+        log.addClause(ClauseParser.parseClause("P(x) ∨ R0(z)"));
+        assertEquals(ClauseParser.parseClause("P(x) ∨ R0(z)"), log.getClauses(3, 1).getFirst());
+        assertEquals(Arrays.asList(clause1, clause2), log.getClauses(1, 2));
+    }
+
+    @Test
+    public void testSetResolved() throws InterruptedException {
+        log.setResolved(log.getClauses(1, 2));
+
+        log.addClause(ClauseParser.parseClause("A(x)"));
+        ArrayList<Clause> unresolved = new ArrayList<>();
+        while (log.hasUnresolvedClauses()) {
+            unresolved.addAll(log.getUnresolvedClauses(5));
+        }
+        assertEquals(Collections.singletonList(ClauseParser.parseClause("A(x)")), unresolved);
+    }
+
+    @Test
+    public void testProversOnClauseLog() throws InterruptedException {
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            clauses.add(ClauseParser.parseClause("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)"));
+        }
+        clauses.add(ClauseParser.parseClause("P1(a)"));
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(new ClauseLog(clauses, dir.resolve("multi")));
+        try {
+            assertTrue(resolver.prove(ClauseParser.parseClause("¬P10(a)")));
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(a)")));
+        } finally {
+            resolver.closeDatabase();
+        }
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(new ClauseLog(clauses, dir.resolve("single")));
+        try {
+            assertTrue(prover.prove(ClauseParser.parseClause("¬P10(a)"), ProverConfig.defaults()
+                    .withBackend(ProverConfig.Backend.RESOLUTION).withPreprocessing(Preprocessor.ALL)));
+            assertFalse(prover.prove(ClauseParser.parseClause("Q(a)"), ProverConfig.defaults()
+                    .withBackend(ProverConfig.Backend.RESOLUTION)));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+}
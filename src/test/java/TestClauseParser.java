@@ -1,4 +1,10 @@
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +41,46 @@ public class TestClauseParser {
         assertThrows(IllegalArgumentException.class, () -> ClauseParser.parseLiteral("¬P (x)"));
     }
 
+    @Test
+    public void testParseErrorReportsPosition() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ClauseParser.parseClause("P(x) ∨ Q(y"));
+        assertTrue(error.getMessage().contains("position 10"), error.getMessage());
+
+        error = assertThrows(IllegalArgumentException.class, () -> ClauseParser.parseClause("P(x)Q(y)"));
+        assertTrue(error.getMessage().contains("position 4"), error.getMessage());
+    }
+
+    @Test
+    public void testParseClauseRequiresSeparators() {
+        assertThrows(IllegalArgumentException.class, () -> ClauseParser.parseClause("P(x) Q(y)"));
+        assertThrows(IllegalArgumentException.class, () -> ClauseParser.parseClause("P(x) ∨ Q(y) R(z)"));
+        assertEquals(3, ClauseParser.parseClause(" P(x) ∨ Q(y) |R(z) ").size());
+        assertEquals(2, ClauseParser.parseClause("P(x) ,, ∨ Q(y) ∨").size());
+    }
+
+    @Test
+    public void testParseClauseInternsSymbolsPerLoad() {
+        List<Clause> clauses = ClauseParser.parseClauses(List.of("Human(socrates)", "¬Human(socrates)"));
+        Literal first = clauses.get(0).getLiterals().iterator().next();
+        Literal second = clauses.get(1).getLiterals().iterator().next();
+        assertSame(first.getPredicate(), second.getPredicate());
+        assertSame(first.getArgument(), second.getArgument());
+
+        // separate calls share no table, nothing stays interned after a load
+        Literal other = ClauseParser.parseClause("Human(plato)").getLiterals().iterator().next();
+        assertNotSame(first.getPredicate(), other.getPredicate());
+        SymbolTable symbols = new SymbolTable();
+        ClauseParser.parseClause("Human(plato) ∨ ¬Greek(plato)", symbols);
+        assertEquals(3, symbols.size());
+    }
+
+    @Test
+    public void testParseNilWithWhitespace() {
+        assertTrue(ClauseParser.parseClause(" nil ").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ClauseParser.parseClause("nil ∨ P(x)"));
+    }
+
     @Test
     public void testParseClauseSingleLiteral() {
         Clause expected = new Clause(Collections.singleton(new Literal("P", "x", true)));
@@ -129,4 +175,37 @@ public class TestClauseParser {
         List<Clause> actual = ClauseParser.parseClauses(clauseStrings);
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testParseFileKeepsOrderAcrossChunks(@TempDir Path dir) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# chain of implications");
+        for (int i = 1; i < 20; i++) {
+            lines.add("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)");
+        }
+        lines.add("");
+        lines.add("nil");
+        Path file = dir.resolve("chain.txt");
+        Files.write(file, lines);
+
+        List<Clause> parsed = new ArrayList<>();
+        long count = ClauseParser.parseFile(file, 3, 4, parsed::addAll);
+
+        assertEquals(20, count);
+        assertEquals(20, parsed.size());
+        for (int i = 1; i < 20; i++) {
+            assertEquals(ClauseParser.parseClause("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)"), parsed.get(i - 1));
+        }
+        assertTrue(parsed.get(19).isEmpty());
+    }
+
+    @Test
+    public void testParseFileReportsLineNumber(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("broken.txt");
+        Files.write(file, Arrays.asList("P(x)", "Q(y)", "R(z", "S(a)"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ClauseParser.parseFile(file, 2, 2, clauses -> { }));
+        assertTrue(error.getMessage().contains("line 3"), error.getMessage());
+    }
 }
@@ -5,6 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -13,6 +19,7 @@ import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class TestDatabase {
 
@@ -79,6 +86,59 @@ public class TestDatabase {
         assertThrows(IllegalArgumentException.class, () -> new Database(clauses, ""));
     }
 
+    @Test
+    public void testConstructor_FromFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("kb.txt");
+        Files.write(file, Arrays.asList("# starting set", "P(x) ∨ Q(y)", "¬Q(y) ∨ R(z)", "S(a)"));
+        database.close();
+
+        database = Database.fromFile(file, TEST_DB_PATH);
+        assertEquals(3, database.countClauses());
+        assertTrue(database.getClauses(1, 3).contains(ClauseParser.parseClause("S(a)")));
+
+        // the loaded clauses form the starting set and survive a flush
+        database.addClause(ClauseParser.parseClause("T(b)"));
+        database.flushResolvents();
+        assertEquals(3, database.countClauses());
+    }
+
+    @Test
+    public void testConstructor_FromFileWithoutClauses(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("empty.txt");
+        Files.write(file, Arrays.asList("# nothing here", ""));
+        assertThrows(IllegalArgumentException.class, () -> Database.fromFile(file, TEST_DB_PATH));
+        assertThrows(RuntimeException.class, () -> Database.fromFile(dir.resolve("missing.txt"), TEST_DB_PATH));
+    }
+
+    @Test
+    public void testConstructor_FromFileWithMalformedLine(@TempDir Path dir) throws Exception {
+        // the first chunk is inserted before the second one fails to parse
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < Constants.CLAUSE_FILE_CHUNK_SIZE; i++) {
+            lines.add("P" + i + "(a)");
+        }
+        lines.add("P(x) Q(y");
+        Path file = dir.resolve("kb.txt");
+        Files.write(file, lines);
+        database.close();
+
+        assertThrows(IllegalArgumentException.class, () -> Database.fromFile(file, TEST_DB_PATH));
+        try (Connection conn = DriverManager.getConnection(TEST_DB_PATH);
+             ResultSet rows = conn.createStatement().executeQuery("SELECT COUNT(*) FROM clauses")) {
+            assertTrue(rows.next());
+            assertEquals(0, rows.getInt(1));
+        }
+
+        List<String> shardPaths = List.of(TEST_DB_PATH);
+        assertThrows(IllegalArgumentException.class, () -> ShardedDatabase.fromFile(file, shardPaths));
+        try (Connection conn = DriverManager.getConnection(TEST_DB_PATH);
+             ResultSet rows = conn.createStatement().executeQuery("SELECT COUNT(*) FROM clauses")) {
+            assertTrue(rows.next());
+            assertEquals(0, rows.getInt(1));
+        }
+        database = new Database(List.of(clause1), TEST_DB_PATH);
+    }
+
     @Test
     public void testAddClause() {
         Clause newClause = ClauseParser.parseClause("S(a)");
@@ -90,6 +150,20 @@ public class TestDatabase {
         assertTrue(allClauses.stream().anyMatch(c -> c.equals(newClause)));
     }
 
+    @Test
+    public void testStatistics_CountInsertedRows() {
+        database.resetStatistics();
+        database.addClause(ClauseParser.parseClause("S(a)"));
+        database.addClause(ClauseParser.parseClause("S(a)")); // ignored
+        database.addClauses(Arrays.asList(ClauseParser.parseClause("T(a)"), clause1));
+
+        assertEquals(2, database.getClausesInserted());
+        assertEquals(0, database.getLockWaitNanos(), "a single thread never waits for the lock");
+
+        database.resetStatistics();
+        assertEquals(0, database.getClausesInserted());
+    }
+
     @Test
     public void testAddClause_Duplicate() {
         int initialCount = database.countClauses();
@@ -166,6 +240,19 @@ public class TestDatabase {
         assertTrue(clauses.isEmpty());
     }
 
+    @Test
+    public void testGetClausesInRange() {
+        Clause newClause = ClauseParser.parseClause("S(a)");
+        database.addClause(newClause);
+
+        ArrayList<Clause> clauses = database.getClausesInRange(2, 4);
+        assertEquals(Arrays.asList(clause2, newClause), clauses);
+        assertEquals(2, clauses.get(0).getId());
+
+        assertTrue(database.getClausesInRange(-300, 1).isEmpty());
+        assertEquals(3, database.getClausesInRange(-300, 100).size());
+    }
+
     @Test
     public void testGetUnresolvedClauses() throws InterruptedException {
         Clause clause3 = ClauseParser.parseClause("A(x)");
@@ -187,6 +274,18 @@ public class TestDatabase {
         assertTrue(unresolved2.contains(clause4));
     }
 
+    @Test
+    public void testDepth_SurvivesTheStore() throws InterruptedException {
+        Clause resolvent = ClauseParser.parseClause("A(x)");
+        resolvent.setDepth(3);
+        database.addClauses(List.of(resolvent));
+
+        assertEquals(3, database.getClausesInRange(3, 4).getFirst().getDepth());
+        assertEquals(3, database.getClauses(3, 1).getFirst().getDepth());
+        assertEquals(3, database.getUnresolvedClauses(3).getLast().getDepth());
+        assertEquals(0, database.getClausesInRange(1, 2).getFirst().getDepth());
+    }
+
     @Test
     public void testGetUnresolvedClauses_BlocksWhenNoWork() throws InterruptedException {
         // Initially there are 2 clauses. We retrieve them all
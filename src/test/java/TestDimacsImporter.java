@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDimacsImporter {
+
+    private Path resource(String name) throws URISyntaxException {
+        return Path.of(getClass().getResource("/dimacs/" + name).toURI());
+    }
+
+    @Test
+    public void testLoadUsesLastClauseAsGoal() throws Exception {
+        Problem problem = DimacsImporter.load(resource("php_3_2.cnf"));
+
+        assertEquals(9, problem.size());
+        assertEquals(ClauseParser.parseClause("V1(0T) ∨ V2(0T)"), problem.getClauses().getFirst());
+        assertEquals(ClauseParser.parseClause("¬V4(0T) ∨ ¬V6(0T)"), problem.getNegatedGoal());
+    }
+
+    @Test
+    public void testPigeonholeIsRefuted() throws Exception {
+        Problem problem = DimacsImporter.load(resource("php_3_2.cnf"));
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testSatisfiableProblemSaturates() throws Exception {
+        Problem problem = DimacsImporter.load(resource("satisfiable.cnf"));
+
+        // the clause spanning two lines is read as one, everything after % is ignored
+        assertEquals(4, problem.size());
+        assertEquals(ClauseParser.parseClause("V1(0T) ∨ ¬V2(0T) ∨ V3(0T)"), problem.getClauses().get(2));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertFalse(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testStreamDeliversChunks() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        assertEquals(9, DimacsImporter.stream(resource("php_3_2.cnf"), 4, chunk -> sizes.add(chunk.size())));
+        assertEquals(List.of(4, 4, 1), sizes);
+    }
+
+    @Test
+    public void testInvalidFilesAreRejected(@TempDir Path dir) throws IOException {
+        Path undeclared = dir.resolve("undeclared.cnf");
+        Files.writeString(undeclared, "p cnf 2 1\n1 3 0\n");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> DimacsImporter.load(undeclared));
+        assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+
+        Path unterminated = dir.resolve("unterminated.cnf");
+        Files.writeString(unterminated, "p cnf 2 2\n1 2 0\n-1 -2\n");
+        assertThrows(IllegalArgumentException.class, () -> DimacsImporter.load(unterminated));
+
+        Path count = dir.resolve("count.cnf");
+        Files.writeString(count, "p cnf 2 3\n1 2 0\n-1 -2 0\n");
+        assertThrows(IllegalArgumentException.class, () -> DimacsImporter.load(count));
+
+        Path garbage = dir.resolve("garbage.cnf");
+        Files.writeString(garbage, "p cnf 2 1\n1 x 0\n");
+        assertThrows(IllegalArgumentException.class, () -> DimacsImporter.load(garbage));
+    }
+}
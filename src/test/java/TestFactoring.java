@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFactoring {
+
+    @Test
+    public void testCondense_DropsLiteralsThatAreInstances() {
+        assertEquals(1, Factoring.condense(ClauseParser.parseClause("P(x) ∨ P(y)")).size());
+        assertEquals(ClauseParser.parseClause("P(y) ∨ ¬Q(y)"),
+                Factoring.condense(ClauseParser.parseClause("P(x) ∨ P(y) ∨ ¬Q(y)")));
+
+        // Q(x) has no counterpart for y and R(y) none for x, ground clauses never change
+        Clause notCondensable = ClauseParser.parseClause("P(x) ∨ P(y) ∨ Q(x) ∨ R(y)");
+        assertSame(notCondensable, Factoring.condense(notCondensable));
+        Clause ground = ClauseParser.parseClause("P(A) ∨ P(B)");
+        assertSame(ground, Factoring.condense(ground));
+
+        Clause deep = ClauseParser.parseClause("P(x) ∨ P(A)");
+        deep.setDepth(4);
+        Clause condensed = Factoring.condense(deep);
+        assertEquals(ClauseParser.parseClause("P(A)"), condensed);
+        assertEquals(4, condensed.getDepth());
+    }
+
+    @Test
+    public void testSimplify_AddsFactorsNextToTheClause() {
+        Clause clause = ClauseParser.parseClause("P(x) ∨ P(y) ∨ Q(x) ∨ R(y)");
+        List<Clause> simplified = Factoring.simplify(clause);
+        assertEquals(2, simplified.size());
+        assertSame(clause, simplified.getFirst());
+        assertEquals(3, simplified.get(1).size());
+        // x and y are unified
+        assertEquals(1, simplified.get(1).getLiterals().stream().map(Literal::getArgument).distinct().count());
+
+        // the literals with different signs or unrelated constants have no factor
+        assertEquals(List.of(ClauseParser.parseClause("P(A) ∨ P(B) ∨ ¬P(x)")),
+                Factoring.simplify(ClauseParser.parseClause("P(A) ∨ P(B) ∨ ¬P(x)")));
+    }
+
+    @Test
+    public void testResolve_ReturnsCondensedResolvents() {
+        List<Clause> resolvents = ResolutionTheoremProver.resolve(ClauseParser.parseClause("¬Q(z) ∨ P(x) ∨ P(y)"),
+                ClauseParser.parseClause("Q(A)"));
+        assertEquals(1, resolvents.size());
+        assertEquals(1, resolvents.getFirst().size());
+        assertEquals(1, resolvents.getFirst().getDepth());
+    }
+
+    @Test
+    public void testProve_CondensedResolventsKeepTheStoreSmall() throws InterruptedException {
+        List<Clause> clauses = new ArrayList<>();
+        for (String clause : List.of("Q(A)", "R(A)", "S(B)", "¬Q(z) ∨ P(x) ∨ P(y)", "¬S(z) ∨ P(x) ∨ P(y) ∨ T(x)",
+                "¬T(x) ∨ ¬P(y) ∨ U(y)")) {
+            clauses.add(ClauseParser.parseClause(clause));
+        }
+        Database database = new Database(clauses);
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(database);
+        try {
+            assertTrue(prover.prove(ClauseParser.parseClause("¬R(z) ∨ ¬P(x) ∨ ¬P(y)"),
+                    ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION)));
+            // without condensation the store held thousands of resolvents before the proof
+            assertTrue(database.countClauses() < 100);
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGroundResolver {
+
+    @Test
+    public void testEncodeDecode_RoundTrips() {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(A) ∨ ¬Q(B)"));
+        clauses.add(ClauseParser.parseClause("¬P(A) ∨ R(C)"));
+        // more than 64 atoms, so clauses span several words
+        for (int i = 0; i < 70; i++) {
+            clauses.add(ClauseParser.parseClause("S" + i + "(A) ∨ ¬S" + (i + 1) + "(A)"));
+        }
+
+        GroundResolver resolver = new GroundResolver(clauses);
+        assertEquals(74, resolver.getAtomCount());
+        for (Clause clause : clauses) {
+            assertEquals(clause, resolver.decode(resolver.encode(clause)));
+        }
+    }
+
+    @Test
+    public void testSaturation_MatchesBinaryResolution() throws InterruptedException {
+        // a satisfiable clause set saturates, the kept clauses are the closure under resolve without tautologies
+        Problem problem = new ProblemGenerator(7).randomKCnf(6, 1.5, 3);
+        List<Clause> clauses = new ArrayList<>(problem.getClauses());
+        clauses.add(problem.getNegatedGoal());
+
+        GroundResolver resolver = new GroundResolver(clauses);
+        assertFalse(resolver.prove());
+        assertEquals(closure(clauses), new HashSet<>(resolver.getClauses()));
+        int kept = resolver.getClauses().size();
+        assertEquals((long) kept * (kept + 1) / 2, resolver.getPairsExamined());
+    }
+
+    @Test
+    public void testProve_RefutesUnsatisfiableSets() throws InterruptedException {
+        Problem problem = new ProblemGenerator(1).pigeonhole(3, 2);
+        List<Clause> clauses = new ArrayList<>(problem.getClauses());
+        clauses.add(problem.getNegatedGoal());
+        assertTrue(new GroundResolver(clauses).prove());
+
+        List<Clause> withEmpty = new ArrayList<>();
+        withEmpty.add(ClauseParser.parseClause("P(A)"));
+        withEmpty.add(new Clause());
+        assertTrue(new GroundResolver(withEmpty).prove());
+    }
+
+    @Test
+    public void testProvers_AgreeWithResolutionBackend() throws InterruptedException {
+        // small random 2-CNF, one of the three seeds is unsatisfiable
+        ProverConfig resolution = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION);
+        for (long seed = 0; seed < 3; seed++) {
+            Problem problem = new ProblemGenerator(seed).randomKCnf(4, 2.0, 2);
+
+            ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+            try {
+                boolean expected = prover.prove(problem.getNegatedGoal(), resolution);
+                assertEquals(expected, prover.prove(problem.getNegatedGoal()), problem.getName());
+            } finally {
+                prover.closeDatabase();
+            }
+
+            MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+            try {
+                boolean expected = resolver.prove(problem.getNegatedGoal(), resolution.withWorkerCount(2));
+                assertEquals(expected, resolver.prove(problem.getNegatedGoal()), problem.getName());
+            } finally {
+                resolver.closeDatabase();
+            }
+        }
+    }
+
+    @Test
+    public void testBackendSelector() {
+        List<Clause> ground = new ArrayList<>();
+        ground.add(ClauseParser.parseClause("P(A)"));
+        ground.add(ClauseParser.parseClause("P(B) ∨ Q(B)"));
+        Database database = new Database(ground);
+        try {
+            BackendSelector.Selection selection = BackendSelector.select(database, ProverConfig.Backend.AUTO);
+            assertEquals(ProverConfig.Backend.CDCL, selection.backend());
+            assertEquals(2, selection.clauses().size());
+            assertEquals(ProverConfig.Backend.GROUND,
+                    BackendSelector.select(database, ProverConfig.Backend.GROUND).backend());
+            assertNull(BackendSelector.select(database, ProverConfig.Backend.RESOLUTION).clauses());
+
+            database.addClause(ClauseParser.parseClause("Q(x) ∨ R(x)"));
+            assertEquals(ProverConfig.Backend.RESOLUTION,
+                    BackendSelector.select(database, ProverConfig.Backend.AUTO).backend());
+            assertThrows(IllegalArgumentException.class,
+                    () -> BackendSelector.select(database, ProverConfig.Backend.GROUND));
+        } finally {
+            database.close();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new GroundResolver(List.of(ClauseParser.parseClause("P(x)"))));
+    }
+
+    private static Set<Clause> closure(List<Clause> clauses) {
+        List<Clause> kept = new ArrayList<>(new HashSet<>(clauses));
+        Set<Clause> seen = new HashSet<>(kept);
+        for (int given = 0; given < kept.size(); given++) {
+            for (int other = 0; other <= given; other++) {
+                for (Clause resolvent : ResolutionTheoremProver.resolve(kept.get(given), kept.get(other))) {
+                    if (!isTautology(resolvent) && seen.add(resolvent)) {
+                        kept.add(resolvent);
+                    }
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static boolean isTautology(Clause clause) {
+        for (Literal literal : clause.getLiterals()) {
+            if (clause.contains(literal.negate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHornProver {
+
+    @Test
+    public void testProve_GroundForwardChaining() throws InterruptedException {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(A)"));
+        clauses.add(ClauseParser.parseClause("¬P(A) ∨ Q(A)"));
+        clauses.add(ClauseParser.parseClause("¬P(A) ∨ ¬Q(A) ∨ R(A)"));
+        clauses.add(ClauseParser.parseClause("¬S(A) ∨ R(A)"));
+
+        List<Clause> provable = new ArrayList<>(clauses);
+        provable.add(ClauseParser.parseClause("¬R(A)"));
+        HornProver prover = new HornProver(provable);
+        assertTrue(prover.isGround());
+        assertTrue(prover.prove());
+
+        List<Clause> unprovable = new ArrayList<>(clauses);
+        unprovable.add(ClauseParser.parseClause("¬S(A)"));
+        prover = new HornProver(unprovable);
+        assertFalse(prover.prove());
+        assertEquals(3, prover.getDerivedAtoms());
+    }
+
+    @Test
+    public void testProve_AgreesWithCdclOnGroundHornSets() throws InterruptedException {
+        Random random = new Random(5);
+        int proved = 0;
+        for (int round = 0; round < 200; round++) {
+            List<Clause> clauses = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                Clause clause = new Clause();
+                int body = random.nextInt(3);
+                for (int j = 0; j < body; j++) {
+                    clause.addLiteral(new Literal("V" + random.nextInt(8), "A", false));
+                }
+                if (random.nextInt(4) != 0) {
+                    clause.addLiteral(new Literal("V" + random.nextInt(8), "A", true));
+                }
+                if (!clause.isEmpty()) {
+                    clauses.add(clause);
+                }
+            }
+
+            boolean expected = !new CdclSolver(clauses).solve();
+            assertEquals(expected, new HornProver(clauses).prove(), clauses.toString());
+            proved += expected ? 1 : 0;
+        }
+        assertTrue(proved > 0 && proved < 200);
+    }
+
+    @Test
+    public void testProve_GoalDirectedWithVariables() throws InterruptedException {
+        // the benchmark chain has no constants, P1(x) holds for everything
+        Benchmark.Example chain = new Benchmark().nSizedExample(125);
+        List<Clause> clauses = new ArrayList<>(chain.clauses);
+        clauses.add(chain.negation);
+        HornProver prover = new HornProver(clauses);
+        assertFalse(prover.isGround());
+        assertTrue(prover.prove());
+        // one instance per clause of the chain and one for the goal
+        assertEquals(126, prover.getRuleInstances());
+
+        // y only occurs in the body, so Q and R must hold for the same constant
+        List<Clause> shared = new ArrayList<>();
+        shared.add(ClauseParser.parseClause("¬Q(y) ∨ ¬R(y) ∨ P(x)"));
+        shared.add(ClauseParser.parseClause("Q(A)"));
+        shared.add(ClauseParser.parseClause("R(B)"));
+        shared.add(ClauseParser.parseClause("¬P(C)"));
+        assertFalse(new HornProver(shared).prove());
+        shared.add(ClauseParser.parseClause("R(A)"));
+        assertTrue(new HornProver(shared).prove());
+
+        // a goal with a variable asks whether any instance holds, rules for other goals are never instantiated
+        List<Clause> existential = new ArrayList<>();
+        existential.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+        existential.add(ClauseParser.parseClause("Man(Socrates)"));
+        existential.add(ClauseParser.parseClause("¬Q(x) ∨ ¬Q(y) ∨ ¬Q(z) ∨ Unrelated(x)"));
+        existential.add(ClauseParser.parseClause("¬Mortal(w)"));
+        prover = new HornProver(existential);
+        assertTrue(prover.prove());
+        assertTrue(prover.getRuleInstances() <= 4);
+    }
+
+    @Test
+    public void testProvers_AgreeWithResolutionBackend() throws InterruptedException {
+        ProverConfig resolution = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION);
+        List<Problem> problems = new ArrayList<>();
+        problems.add(new ProblemGenerator(2).randomHorn(8, 12, 2));
+        problems.add(new ProblemGenerator(3).distractorKb(6, 1.0));
+        Problem distractor = new ProblemGenerator(4).distractorKb(6, 1.0);
+        problems.add(new Problem("unprovable", distractor.getClauses(), ClauseParser.parseClause("¬Q99(C)")));
+
+        for (Problem problem : problems) {
+            ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+            try {
+                boolean expected = prover.prove(problem.getNegatedGoal(), resolution);
+                assertEquals(expected, prover.prove(problem.getNegatedGoal()), problem.getName());
+            } finally {
+                prover.closeDatabase();
+            }
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(problems.get(1).getClauses());
+        try {
+            assertTrue(resolver.prove(problems.get(1).getNegatedGoal()));
+            assertEquals(0, resolver.getPairsExamined());
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testBackendSelector_PicksHorn() {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+        Database database = new Database(clauses);
+        try {
+            assertEquals(ProverConfig.Backend.HORN,
+                    BackendSelector.select(database, ProverConfig.Backend.AUTO).backend());
+
+            // two positive literals: neither Horn nor ground
+            database.addClause(ClauseParser.parseClause("Sleepy(x) ∨ Studies(x)"));
+            assertEquals(ProverConfig.Backend.RESOLUTION,
+                    BackendSelector.select(database, ProverConfig.Backend.AUTO).backend());
+            assertThrows(IllegalArgumentException.class,
+                    () -> BackendSelector.select(database, ProverConfig.Backend.HORN));
+        } finally {
+            database.close();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new HornProver(List.of(ClauseParser.parseClause("P(A) ∨ Q(A)"))));
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHyperResolver {
+
+    private static final ProverConfig BINARY = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION);
+
+    @Test
+    public void testResolve_HyperresolutionSkipsIntermediateClauses() {
+        List<Clause> clauses = clauses("¬P(x) ∨ ¬Q(x) ∨ R(x)", "P(A)", "Q(A) ∨ S(A)", "¬S(B)");
+        HyperResolver hyper = new HyperResolver(ProverConfig.Inference.HYPER, clauses);
+        hyper.collect(clauses);
+
+        // ¬Q(A) ∨ R(A) is only an intermediate step, and ¬S(B) is a nucleus without a positive satellite
+        assertEquals(List.of(ClauseParser.parseClause("R(A) ∨ S(A)")), hyper.resolve());
+        assertTrue(hyper.isNucleus(clauses.get(3)));
+        assertFalse(hyper.isSatellite(clauses.get(3)));
+    }
+
+    @Test
+    public void testResolve_UnitResultingLeavesOneLiteral() {
+        List<Clause> clauses = clauses("¬P(x) ∨ ¬Q(x) ∨ R(x)", "P(A)", "¬R(A)");
+        HyperResolver ur = new HyperResolver(ProverConfig.Inference.UR, clauses);
+        ur.collect(clauses);
+        assertEquals(List.of(ClauseParser.parseClause("¬Q(A)")), ur.resolve());
+
+        // only the newest clause is unresolved, the inferences without it were made with the older batches
+        List<Clause> newest = clauses("¬P(x) ∨ ¬Q(x) ∨ R(x)", "P(A)", "¬R(A)", "Q(A)").subList(3, 4);
+        ur = new HyperResolver(ProverConfig.Inference.UR, newest);
+        ur.collect(clauses("¬P(x) ∨ ¬Q(x) ∨ R(x)", "P(A)", "¬R(A)", "Q(A)"));
+        assertEquals(List.of(new Clause()), ur.resolve());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new HyperResolver(ProverConfig.Inference.BINARY, clauses));
+    }
+
+    @Test
+    public void testCollect_KeepsOnlyTheSatellitesANucleusNeeds() {
+        List<Clause> clauses = clauses("S(A)", "¬P(x) ∨ ¬Q(x) ∨ R(x)", "Q(A)", "P(A)");
+        HyperResolver hyper = new HyperResolver(ProverConfig.Inference.HYPER, clauses.subList(3, 4));
+
+        // the windows come newest first, Q(A) is skipped before the nucleus that needs it is read
+        hyper.collect(clauses.subList(2, 4));
+        hyper.collect(clauses.subList(0, 2));
+        assertEquals(1, hyper.getSatelliteCount());
+        assertTrue(hyper.rescan());
+        hyper.collect(clauses.subList(2, 4));
+        hyper.collect(clauses.subList(0, 2));
+        assertFalse(hyper.rescan());
+
+        // S(A) is never kept, no nucleus resolves with it
+        assertEquals(2, hyper.getSatelliteCount());
+        assertEquals(List.of(ClauseParser.parseClause("R(A)")), hyper.resolve());
+    }
+
+    @Test
+    public void testProvers_AgreeWithBinaryResolution() throws InterruptedException {
+        List<Problem> problems = new ArrayList<>();
+        Benchmark.Example chain = new Benchmark().nSizedExample(20);
+        problems.add(new Problem("chain", chain.clauses, chain.negation));
+        problems.add(new ProblemGenerator(3).distractorKb(8, 1.0));
+        problems.add(new ProblemGenerator(2).randomHorn(8, 12, 2));
+        for (long seed = 0; seed < 3; seed++) {
+            problems.add(new ProblemGenerator(seed).randomKCnf(4, 2.0, 2));
+        }
+
+        for (Problem problem : problems) {
+            Database database = new Database(problem.getClauses());
+            ResolutionTheoremProver prover = new ResolutionTheoremProver(database);
+            MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+            try {
+                boolean expected = prover.prove(problem.getNegatedGoal(), BINARY);
+                int binaryStored = database.countClauses();
+                ProverConfig hyper = BINARY.withInference(ProverConfig.Inference.HYPER);
+                assertEquals(expected, prover.prove(problem.getNegatedGoal(), hyper), problem.getName());
+                assertTrue(database.countClauses() <= binaryStored, problem.getName());
+                assertEquals(expected, resolver.prove(problem.getNegatedGoal(), hyper.withWorkerCount(2)),
+                        problem.getName());
+            } finally {
+                prover.closeDatabase();
+                resolver.closeDatabase();
+            }
+        }
+    }
+
+    @Test
+    public void testProve_UnitResultingIsIncompleteWithoutUnits() throws InterruptedException {
+        // every combination of P(A) and Q(A) is ruled out, but no clause is a unit
+        List<Clause> clauses = List.of(ClauseParser.parseClause("P(A) ∨ Q(A)"),
+                ClauseParser.parseClause("¬P(A) ∨ Q(A)"), ClauseParser.parseClause("P(A) ∨ ¬Q(A)"));
+        Clause negated = ClauseParser.parseClause("¬P(A) ∨ ¬Q(A)");
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
+        try {
+            assertTrue(prover.prove(negated, BINARY.withInference(ProverConfig.Inference.HYPER)));
+            assertFalse(prover.prove(negated, BINARY.withInference(ProverConfig.Inference.UR)));
+            assertEquals(0, prover.getPairsExamined());
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    private static List<Clause> clauses(String... clauses) {
+        List<Clause> parsed = new ArrayList<>();
+        for (String clause : clauses) {
+            Clause next = ClauseParser.parseClause(clause);
+            next.setId(parsed.size() + 1);
+            parsed.add(next);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIterativeDeepening {
+
+    @Test
+    public void testClauseLimits_AdmitsAndRaises() {
+        Clause clause = ClauseParser.parseClause("P(x) ∨ Q(x) ∨ ¬R(x)");
+        clause.setDepth(3);
+        assertTrue(ClauseLimits.NONE.admits(clause));
+        assertFalse(ClauseLimits.NONE.isBounded());
+        assertTrue(new ClauseLimits(3, 3).admits(clause));
+        assertFalse(new ClauseLimits(2, 0).admits(clause));
+        assertFalse(new ClauseLimits(0, 2).admits(clause));
+
+        assertEquals(new ClauseLimits(4, 0), new ClauseLimits(2, 0).raised());
+        assertEquals("literals<=2 depth<=4", new ClauseLimits(2, 4).toString());
+        assertEquals("unbounded", ClauseLimits.NONE.raised().toString());
+        assertThrows(IllegalArgumentException.class, () -> new ClauseLimits(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> clause.setDepth(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepening(0));
+    }
+
+    @Test
+    public void testResolve_DepthIsOneMoreThanTheDeepestParent() {
+        Clause clause1 = ClauseParser.parseClause("¬P(x) ∨ Q(x)");
+        Clause clause2 = ClauseParser.parseClause("P(A)");
+        clause2.setDepth(2);
+        List<Clause> resolvents = ResolutionTheoremProver.resolve(clause1, clause2);
+        assertEquals(1, resolvents.size());
+        assertEquals(3, resolvents.getFirst().getDepth());
+    }
+
+    @Test
+    public void testProve_LiteralLimitMakesTheSearchIncomplete() throws InterruptedException {
+        Problem problem = new ProblemGenerator(3).randomKCnf(5, 4.0, 3);
+        ProverConfig config = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION)
+                .withLimits(new ClauseLimits(2, 0));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertFalse(prover.prove(problem.getNegatedGoal(), config));
+            assertFalse(prover.isComplete());
+            assertTrue(prover.getResolventsOverLimit() > 0);
+        } finally {
+            prover.closeDatabase();
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+        try {
+            assertFalse(resolver.prove(problem.getNegatedGoal(), config.withWorkerCount(2)));
+            assertFalse(resolver.isComplete());
+            assertTrue(resolver.metricsSnapshot().resolventsOverLimit() > 0);
+            assertEquals(resolver.getResolventsOverLimit(), resolver.metricsSnapshot().resolventsOverLimit());
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testProve_DeepeningRaisesTheLimitsUntilAProof() throws InterruptedException {
+        Benchmark.Example chain = new Benchmark().nSizedExample(30);
+        ProverConfig config = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION)
+                .withLimits(new ClauseLimits(0, 1));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(chain.clauses);
+        try {
+            IterativeDeepening.Result result = new IterativeDeepening(5).prove(prover, chain.negation, config);
+            assertTrue(result.proved());
+            assertTrue(result.complete());
+            assertTrue(result.rounds() > 1);
+            assertEquals(new ClauseLimits(0, 1 << (result.rounds() - 1)), result.limits());
+        } finally {
+            prover.closeDatabase();
+        }
+
+        // one round that is not enough leaves the answer open
+        prover = new ResolutionTheoremProver(chain.clauses);
+        try {
+            IterativeDeepening.Result result = new IterativeDeepening(1).prove(prover, chain.negation, config);
+            assertFalse(result.proved());
+            assertFalse(result.complete());
+            assertEquals(1, result.rounds());
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+}
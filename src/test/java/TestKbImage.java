@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestKbImage {
+
+    private static List<Clause> parse(String... clauses) {
+        List<Clause> parsed = new ArrayList<>();
+        for (String clause : clauses) {
+            parsed.add(ClauseParser.parseClause(clause));
+        }
+        return parsed;
+    }
+
+    @Test
+    public void testCompile_RoundTripsTheClauses(@TempDir Path dir) throws IOException {
+        List<Clause> clauses = parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)", "Greek(Zeno) ∨ ¬Man(y)",
+                "P(A) ∨ ¬P(A)");
+        KbImage compiled = KbImage.compile(clauses, Preprocessor.NONE, dir.resolve("kb.img"));
+        KbImage image = KbImage.open(dir.resolve("kb.img"));
+
+        assertEquals(4, image.size());
+        assertEquals(clauses, image.clauses());
+        assertEquals(clauses.get(2), image.clause(2));
+        assertEquals(compiled.getFingerprint(), image.getFingerprint());
+        assertThrows(IndexOutOfBoundsException.class, () -> image.clause(4));
+
+        // the fingerprint does not depend on the order of the clauses
+        List<Clause> reversed = new ArrayList<>(clauses.reversed());
+        assertEquals(image.getFingerprint(),
+                KbImage.compile(reversed, Preprocessor.NONE, dir.resolve("reversed.img")).getFingerprint());
+        assertNotEquals(image.getFingerprint(),
+                KbImage.compile(clauses.subList(0, 3), Preprocessor.NONE, dir.resolve("less.img")).getFingerprint());
+    }
+
+    @Test
+    public void testFingerprint_MatchesTheClauses(@TempDir Path dir) throws IOException {
+        List<Clause> clauses = parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)", "¬Man(y) ∨ ¬Mortal(y)");
+        KbImage image = KbImage.compile(clauses, Preprocessor.NONE, dir.resolve("kb.img"));
+
+        for (int i = 0; i < clauses.size(); i++) {
+            assertEquals(clauses.get(i).fingerprint(), image.fingerprint(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> image.fingerprint(3));
+    }
+
+    @Test
+    public void testCompile_RecordsPreprocessing(@TempDir Path dir) throws IOException {
+        List<Clause> clauses = parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)", "¬Man(x) ∨ Mortal(x)",
+                "Greek(x) ∨ ¬Greek(x)", "¬Man(y) ∨ Mortal(y) ∨ Wise(y)");
+        EnumSet<Preprocessor.Stage> stages = EnumSet.of(Preprocessor.Stage.DUPLICATES,
+                Preprocessor.Stage.TAUTOLOGIES, Preprocessor.Stage.SUBSUMPTION);
+        KbImage.compile(clauses, stages, dir.resolve("kb.img"));
+        KbImage image = KbImage.open(dir.resolve("kb.img"));
+
+        assertEquals(parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)"), image.clauses());
+        assertEquals(5, image.getLoadedCount());
+        assertEquals(stages, image.getStages());
+        assertEquals(1, image.removed(Preprocessor.Stage.DUPLICATES));
+        assertEquals(1, image.removed(Preprocessor.Stage.TAUTOLOGIES));
+        assertEquals(1, image.removed(Preprocessor.Stage.SUBSUMPTION));
+        assertEquals(0, image.removed(Preprocessor.Stage.UNIT_PROPAGATION));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> KbImage.compile(clauses, Preprocessor.ALL, dir.resolve("pure.img")));
+    }
+
+    @Test
+    public void testOpen_RejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("clauses.txt");
+        Files.writeString(file, "Man(Socrates)\n¬Man(x) ∨ Mortal(x)\n".repeat(20));
+        assertThrows(IOException.class, () -> KbImage.open(file));
+        Files.write(file, new byte[0]);
+        assertThrows(IOException.class, () -> KbImage.open(file));
+    }
+
+    @Test
+    public void testFromImage_ReusesTheLoadedStore(@TempDir Path dir) throws IOException, InterruptedException {
+        Problem problem = new ProblemGenerator(5).distractorKb(10, 1.0);
+        KbImage image = KbImage.compile(problem.getClauses(), EnumSet.of(Preprocessor.Stage.DUPLICATES),
+                dir.resolve("kb.img"));
+        String dbPath = "jdbc:sqlite:" + dir.resolve("kb.sqlite3");
+
+        Database database = Database.fromImage(image, dbPath);
+        assertEquals(image.size(), database.getClausesInserted());
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(database);
+        assertTrue(prover.prove(problem.getNegatedGoal(), ProverConfig.defaults()));
+        prover.closeDatabase();
+
+        // the same image: the resolvents of the last run are dropped and nothing is loaded
+        database = Database.fromImage(KbImage.open(dir.resolve("kb.img")), dbPath);
+        assertEquals(0, database.getClausesInserted());
+        assertEquals(image.size(), database.countClauses());
+        prover = new ResolutionTheoremProver(database);
+        assertTrue(prover.prove(problem.getNegatedGoal(), ProverConfig.defaults()));
+        prover.closeDatabase();
+
+        // another image is loaded in place of the old one
+        KbImage other = KbImage.compile(problem.getClauses().subList(0, 5), Preprocessor.NONE,
+                dir.resolve("other.img"));
+        database = Database.fromImage(other, dbPath);
+        assertEquals(5, database.getClausesInserted());
+        assertEquals(5, database.countClauses());
+        database.close();
+    }
+}
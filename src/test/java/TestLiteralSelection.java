@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLiteralSelection {
+
+    @Test
+    public void testEligible_FollowsPrecedence() {
+        Clause clause = ClauseParser.parseClause("¬Man(x) ∨ ¬Greek(x) ∨ Mortal(x) ∨ Mortal(Zeus)");
+
+        LiteralSelection maximal = new LiteralSelection(LiteralSelection.Kind.MAXIMAL, List.of("Mortal", "Man"));
+        assertEquals(new HashSet<>(List.of(new Literal("Mortal", "x", true), new Literal("Mortal", "Zeus", true))),
+                new HashSet<>(maximal.eligible(clause)));
+        // Greek is not listed, so it is below both listed predicates
+        assertEquals(List.of(new Literal("Man", "x", false)),
+                new LiteralSelection(LiteralSelection.Kind.NEGATIVE, List.of("Mortal", "Man")).eligible(clause));
+        assertEquals(List.of(new Literal("Man", "x", false)),
+                new LiteralSelection(LiteralSelection.Kind.NEGATIVE, List.of()).eligible(clause));
+        assertEquals(List.of(new Literal("Greek", "x", false)),
+                new LiteralSelection(LiteralSelection.Kind.NEGATIVE, List.of("Greek")).eligible(clause));
+
+        // without a negative literal NEGATIVE falls back to the maximal literals
+        Clause positive = ClauseParser.parseClause("P(A) ∨ Q(A)");
+        assertEquals(List.of(new Literal("Q", "A", true)),
+                LiteralSelection.parse("negative", "").eligible(positive));
+        assertEquals(4, LiteralSelection.ALL.eligible(clause).size());
+    }
+
+    @Test
+    public void testParse_RejectsInvalidValues() {
+        assertEquals("maximal(Q > P)", LiteralSelection.parse(" Maximal ", "Q, P").toString());
+        assertThrows(IllegalArgumentException.class, () -> LiteralSelection.parse("smallest", null));
+        assertThrows(IllegalArgumentException.class, () -> LiteralSelection.parse("maximal", "P,Q,P"));
+        assertThrows(IllegalArgumentException.class, () -> LiteralSelection.parse("maximal", "P,,Q"));
+    }
+
+    @Test
+    public void testParse_ReturnsAllForPlainResolution() throws InterruptedException {
+        assertSame(LiteralSelection.ALL, LiteralSelection.parse("all", null));
+        assertSame(LiteralSelection.ALL, LiteralSelection.parse(" ALL ", "Q,P"));
+        ProverConfig config = ProverConfig.fromProperties(new Properties());
+        assertSame(LiteralSelection.ALL, config.getSelection());
+        assertFalse(config.toString().contains("selection"), config.toString());
+
+        // any selection of the ALL kind takes the plain resolve(clause1, clause2) path and selects nothing
+        LiteralSelection all = new LiteralSelection(LiteralSelection.Kind.ALL, List.of()) {
+            @Override
+            public List<Literal> eligible(Clause clause) {
+                throw new AssertionError("plain resolution selected the literals of " + clause);
+            }
+        };
+        Benchmark.Example chain = new Benchmark().nSizedExample(10);
+        ProverConfig plain = config.withBackend(ProverConfig.Backend.RESOLUTION).withSelection(all);
+        MultiThreadedResolver resolver = new MultiThreadedResolver(chain.clauses);
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(chain.clauses);
+        try {
+            assertTrue(resolver.prove(chain.negation, plain.withWorkerCount(2)));
+            assertTrue(prover.prove(chain.negation, plain));
+        } finally {
+            resolver.closeDatabase();
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testEligibleLiterals_KeepsTheBatchAndOneWindow() {
+        List<Integer> selected = new ArrayList<>();
+        LiteralSelection selection = new LiteralSelection(LiteralSelection.Kind.MAXIMAL, List.of()) {
+            @Override
+            public List<Literal> eligible(Clause clause) {
+                selected.add(clause.getId());
+                return super.eligible(clause);
+            }
+        };
+        Clause unresolved = ClauseParser.parseClause("¬P(x) ∨ Q(x)");
+        unresolved.setId(7);
+        EligibleLiterals eligible = new EligibleLiterals(selection, List.of(unresolved));
+        for (int window = 0; window < 2; window++) {
+            eligible.nextWindow();
+            // the store hands out a fresh copy with every window
+            for (int copy = 0; copy < 3; copy++) {
+                Clause batchClause = ClauseParser.parseClause("¬P(x) ∨ Q(x)");
+                batchClause.setId(7);
+                assertEquals(List.of(new Literal("Q", "x", true)), eligible.get(batchClause));
+                Clause windowClause = ClauseParser.parseClause("R(a) ∨ ¬S(a)");
+                windowClause.setId(3);
+                assertEquals(List.of(new Literal("S", "a", false)), eligible.get(windowClause));
+            }
+            assertEquals(2, eligible.size());
+        }
+        eligible.nextWindow();
+        assertEquals(1, eligible.size());
+        // the batch clause once, the window clause once per window
+        assertEquals(List.of(7, 3, 3), selected);
+    }
+
+    @Test
+    public void testProvers_AgreeWithUnrestrictedResolution() throws InterruptedException {
+        ProverConfig all = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION);
+        List<Problem> problems = new ArrayList<>();
+        Benchmark.Example chain = new Benchmark().nSizedExample(20);
+        problems.add(new Problem("chain", chain.clauses, chain.negation));
+        problems.add(new ProblemGenerator(3).distractorKb(8, 1.0));
+        for (long seed = 0; seed < 4; seed++) {
+            problems.add(new ProblemGenerator(seed).randomKCnf(4, 2.0, 2));
+        }
+        problems.add(new ProblemGenerator(1).randomKCnf(4, 4.0, 3));
+
+        for (Problem problem : problems) {
+            ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+            MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+            try {
+                boolean expected = prover.prove(problem.getNegatedGoal(), all);
+                long pairs = prover.getPairsExamined();
+                for (String kind : List.of("maximal", "negative")) {
+                    ProverConfig ordered = all.withSelection(LiteralSelection.parse(kind, null));
+                    assertEquals(expected, prover.prove(problem.getNegatedGoal(), ordered), problem.getName());
+                    assertTrue(prover.getPairsExamined() <= pairs, problem.getName());
+                    assertEquals(expected, resolver.prove(problem.getNegatedGoal(), ordered.withWorkerCount(2)),
+                            problem.getName());
+                }
+            } finally {
+                prover.closeDatabase();
+                resolver.closeDatabase();
+            }
+        }
+    }
+}
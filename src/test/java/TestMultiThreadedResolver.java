@@ -1,7 +1,12 @@
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -11,6 +16,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class TestMultiThreadedResolver {
 
+    // these tests look at the workers, which only run for the store search
+    private static final ProverConfig RESOLUTION = ProverConfig.defaults()
+            .withBackend(ProverConfig.Backend.RESOLUTION);
+
+    // the correctness cases run on AUTO, which takes these Horn sets to HornProver, and on the store search
+
     private static final String DB_FILE = "test.sqlite3";
     private static final String DB_WAL_FILE = DB_FILE + "-wal";
     private static final String DB_SHM_FILE = DB_FILE + "-shm";
@@ -36,8 +47,9 @@ public class TestMultiThreadedResolver {
         }
     }
 
-    @Test
-    public void testProve_ReturnsTrue_WhenContradictionExists() {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProve_ReturnsTrue_WhenContradictionExists(ProverConfig.Backend backend) {
         // Given a set of clauses with a simple contradiction
         // Man(Socrates)
         Clause clause1 = ClauseParser.parseClause("Man(Socrates)");
@@ -49,15 +61,16 @@ public class TestMultiThreadedResolver {
             Clause negatedConclusion = ClauseParser.parseClause("¬Man(Socrates)");
 
             // Then the proof should succeed by finding an empty clause
-            boolean result = resolver.prove(negatedConclusion);
+            boolean result = resolver.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend));
             assertTrue(result, "Proof should succeed when a contradiction is provable.");
         } finally {
             resolver.closeDatabase();
         }
     }
 
-    @Test
-    public void testProve_ReturnsFalse_WhenNoContradiction() {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProve_ReturnsFalse_WhenNoContradiction(ProverConfig.Backend backend) {
         // Given a set of consistent clauses
         Clause clause1 = ClauseParser.parseClause("P(x)");
         Clause clause2 = ClauseParser.parseClause("Q(y)");
@@ -71,15 +84,17 @@ public class TestMultiThreadedResolver {
             Clause negatedConclusion = ClauseParser.parseClause("R(z)");
 
             // Then the proof should fail
-            boolean result = resolver.prove(negatedConclusion);
+            boolean result = resolver.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend));
             assertFalse(result, "Proof should fail when no contradiction is found.");
         } finally {
             resolver.closeDatabase();
         }
     }
 
-    @Test
-    public void testProve_AddsNegatedClauseToDatabase() throws NoSuchFieldException, IllegalAccessException {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProve_AddsNegatedClauseToDatabase(ProverConfig.Backend backend)
+            throws NoSuchFieldException, IllegalAccessException {
         // Given a set of initial clauses
         List<Clause> initialClauses = new ArrayList<>(Collections.singletonList(ClauseParser.parseClause("P(x)")));
         MultiThreadedResolver resolver = new MultiThreadedResolver(initialClauses);
@@ -87,7 +102,7 @@ public class TestMultiThreadedResolver {
             Clause negatedQuery = ClauseParser.parseClause("Q(y)");
 
             // When the prove method is called
-            resolver.prove(negatedQuery);
+            resolver.prove(negatedQuery, ProverConfig.defaults().withBackend(backend));
 
             // Then the negated clause should be added to the database
             // We use reflection to access the private database field for verification
@@ -105,7 +120,128 @@ public class TestMultiThreadedResolver {
     }
 
     @Test
-    public void testSocratesExample_Integration() {
+    public void testProve_ExaminesEachPairOnce() {
+        // Nothing resolves, so the workers saturate after examining every unordered pair (including self pairs)
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clauses.add(ClauseParser.parseClause("P" + i + "(a)"));
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        try {
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(b)"), RESOLUTION));
+            assertEquals(21 * 22 / 2, resolver.getPairsExamined());
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testProve_WithConfiguredWorkerCount() {
+        // the pair count does not depend on the number of workers or the batch sizes
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clauses.add(ClauseParser.parseClause("P" + i + "(a)"));
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        try {
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(b)"), RESOLUTION.withWorkerCount(1)));
+            assertEquals(21 * 22 / 2, resolver.getPairsExamined());
+
+            ProverConfig config = RESOLUTION.withWorkerCount(3).withClauseBatchSize(4).withUnresolvedBatchSize(2);
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(b)"), config));
+            assertEquals(21 * 22 / 2, resolver.getPairsExamined());
+        } finally {
+            resolver.closeDatabase();
+        }
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.defaults().withWorkerCount(0));
+    }
+
+    @Test
+    public void testProve_WithAutoTune() throws InterruptedException {
+        // the tuner changes batch sizes between windows and claims, every pair is still examined exactly once
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            clauses.add(ClauseParser.parseClause("P" + i + "(a)"));
+        }
+        ProverConfig config = RESOLUTION.withWorkerCount(2).withClauseBatchSize(2).withUnresolvedBatchSize(2)
+                .withAutoTune(true);
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        try {
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(b)"), config));
+            assertEquals(41 * 42 / 2, resolver.getPairsExamined());
+            assertTrue(resolver.getAutoTuner().isAdaptive());
+        } finally {
+            resolver.closeDatabase();
+        }
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
+        try {
+            assertFalse(prover.prove(ClauseParser.parseClause("Q(b)"), config));
+            assertEquals(41 * 42 / 2, prover.getPairsExamined());
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testMetricsSnapshot_AndJmxExport() throws Exception {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        ObjectName name = resolver.getMetrics().getObjectName();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(resolver.prove(ClauseParser.parseClause("¬Mortal(Socrates)"), RESOLUTION.withWorkerCount(2)));
+
+            ProverMetrics.Snapshot snapshot = resolver.metricsSnapshot();
+            assertEquals(resolver.getPairsExamined(), snapshot.pairsExamined());
+            assertTrue(snapshot.resolventsGenerated() > 0);
+            assertTrue(snapshot.unresolvedBatchesFetched() > 0);
+            assertTrue(snapshot.clauseWindowsFetched() > 0);
+            assertEquals(snapshot.clauseWindowsFetched(), snapshot.databaseReads().count());
+            assertTrue(snapshot.databaseWrites().count() > 0);
+            assertEquals(2, snapshot.workerBusyNanos().length);
+            assertEquals(2, snapshot.workerIdleNanos().length);
+
+            assertTrue(server.isRegistered(name));
+            assertEquals(snapshot.pairsExamined(), server.getAttribute(name, "PairsExamined"));
+            assertEquals(2, ((long[]) server.getAttribute(name, "WorkerBusyMillis")).length);
+        } finally {
+            resolver.closeDatabase();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testMetricsDisabled_CountsWithoutTiming() {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        try {
+            resolver.getMetrics().setEnabled(false);
+            assertTrue(resolver.prove(ClauseParser.parseClause("¬Mortal(Socrates)"), RESOLUTION.withWorkerCount(1)));
+
+            ProverMetrics.Snapshot snapshot = resolver.metricsSnapshot();
+            assertTrue(snapshot.pairsExamined() > 0);
+            assertTrue(snapshot.clauseWindowsFetched() > 0);
+            assertEquals(0, snapshot.databaseReads().count());
+            assertEquals(0, snapshot.databaseWrites().count());
+            assertEquals(0, snapshot.workerBusyNanos()[0]);
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testSocratesExample_Integration(ProverConfig.Backend backend) {
         // This is the example from the main method, converted to a test
         // Man(Socrates)
         Clause clause1 = ClauseParser.parseClause("Man(Socrates)");
@@ -123,7 +259,7 @@ public class TestMultiThreadedResolver {
             // We want to prove Mortal(Socrates). The negated conclusion is ¬Mortal(Socrates)
             Clause negatedConclusion = ClauseParser.parseClause("¬Mortal(Socrates)");
 
-            boolean result = resolver.prove(negatedConclusion);
+            boolean result = resolver.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend));
             assertTrue(result, "Should successfully prove that Socrates is mortal.");
         } finally {
             resolver.closeDatabase();
@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TestPreprocessor {
+
+    private static List<Clause> parse(String... clauses) {
+        List<Clause> parsed = new ArrayList<>();
+        for (String clause : clauses) {
+            parsed.add(ClauseParser.parseClause(clause));
+        }
+        return parsed;
+    }
+
+    @Test
+    public void testRun_CountsEveryStage() {
+        List<Clause> clauses = parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)", "¬Man(x) ∨ Mortal(x)",
+                "Greek(x) ∨ ¬Greek(x)", "¬Man(Socrates) ∨ Human(Socrates)", "¬Man(y) ∨ Mortal(y) ∨ Wise(y)",
+                "Sleepy(x) ∨ ¬Tired(x)");
+        Preprocessor.Result result = Preprocessor.run(clauses, Preprocessor.ALL,
+                ClauseParser.parseClause("¬Mortal(Socrates)"));
+
+        assertEquals(1, result.removed(Preprocessor.Stage.DUPLICATES));
+        assertEquals(1, result.removed(Preprocessor.Stage.TAUTOLOGIES));
+        // the rule for Human loses ¬Man(Socrates) and becomes a unit, no clause is satisfied by a unit
+        assertEquals(0, result.removed(Preprocessor.Stage.UNIT_PROPAGATION));
+        assertEquals(1, result.removed(Preprocessor.Stage.SUBSUMPTION));
+        // Human, Sleepy and Tired only occur with one sign, Mortal is needed by the goal
+        assertEquals(2, result.removed(Preprocessor.Stage.PURE_LITERALS));
+        assertEquals(parse("Man(Socrates)", "¬Man(x) ∨ Mortal(x)"), result.clauses());
+        assertTrue(result.toString().startsWith("2 clauses, removed duplicates=1 tautologies=1"));
+
+        // without the goal Mortal is pure as well, and then Man
+        assertTrue(Preprocessor.run(clauses, Preprocessor.ALL, null).clauses().isEmpty());
+        assertSame(clauses, Preprocessor.run(clauses, Preprocessor.NONE, null).clauses());
+    }
+
+    @Test
+    public void testRun_PropagatesGroundUnits() {
+        List<Clause> clauses = parse("P(A)", "¬P(A) ∨ Q(A)", "¬Q(A) ∨ R(A) ∨ S(x)", "P(A) ∨ T(B)", "¬R(A)");
+        Preprocessor.Result result = Preprocessor.run(clauses, EnumSet.of(Preprocessor.Stage.UNIT_PROPAGATION),
+                null);
+        assertEquals(1, result.removed(Preprocessor.Stage.UNIT_PROPAGATION));
+        assertEquals(parse("P(A)", "Q(A)", "S(x)", "¬R(A)"), result.clauses());
+
+        // conflicting units leave the empty clause, which the search refutes at once
+        result = Preprocessor.run(parse("P(A)", "¬P(A) ∨ Q(A)", "¬Q(A) ∨ ¬P(A)"),
+                EnumSet.of(Preprocessor.Stage.UNIT_PROPAGATION), null);
+        assertTrue(result.clauses().stream().anyMatch(Clause::isEmpty));
+    }
+
+    @Test
+    public void testSubsumes() {
+        assertTrue(Preprocessor.subsumes(ClauseParser.parseClause("P(x)"), ClauseParser.parseClause("P(A) ∨ Q(B)")));
+        assertTrue(Preprocessor.subsumes(ClauseParser.parseClause("P(x) ∨ ¬Q(x)"),
+                ClauseParser.parseClause("P(A) ∨ ¬Q(A) ∨ R(y)")));
+        assertFalse(Preprocessor.subsumes(ClauseParser.parseClause("P(x) ∨ ¬Q(x)"),
+                ClauseParser.parseClause("P(A) ∨ ¬Q(B)")));
+        assertFalse(Preprocessor.subsumes(ClauseParser.parseClause("P(A)"), ClauseParser.parseClause("P(x)")));
+        assertTrue(Preprocessor.isTautology(ClauseParser.parseClause("P(x) ∨ ¬P(x)")));
+        assertFalse(Preprocessor.isTautology(ClauseParser.parseClause("P(x) ∨ ¬P(A)")));
+    }
+
+    @Test
+    public void testParseStages() {
+        assertSame(Preprocessor.ALL, Preprocessor.parseStages(" All "));
+        assertSame(Preprocessor.NONE, Preprocessor.parseStages("none"));
+        assertEquals(EnumSet.of(Preprocessor.Stage.DUPLICATES, Preprocessor.Stage.PURE_LITERALS),
+                Preprocessor.parseStages("pure_literals, duplicates"));
+        assertThrows(IllegalArgumentException.class, () -> Preprocessor.parseStages("duplicates,resolution"));
+    }
+
+    @Test
+    public void testProve_CachesThePreprocessedStartingSet() throws InterruptedException {
+        Problem problem = new ProblemGenerator(33).distractorKb(6, 2.0);
+        ProverConfig config = ProverConfig.defaults().withBackend(ProverConfig.Backend.RESOLUTION)
+                .withPreprocessing(Preprocessor.ALL);
+        int simplified = Preprocessor.run(problem.getClauses(), Preprocessor.ALL, problem.getNegatedGoal())
+                .clauses().size();
+        ClauseStore database = spy(new Database(problem.getClauses()));
+        int loaded = database.countClauses();
+        assertTrue(simplified < loaded);
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(database);
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal(), config));
+            assertEquals(simplified, prover.getPreprocessing().clauses().size());
+
+            // the same knowledge base and goal: the store is neither read nor rewritten again
+            clearInvocations(database);
+            assertTrue(prover.prove(problem.getNegatedGoal(), config));
+            verify(database, never()).replaceStartingSet(anyList());
+            verify(database, never()).getClauses(anyInt(), anyInt());
+
+            // a goal that does not follow, then the loaded set is back without preprocessing
+            assertFalse(prover.prove(ClauseParser.parseClause("¬P3(D)"), config));
+            assertTrue(prover.prove(problem.getNegatedGoal(), config.withPreprocessing(Preprocessor.NONE)));
+            assertNull(prover.getPreprocessing());
+            verify(database).replaceStartingSet(argThat(clauses -> clauses.size() == loaded));
+
+            verify(database).getStartingFingerprints(); // the clauses are dropped, the fingerprints streamed
+
+            // and kept while the store is not rewritten
+            clearInvocations(database);
+            assertTrue(prover.prove(problem.getNegatedGoal(), config.withPreprocessing(Preprocessor.NONE)));
+            verify(database, never()).replaceStartingSet(anyList());
+            verify(database, never()).getClauses(anyInt(), anyInt());
+        } finally {
+            prover.closeDatabase();
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(problem.getClauses());
+        try {
+            assertTrue(resolver.prove(problem.getNegatedGoal(), config.withWorkerCount(2)));
+            assertEquals(simplified, resolver.getPreprocessing().clauses().size());
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+}
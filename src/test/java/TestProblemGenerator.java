@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProblemGenerator {
+
+    private List<Clause> allClauses(Problem problem) {
+        List<Clause> clauses = new ArrayList<>(problem.getClauses());
+        clauses.add(problem.getNegatedGoal());
+        return clauses;
+    }
+
+    @Test
+    public void testSameSeedGivesSameProblems() {
+        Problem first = new ProblemGenerator(7).randomKCnf(20, 4.26, 3);
+        Problem second = new ProblemGenerator(7).randomKCnf(20, 4.26, 3);
+        Problem other = new ProblemGenerator(8).randomKCnf(20, 4.26, 3);
+
+        assertEquals(allClauses(first), allClauses(second));
+        assertNotEquals(allClauses(first), allClauses(other));
+    }
+
+    @Test
+    public void testRandomKCnfShape() {
+        Problem problem = new ProblemGenerator(1).randomKCnf(50, 2.0, 3);
+
+        assertEquals(100, problem.size());
+        for (Clause clause : allClauses(problem)) {
+            assertEquals(3, clause.size());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ProblemGenerator(1).randomKCnf(2, 1.0, 3));
+    }
+
+    @Test
+    public void testPigeonholeIsRefuted() throws InterruptedException {
+        Problem problem = new ProblemGenerator(1).pigeonhole(3, 2);
+
+        // one clause per pigeon plus one per hole and pair of pigeons
+        assertEquals(3 + 2 * 3, problem.size());
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testRandomHornIsProvable() throws InterruptedException {
+        Problem problem = new ProblemGenerator(3).randomHorn(12, 20, 3);
+
+        assertEquals(1 + 20 + 1, problem.size());
+        for (Clause clause : problem.getClauses()) {
+            long positive = clause.getLiterals().stream().filter(Literal::isPositive).count();
+            assertEquals(1, positive, "every clause should be a definite Horn clause: " + clause);
+        }
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testDistractorKbIsProvable() throws InterruptedException {
+        Problem problem = new ProblemGenerator(5).distractorKb(8, 1.0);
+
+        // the chain, its starting fact and 8 distractors
+        assertEquals(7 + 1 + 8, problem.getClauses().size());
+        assertEquals(ClauseParser.parseClause("¬P8(C)"), problem.getNegatedGoal());
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+}
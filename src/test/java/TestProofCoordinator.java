@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestProofCoordinator {
+
+    private static final String DB_FILE = "test_coordinator.sqlite3";
+    private static final String DB_PATH = "jdbc:sqlite:" + DB_FILE;
+
+    @AfterEach
+    public void tearDown() {
+        // deletes the database file and the associated lock and write ahead log files
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            File file = new File(DB_FILE + suffix);
+            if (file.exists()) {
+                file.delete();
+            }
+        }
+    }
+
+    private boolean proveWithWorkers(List<Clause> clauses, Clause negated, int workerCount) throws Exception {
+        return proveWithWorkers(new ProofCoordinator(clauses, DB_PATH), negated, ProverConfig.defaults(), workerCount);
+    }
+
+    private boolean proveWithWorkers(ProofCoordinator coordinator, Clause negated, ProverConfig config,
+                                     int workerCount) throws Exception {
+        try {
+            int port = coordinator.start(0);
+
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                Thread worker = new Thread(new ProofWorker("localhost", port));
+                workers.add(worker);
+                worker.start();
+            }
+
+            boolean result = coordinator.prove(negated, config);
+
+            for (Thread worker : workers) {
+                worker.join(5000);
+                assertFalse(worker.isAlive(), "Workers should exit once the proof is over");
+            }
+            return result;
+        } finally {
+            coordinator.close();
+        }
+    }
+
+    @Test
+    public void testProve_SocratesExample() throws Exception {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+
+        assertTrue(proveWithWorkers(clauses, ClauseParser.parseClause("¬Mortal(Socrates)"), 2),
+                "Should prove that Socrates is mortal over the socket protocol.");
+    }
+
+    @Test
+    public void testProve_ChainWithSeveralWorkers() throws Exception {
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            clauses.add(ClauseParser.parseClause("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)"));
+        }
+        clauses.add(ClauseParser.parseClause("P1(a)"));
+
+        assertTrue(proveWithWorkers(clauses, ClauseParser.parseClause("¬P10(a)"), 3));
+    }
+
+    @Test
+    public void testProve_AppliesTheConfigOnTheWorkers() throws Exception {
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            clauses.add(ClauseParser.parseClause("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)"));
+        }
+        clauses.add(ClauseParser.parseClause("P1(a)"));
+        Clause negated = ClauseParser.parseClause("¬P10(a)");
+
+        // the depths travel with the clauses, so the workers drop every resolvent deeper than 2
+        ProofCoordinator coordinator = new ProofCoordinator(clauses, DB_PATH);
+        ProverConfig bounded = ProverConfig.defaults().withLimits(new ClauseLimits(0, 2)).withClauseBatchSize(4)
+                .withUnresolvedBatchSize(3);
+        assertFalse(proveWithWorkers(coordinator, negated, bounded, 2));
+        assertTrue(coordinator.getResolventsOverLimit() > 0);
+        assertFalse(coordinator.isComplete());
+
+        coordinator = new ProofCoordinator(clauses, DB_PATH);
+        ProverConfig selected = ProverConfig.defaults().withSelection(LiteralSelection.parse("negative", ""))
+                .withClauseBatchSize(4);
+        assertTrue(proveWithWorkers(coordinator, negated, selected, 2));
+        assertTrue(coordinator.isComplete());
+    }
+
+    @Test
+    public void testProve_RejectsConfigsTheWorkersCannotRun() {
+        ProofCoordinator coordinator = new ProofCoordinator(new ArrayList<>(List.of(
+                ClauseParser.parseClause("Man(Socrates)"))), DB_PATH);
+        try {
+            Clause negated = ClauseParser.parseClause("¬Man(Socrates)");
+            assertThrows(IllegalArgumentException.class, () -> coordinator.prove(negated,
+                    ProverConfig.defaults().withBackend(ProverConfig.Backend.CDCL)));
+            assertThrows(IllegalArgumentException.class, () -> coordinator.prove(negated,
+                    ProverConfig.defaults().withInference(ProverConfig.Inference.HYPER)));
+            assertThrows(IllegalArgumentException.class, () -> coordinator.prove(negated,
+                    ProverConfig.defaults().withAutoTune(true)));
+        } finally {
+            coordinator.close();
+        }
+    }
+
+    @Test
+    public void testProve_ReturnsFalseOnSaturation() throws Exception {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(x)"));
+        clauses.add(ClauseParser.parseClause("Q(y)"));
+
+        assertFalse(proveWithWorkers(clauses, ClauseParser.parseClause("R(z)"), 2),
+                "Proof should fail when no contradiction is found.");
+    }
+}
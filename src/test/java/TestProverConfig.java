@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProverConfig {
+
+    @Test
+    public void testFromProperties_OverridesDefaults() {
+        Properties properties = new Properties();
+        properties.setProperty("prover.workers", "3");
+        properties.setProperty("prover.clauseBatchSize", " 64 ");
+        properties.setProperty("prover.autoTune", "true");
+        properties.setProperty("prover.backend", "resolution");
+        properties.setProperty("prover.inference", "hyper");
+        properties.setProperty("prover.selection", "negative");
+        properties.setProperty("prover.precedence", "Mortal,Man");
+        properties.setProperty("prover.maxDepth", "6");
+        properties.setProperty("prover.preprocess", "subsumption,duplicates");
+
+        ProverConfig config = ProverConfig.fromProperties(properties);
+        assertEquals(3, config.getWorkerCount());
+        assertEquals(64, config.getClauseBatchSize());
+        assertEquals(Constants.UNRESOLVED_BATCH_SIZE, config.getUnresolvedBatchSize());
+        assertEquals(Constants.RESOLVENT_SAVE_THRESHOLD, config.getResolventSaveThreshold());
+        assertTrue(config.isAutoTune());
+        assertTrue(config.withWorkerCount(1).isAutoTune());
+        assertEquals(ProverConfig.Backend.RESOLUTION, config.withAutoTune(false).getBackend());
+        assertEquals(ProverConfig.Backend.AUTO, ProverConfig.defaults().getBackend());
+        assertEquals(ProverConfig.Inference.HYPER, config.withBackend(ProverConfig.Backend.AUTO).getInference());
+        assertEquals(ProverConfig.Inference.BINARY, ProverConfig.defaults().getInference());
+        assertEquals("negative(Mortal > Man)", config.withWorkerCount(1).getSelection().toString());
+        assertSame(LiteralSelection.ALL, ProverConfig.defaults().getSelection());
+        assertEquals(new ClauseLimits(0, 6), config.withInference(ProverConfig.Inference.UR).getLimits());
+        assertSame(ClauseLimits.NONE, ProverConfig.defaults().getLimits());
+        assertEquals(EnumSet.of(Preprocessor.Stage.DUPLICATES, Preprocessor.Stage.SUBSUMPTION),
+                config.withLimits(ClauseLimits.NONE).getPreprocessing());
+        assertTrue(ProverConfig.defaults().getPreprocessing().isEmpty());
+        assertFalse(ProverConfig.fromProperties(new Properties()).isAutoTune());
+    }
+
+    @Test
+    public void testFromProperties_RejectsInvalidValues() {
+        Properties properties = new Properties();
+        properties.setProperty("prover.unresolvedBatchSize", "many");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(properties));
+
+        properties.setProperty("prover.unresolvedBatchSize", "0");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(properties));
+
+        Properties backend = new Properties();
+        backend.setProperty("prover.backend", "sat");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(backend));
+
+        Properties inference = new Properties();
+        inference.setProperty("prover.inference", "paramodulation");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(inference));
+
+        Properties selection = new Properties();
+        selection.setProperty("prover.selection", "first");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(selection));
+
+        Properties limits = new Properties();
+        limits.setProperty("prover.maxLiterals", "-2");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(limits));
+
+        Properties preprocess = new Properties();
+        preprocess.setProperty("prover.preprocess", "resolution");
+        assertThrows(IllegalArgumentException.class, () -> ProverConfig.fromProperties(preprocess));
+    }
+}
@@ -0,0 +1,85 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProverEvents {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Clause> socrates() {
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("Man(Socrates)"));
+        clauses.add(ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)"));
+        return clauses;
+    }
+
+    private List<RecordedEvent> record(Recording recording, Path store) throws IOException {
+        MultiThreadedResolver resolver = new MultiThreadedResolver(
+                new Database(socrates(), "jdbc:sqlite:" + store));
+        try {
+            recording.start();
+            assertTrue(resolver.prove(ClauseParser.parseClause("¬Mortal(Socrates)"),
+                    ProverConfig.defaults().withWorkerCount(2).withBackend(ProverConfig.Backend.RESOLUTION)));
+            recording.stop();
+        } finally {
+            resolver.closeDatabase();
+        }
+
+        Path file = tempDir.resolve("proof.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("prover."))
+                .toList();
+    }
+
+    @Test
+    public void testEvents_RecordedWhenEnabled() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("prover.Prove");
+            recording.enable("prover.Batch");
+            recording.enable("prover.DatabaseCall");
+            events = record(recording, tempDir.resolve("enabled.sqlite3"));
+        }
+
+        List<RecordedEvent> proves = ofType(events, "prover.Prove");
+        assertEquals(1, proves.size());
+        assertEquals("MultiThreadedResolver", proves.getFirst().getString("prover"));
+        assertEquals(2, proves.getFirst().getInt("workers"));
+        assertTrue(proves.getFirst().getBoolean("proved"));
+        assertTrue(proves.getFirst().getLong("pairsExamined") > 0);
+
+        List<RecordedEvent> batches = ofType(events, "prover.Batch");
+        assertFalse(batches.isEmpty());
+        assertTrue(batches.stream().allMatch(batch -> batch.getInt("unresolvedCount") > 0));
+        assertTrue(batches.stream().mapToLong(batch -> batch.getLong("pairsExamined")).sum() > 0);
+
+        List<String> operations = ofType(events, "prover.DatabaseCall").stream()
+                .map(call -> call.getString("operation")).toList();
+        assertTrue(operations.contains("flushResolvents"));
+        assertTrue(operations.contains("addClause"));
+        assertTrue(operations.contains("getUnresolvedClauses"));
+        assertTrue(operations.contains("getClausesInRange"));
+    }
+
+    @Test
+    public void testEvents_DisabledByDefault() throws IOException {
+        try (Recording recording = new Recording()) {
+            assertTrue(record(recording, tempDir.resolve("disabled.sqlite3")).isEmpty());
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
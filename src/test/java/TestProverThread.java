@@ -12,12 +12,25 @@ import static org.mockito.Mockito.*;
 
 public class TestProverThread {
 
+    private MultiThreadedResolver mockResolver(AtomicBoolean emptyClauseFound) {
+        // backs the resolver's solution flag with the given AtomicBoolean
+        MultiThreadedResolver mockResolver = Mockito.mock(MultiThreadedResolver.class);
+        when(mockResolver.solutionFound()).thenAnswer(invocation -> emptyClauseFound.get());
+        doAnswer(invocation -> {
+            emptyClauseFound.set(true);
+            return null;
+        }).when(mockResolver).solutionWasFound();
+        when(mockResolver.markSeen(any())).thenReturn(true);
+        when(mockResolver.getMetrics()).thenReturn(new ProverMetrics());
+        return mockResolver;
+    }
+
     @Test
     public void testRunThreadStopsWhenEmptyClauseFound() throws InterruptedException {
         Database mockDatabase = Mockito.mock(Database.class);
         AtomicBoolean emptyClauseFound = new AtomicBoolean(true); // Simulate empty clause is already found
 
-        ProverThread proverThread = new ProverThread(1, mockDatabase, emptyClauseFound);
+        ProverThread proverThread = new ProverThread(1, mockDatabase, mockResolver(emptyClauseFound));
         proverThread.run();
 
         // Verify that no database interaction occurs if the empty clause is already found
@@ -37,12 +50,12 @@ public class TestProverThread {
                     return new ArrayList<>();
                 });
 
-        ProverThread proverThread = new ProverThread(1, mockDatabase, emptyClauseFound);
+        ProverThread proverThread = new ProverThread(1, mockDatabase, mockResolver(emptyClauseFound));
         proverThread.run();
 
         // Verify that getUnresolvedClauses was called, but no processing happened
         verify(mockDatabase, atLeastOnce()).getUnresolvedClauses(anyInt());
-        verify(mockDatabase, never()).getClauses(anyInt(), anyInt());
+        verify(mockDatabase, never()).getClausesInRange(anyInt(), anyInt());
         verify(mockDatabase, never()).addClauses(anyList());
     }
 
@@ -54,7 +67,7 @@ public class TestProverThread {
         // Simulate getUnresolvedClauses throwing an InterruptedException
         when(mockDatabase.getUnresolvedClauses(anyInt())).thenThrow(new InterruptedException());
 
-        ProverThread proverThread = new ProverThread(1, mockDatabase, emptyClauseFound);
+        ProverThread proverThread = new ProverThread(1, mockDatabase, mockResolver(emptyClauseFound));
         proverThread.run();
 
         // Verify the thread was interrupted and stopped
@@ -69,11 +82,12 @@ public class TestProverThread {
 
         // Prepare mock data
         Clause unresolvedClause = ClauseParser.parseClause("P(x)");
-        unresolvedClause.setId(1);
+        unresolvedClause.setId(2);
         ArrayList<Clause> unresolvedClauses = new ArrayList<>(Collections.singletonList(unresolvedClause));
 
+        // only older clauses are resolved against an unresolved clause
         Clause dbClause = ClauseParser.parseClause("¬P(A)");
-        dbClause.setId(2);
+        dbClause.setId(1);
         ArrayList<Clause> dbClauses = new ArrayList<>(Collections.singletonList(dbClause));
 
         // Mock database calls
@@ -83,10 +97,10 @@ public class TestProverThread {
                     emptyClauseFound.set(true); // Stop after one loop
                     return new ArrayList<>();
                 });
-        when(mockDatabase.getClauses(anyInt(), anyInt())).thenReturn(dbClauses);
+        when(mockDatabase.getClausesInRange(anyInt(), anyInt())).thenReturn(dbClauses);
 
 
-        ProverThread proverThread = new ProverThread(1, mockDatabase, emptyClauseFound);
+        ProverThread proverThread = new ProverThread(1, mockDatabase, mockResolver(emptyClauseFound));
         proverThread.run();
 
         // Verify that resolvents were added to the database
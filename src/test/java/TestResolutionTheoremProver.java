@@ -6,11 +6,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 public class TestResolutionTheoremProver {
 
-    @Test
-    public void testProveWithResolvableClausesReturnsTrue() throws InterruptedException {
+    // the pair and duplicate counts come from the store search
+    private static final ProverConfig RESOLUTION = ProverConfig.defaults()
+            .withBackend(ProverConfig.Backend.RESOLUTION);
+
+    // the correctness cases run on AUTO, which takes these Horn sets to HornProver, and on the store search
+
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProveWithResolvableClausesReturnsTrue(ProverConfig.Backend backend) throws InterruptedException {
         // Input clauses: ¬P(x) ∨ Q(x) and P(a)
         List<Clause> clauses = new ArrayList<>();
         Clause clause1 = new Clause();
@@ -29,12 +38,13 @@ public class TestResolutionTheoremProver {
         ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
 
         // Act & Assert
-        assertTrue(prover.prove(negatedConclusion),
+        assertTrue(prover.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend)),
                 "The prover should return true when a contradiction (empty clause) can be derived.");
     }
 
-    @Test
-    public void testProveWithUnresolvableClausesReturnsFalse() throws InterruptedException {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProveWithUnresolvableClausesReturnsFalse(ProverConfig.Backend backend) throws InterruptedException {
         // Input clauses: ¬P(x) ∨ Q(x)
         List<Clause> clauses = new ArrayList<>();
         Clause clause1 = new Clause();
@@ -49,12 +59,13 @@ public class TestResolutionTheoremProver {
         ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
 
         // Act & Assert
-        assertFalse(prover.prove(negatedConclusion),
+        assertFalse(prover.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend)),
                 "The prover should return false when no contradiction (empty clause) can be derived.");
     }
 
-    @Test
-    public void testProveWithEmptyClauseReturnsTrue() throws InterruptedException {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProveWithEmptyClauseReturnsTrue(ProverConfig.Backend backend) throws InterruptedException {
         // Input clauses: ¬P(a) ∨ Q(a) and P(a)
         List<Clause> clauses = new ArrayList<>();
         Clause clause1 = new Clause();
@@ -73,12 +84,14 @@ public class TestResolutionTheoremProver {
         ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
 
         // Act & Assert
-        assertTrue(prover.prove(negatedConclusion),
+        assertTrue(prover.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend)),
                 "The prover should return true when the resolution process generates an empty clause (contradiction).");
     }
 
-    @Test
-    public void testProveWithComplexResolvableCaseReturnsTrue() throws InterruptedException {
+    @ParameterizedTest
+    @EnumSource(value = ProverConfig.Backend.class, names = {"AUTO", "RESOLUTION"})
+    public void testProveWithComplexResolvableCaseReturnsTrue(ProverConfig.Backend backend)
+            throws InterruptedException {
         // Input clauses:
         // 1. Q(x) ∨ ¬R(x)
         // 2. R(a)
@@ -110,10 +123,73 @@ public class TestResolutionTheoremProver {
         ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
 
         // Act & Assert
-        assertTrue(prover.prove(negatedConclusion),
+        assertTrue(prover.prove(negatedConclusion, ProverConfig.defaults().withBackend(backend)),
                 "The prover should return true for a complex case where a contradiction (empty clause) can be derived.");
     }
 
+    @Test
+    public void testProveExaminesEachPairOnce() throws InterruptedException {
+        // Nothing resolves, so the proof saturates after examining every unordered pair (including self pairs)
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(a)"));
+        clauses.add(ClauseParser.parseClause("Q(b)"));
+        clauses.add(ClauseParser.parseClause("R(c)"));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
+        try {
+            assertFalse(prover.prove(ClauseParser.parseClause("S(d)"), RESOLUTION));
+            assertEquals(4 * 5 / 2, prover.getPairsExamined());
+
+            // counts are per proof
+            assertFalse(prover.prove(ClauseParser.parseClause("S(d)"), RESOLUTION));
+            assertEquals(4 * 5 / 2, prover.getPairsExamined());
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testProveRejectsDuplicateResolvents() throws InterruptedException {
+        // Both rules produce Q(a) from P(a), the second copy never reaches the database
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(a)"));
+        clauses.add(ClauseParser.parseClause("¬P(x) ∨ Q(x)"));
+        clauses.add(ClauseParser.parseClause("¬P(y) ∨ Q(y)"));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
+        try {
+            assertFalse(prover.prove(ClauseParser.parseClause("R(b)"), RESOLUTION));
+            assertTrue(prover.getDuplicatesRejected() >= 1);
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testProveRejectsResolventsEqualToStartingClauses() throws InterruptedException {
+        // Q(a) is derived from P(a) but is already in the starting set
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(ClauseParser.parseClause("P(a)"));
+        clauses.add(ClauseParser.parseClause("¬P(x) ∨ Q(x)"));
+        clauses.add(ClauseParser.parseClause("Q(a)"));
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(clauses);
+        try {
+            assertFalse(prover.prove(ClauseParser.parseClause("R(b)"), RESOLUTION));
+            assertEquals(1, prover.getDuplicatesRejected());
+        } finally {
+            prover.closeDatabase();
+        }
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(clauses);
+        try {
+            assertFalse(resolver.prove(ClauseParser.parseClause("R(b)"), RESOLUTION.withWorkerCount(2)));
+            assertEquals(1, resolver.getDuplicatesRejected());
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+
     @Test
     public void testBasicResolution() {
         Clause clause1 = new Clause();
@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestScalingSweep {
+
+    @Test
+    public void testSweepCoversEveryPoint(@TempDir Path dir) throws Exception {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(new String[]{
+                "--mode", "sweep", "--sizes", "4", "--threads", "2,1", "--clause-batch-sizes", "2,300",
+                "--warmup", "0", "--runs", "1", "--csv", dir.resolve("sweep.csv").toString()});
+
+        List<ScalingSweep.Point> points = new ScalingSweep(options).run();
+
+        // 1 size x 2 clause batch sizes x 2 thread counts, the single worker point is measured first
+        assertEquals(4, points.size());
+        assertEquals(1, points.getFirst().config.getWorkerCount());
+        assertEquals(1.0, points.getFirst().speedup, 1e-9);
+        for (ScalingSweep.Point point : points) {
+            assertTrue(point.pairsPerSecond > 0);
+            assertTrue(point.insertsPerSecond > 0);
+            assertTrue(point.lockWaitShare >= 0 && point.lockWaitShare <= 1);
+            assertEquals(point.speedup / point.config.getWorkerCount(), point.efficiency, 1e-9);
+        }
+
+        ScalingSweep.writeCsv(points, options.csv);
+        List<String> csv = Files.readAllLines(options.csv);
+        assertEquals(5, csv.size());
+        assertTrue(csv.get(1).startsWith("4,1,2,"), csv.get(1));
+
+        // the insert rate and lock waits are Database statistics
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkHarness.Options.parse(new String[]{
+                "--mode", "sweep", "--store", "log"}));
+    }
+
+    @Test
+    public void testSweepAddsAutoTunedPoints(@TempDir Path dir) throws Exception {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(new String[]{
+                "--mode", "sweep", "--sizes", "4", "--threads", "1", "--clause-batch-sizes", "2,300",
+                "--auto-tune", "on", "--warmup", "0", "--runs", "1", "--csv", dir.resolve("sweep.csv").toString()});
+
+        List<ScalingSweep.Point> points = new ScalingSweep(options).run();
+
+        // 2 static points and one tuned point starting from the default batch sizes
+        assertEquals(3, points.size());
+        assertTrue(points.getLast().config.isAutoTune());
+        ScalingSweep.Point best = ScalingSweep.bestStatic(points, 4, 1);
+        assertFalse(best.config.isAutoTune());
+        for (ScalingSweep.Point point : points) {
+            assertTrue(best.time.median <= point.time.median || point.config.isAutoTune());
+        }
+
+        ScalingSweep.writeCsv(points, options.csv);
+        List<String> csv = Files.readAllLines(options.csv);
+        assertTrue(csv.get(0).endsWith(",auto_tune"));
+        assertTrue(csv.get(3).endsWith(",1"), csv.get(3));
+    }
+}
@@ -0,0 +1,196 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestShardedDatabase {
+
+    private static final List<String> IN_MEMORY_SHARDS = Collections.nCopies(3, "jdbc:sqlite::memory:");
+    private ShardedDatabase database;
+    private Clause clause1;
+    private Clause clause2;
+
+    @BeforeEach
+    public void setUp() {
+        clause1 = ClauseParser.parseClause("P(x) ∨ Q(y)");
+        clause2 = ClauseParser.parseClause("¬Q(y) ∨ R(z)");
+        database = new ShardedDatabase(new ArrayList<>(Arrays.asList(clause1, clause2)), IN_MEMORY_SHARDS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void testConstructor_Success() {
+        assertEquals(3, database.getShardCount());
+        assertEquals(2, database.countClauses());
+        ArrayList<Clause> clauses = database.getClauses(1, 2);
+        assertTrue(clauses.contains(clause1));
+        assertTrue(clauses.contains(clause2));
+    }
+
+    @Test
+    public void testConstructor_InvalidArguments() {
+        List<Clause> clauses = Collections.singletonList(clause1);
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDatabase(null, IN_MEMORY_SHARDS));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDatabase(new ArrayList<>(), IN_MEMORY_SHARDS));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDatabase(clauses, new ArrayList<>()));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedDatabase(clauses, 0));
+    }
+
+    @Test
+    public void testFromFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("kb.txt");
+        Files.write(file, Arrays.asList("P(x) ∨ Q(y)", "¬Q(y) ∨ R(z)", "S(a)", "# comment"));
+
+        ShardedDatabase loaded = ShardedDatabase.fromFile(file, IN_MEMORY_SHARDS);
+        try {
+            assertEquals(3, loaded.countClauses());
+            assertEquals(3, loaded.getClausesInRange(1, 4).size());
+        } finally {
+            loaded.close();
+        }
+    }
+
+    @Test
+    public void testRoutesByLeadingPredicate() {
+        Clause unit = ClauseParser.parseClause("A(x)");
+        Clause longer = ClauseParser.parseClause("A(b) ∨ ¬Z(c)");
+        assertEquals(database.shardOf(unit), database.shardOf(longer));
+        assertEquals(0, database.shardOf(new Clause()));
+
+        database.addClauses(Arrays.asList(unit, longer));
+        assertTrue(database.countClauses(database.shardOf(unit)) >= 2);
+    }
+
+    @Test
+    public void testAddClauses_IgnoresDuplicates() {
+        database.addClause(clause1);
+        database.addClauses(Arrays.asList(ClauseParser.parseClause("S(a)"), ClauseParser.parseClause("S(a)")));
+        assertEquals(3, database.countClauses());
+    }
+
+    @Test
+    public void testGetClauses_MergesShardsInIdOrder() {
+        List<Clause> newClauses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            newClauses.add(ClauseParser.parseClause("T" + i + "(a)"));
+        }
+        database.addClauses(newClauses);
+
+        ArrayList<Clause> clauses = database.getClauses(1, 5);
+        assertEquals(5, clauses.size());
+        for (int i = 1; i < clauses.size(); i++) {
+            assertTrue(clauses.get(i - 1).getId() < clauses.get(i).getId());
+        }
+        assertEquals(1, clauses.get(0).getId());
+    }
+
+    @Test
+    public void testGetUnresolvedClauses_ClaimsEachClauseOnce() throws InterruptedException {
+        List<Clause> newClauses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            newClauses.add(ClauseParser.parseClause("U" + i + "(a)"));
+        }
+        database.addClauses(newClauses);
+
+        Set<Integer> claimed = new HashSet<>();
+        while (database.hasUnresolvedClauses()) {
+            for (Clause clause : database.getUnresolvedClauses(4)) {
+                assertTrue(claimed.add(clause.getId()), "Clause " + clause.getId() + " was claimed twice");
+            }
+        }
+        assertEquals(22, claimed.size());
+    }
+
+    @Test
+    public void testGetUnresolvedClauses_BlocksWhenNoWork() throws InterruptedException {
+        while (database.hasUnresolvedClauses()) {
+            database.getUnresolvedClauses(5);
+        }
+
+        List<Clause> received = Collections.synchronizedList(new ArrayList<>());
+        Thread t = new Thread(() -> {
+            try {
+                received.addAll(database.getUnresolvedClauses(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        t.start();
+        Thread.sleep(100);
+        assertTrue(t.isAlive(), "Thread should block while there is nothing to claim");
+
+        Clause newClause = ClauseParser.parseClause("C(z)");
+        database.addClause(newClause);
+
+        t.join(5000);
+        assertFalse(t.isAlive(), "Thread should have terminated after being unblocked");
+        assertEquals(Collections.singletonList(newClause), received);
+    }
+
+    @Test
+    public void testFlushResolvents() throws InterruptedException {
+        database.getUnresolvedClauses(5);
+        database.addClause(ClauseParser.parseClause("P(x) ∨ R(z)"));
+        database.addClause(new Clause());
+        assertTrue(database.hasEmptyClause());
+
+        database.flushResolvents();
+        assertEquals(2, database.countClauses());
+        assertFalse(database.hasEmptyClause());
+
+        ArrayList<Clause> unresolved = new ArrayList<>();
+        while (database.hasUnresolvedClauses()) {
+            unresolved.addAll(database.getUnresolvedClauses(5));
+        }
+        assertEquals(2, unresolved.size());
+    }
+
+    @Test
+    public void testSetResolved() throws InterruptedException {
+        ArrayList<Clause> clauses = database.getClauses(1, 2);
+        database.setResolved(clauses);
+
+        database.addClause(ClauseParser.parseClause("A(x)"));
+        ArrayList<Clause> unresolved = new ArrayList<>();
+        while (database.hasUnresolvedClauses()) {
+            unresolved.addAll(database.getUnresolvedClauses(5));
+        }
+        assertEquals(Collections.singletonList(ClauseParser.parseClause("A(x)")), unresolved);
+    }
+
+    @Test
+    public void testMultiThreadedResolverOnShardedStore() {
+        List<Clause> clauses = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            clauses.add(ClauseParser.parseClause("¬P" + i + "(x) ∨ P" + (i + 1) + "(x)"));
+        }
+        clauses.add(ClauseParser.parseClause("P1(a)"));
+
+        MultiThreadedResolver resolver = new MultiThreadedResolver(new ShardedDatabase(clauses, IN_MEMORY_SHARDS));
+        try {
+            assertTrue(resolver.prove(ClauseParser.parseClause("¬P10(a)")));
+            assertFalse(resolver.prove(ClauseParser.parseClause("Q(a)")));
+        } finally {
+            resolver.closeDatabase();
+        }
+    }
+}
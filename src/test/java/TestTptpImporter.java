@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTptpImporter {
+
+    private Path resource(String name) throws URISyntaxException {
+        return Path.of(getClass().getResource("/tptp/" + name).toURI());
+    }
+
+    @Test
+    public void testLoadMapsNamesAndFollowsIncludes() throws Exception {
+        Problem problem = TptpImporter.load(resource("socrates.p"));
+
+        assertEquals("socrates.p", problem.getName());
+        assertEquals(ClauseParser.parseClause("¬mortal(Socrates)"), problem.getNegatedGoal());
+
+        // the included axioms come first, variables are renamed per clause
+        List<Clause> expected = ClauseParser.parseClauses(List.of(
+                "¬man(x) ∨ mortal(x)",
+                "¬mortal(x) ∨ ¬god(x)",
+                "man(Socrates)",
+                "¬man(x) ∨ greek(x)"));
+        assertEquals(expected, problem.getClauses());
+    }
+
+    @Test
+    public void testLoadedProblemIsProved() throws Exception {
+        Problem problem = TptpImporter.load(resource("socrates.p"));
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testPropositionalAtomsAndDefinedConstants() throws Exception {
+        Problem problem = TptpImporter.load(resource("rain.p"));
+
+        // the clause containing $true is a tautology and dropped, $false is dropped from its clause
+        assertEquals(4, problem.getClauses().size());
+        assertEquals(new Clause(Set.of(
+                new Literal("slippery", Constants.PROPOSITION_ARGUMENT, false))), problem.getNegatedGoal());
+
+        ResolutionTheoremProver prover = new ResolutionTheoremProver(problem.getClauses());
+        try {
+            assertTrue(prover.prove(problem.getNegatedGoal()));
+        } finally {
+            prover.closeDatabase();
+        }
+    }
+
+    @Test
+    public void testStreamDeliversChunks() throws Exception {
+        List<Integer> chunkSizes = new ArrayList<>();
+        long count = TptpImporter.stream(resource("rain.p"), 2, chunk -> chunkSizes.add(chunk.size()));
+
+        assertEquals(5, count);
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+    }
+
+    @Test
+    public void testUnsupportedInputIsRejectedWithPosition(@TempDir Path dir) throws IOException {
+        Path binary = dir.resolve("binary.p");
+        Files.writeString(binary, "cnf(a, axiom, p(X)).\ncnf(b, axiom, loves(X, Y)).\n");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> TptpImporter.load(binary));
+        assertTrue(error.getMessage().contains("line 2"), error.getMessage());
+        assertTrue(error.getMessage().contains("arity"), error.getMessage());
+
+        Path function = dir.resolve("function.p");
+        Files.writeString(function, "cnf(a, axiom, p(f(X))).\n");
+        assertThrows(IllegalArgumentException.class, () -> TptpImporter.load(function));
+
+        Path equality = dir.resolve("equality.p");
+        Files.writeString(equality, "cnf(a, axiom, a = b).\n");
+        assertThrows(IllegalArgumentException.class, () -> TptpImporter.load(equality));
+
+        Path fof = dir.resolve("fof.p");
+        Files.writeString(fof, "fof(a, axiom, ![X]: p(X)).\n");
+        assertThrows(IllegalArgumentException.class, () -> TptpImporter.load(fof));
+
+        Path collision = dir.resolve("collision.p");
+        Files.writeString(collision, "cnf(a, axiom, p(a_b)).\ncnf(b, axiom, ~p(ab)).\n");
+        assertThrows(IllegalArgumentException.class, () -> TptpImporter.load(collision));
+    }
+}
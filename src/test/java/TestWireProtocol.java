@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestWireProtocol {
+
+    @Test
+    public void testClausesRoundTrip() throws IOException {
+        Clause clause1 = ClauseParser.parseClause("¬Man(x) ∨ Mortal(x)");
+        clause1.setId(7);
+        Clause clause2 = ClauseParser.parseClause("Man(Socrates)");
+        clause2.setDepth(3);
+        Clause empty = new Clause();
+
+        byte[] payload = WireProtocol.encodeClauses(Arrays.asList(clause1, clause2, empty));
+        List<Clause> decoded = WireProtocol.decodeClauses(new DataInputStream(new ByteArrayInputStream(payload)));
+
+        assertEquals(Arrays.asList(clause1, clause2, empty), decoded);
+        assertEquals(7, decoded.get(0).getId());
+        assertEquals(-1, decoded.get(1).getId());
+        assertEquals(3, decoded.get(1).getDepth());
+        assertTrue(decoded.get(2).isEmpty());
+    }
+
+    @Test
+    public void testWorkRoundTrip() throws IOException {
+        ProverConfig config = ProverConfig.defaults().withClauseBatchSize(40).withResolventSaveThreshold(7)
+                .withLimits(new ClauseLimits(3, 5)).withSelection(LiteralSelection.parse("maximal", "Q,P"))
+                .withUnresolvedBatchSize(9);
+        Clause clause = ClauseParser.parseClause("P(x) ∨ Q(x)");
+        clause.setId(4);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                WireProtocol.encodeWork(config, List.of(clause))));
+        ProverConfig decoded = WireProtocol.readConfig(in);
+        assertEquals(40, decoded.getClauseBatchSize());
+        assertEquals(7, decoded.getResolventSaveThreshold());
+        assertEquals(new ClauseLimits(3, 5), decoded.getLimits());
+        assertEquals(LiteralSelection.Kind.MAXIMAL, decoded.getSelection().getKind());
+        assertEquals(List.of("Q", "P"), decoded.getSelection().getPrecedence());
+        assertEquals(List.of(clause), WireProtocol.decodeClauses(in));
+
+        in = new DataInputStream(new ByteArrayInputStream(
+                WireProtocol.encodeWork(ProverConfig.defaults(), List.of())));
+        assertSame(LiteralSelection.ALL, WireProtocol.readConfig(in).getSelection());
+    }
+
+    @Test
+    public void testFrameRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        WireProtocol.writeFrame(out, WireProtocol.FETCH_CLAUSES, WireProtocol.encodeRange(-299, 1));
+        WireProtocol.writeFrame(out, WireProtocol.SHUTDOWN);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        WireProtocol.Frame fetch = WireProtocol.readFrame(in);
+        assertEquals(WireProtocol.FETCH_CLAUSES, fetch.getType());
+        DataInputStream payload = fetch.payload();
+        assertEquals(-299, payload.readInt());
+        assertEquals(1, payload.readInt());
+
+        assertEquals(WireProtocol.SHUTDOWN, WireProtocol.readFrame(in).getType());
+    }
+
+    @Test
+    public void testReadFrameRejectsNegativeLength() {
+        byte[] corrupt = {WireProtocol.WORK, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(corrupt));
+        assertThrows(IOException.class, () -> WireProtocol.readFrame(in));
+    }
+}
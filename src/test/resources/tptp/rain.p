@@ -0,0 +1,7 @@
+% Propositional problem: rain or sprinkler wets the grass, wet grass is slippery
+cnf(rain_or_sprinkler, axiom, rain | sprinkler).
+cnf(rain_wets, axiom, ~rain | wet_grass).
+cnf(sprinkler_wets, axiom, ~sprinkler | wet_grass).
+cnf(wet_is_slippery, axiom, ~wet_grass | slippery).
+cnf(trivial, axiom, slippery | $true).
+cnf(prove_slippery, negated_conjecture, ~slippery | $false).
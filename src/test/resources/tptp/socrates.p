@@ -0,0 +1,21 @@
+%------------------------------------------------------------------------------
+% File     : socrates.p
+% Domain   : Syllogisms
+% Problem  : All men are mortal, Socrates is a man, so Socrates is mortal
+% English  : Uses the axioms in socrates.ax and the arities the prover supports
+%------------------------------------------------------------------------------
+include('socrates.ax').
+
+/* the person in question */
+cnf(socrates_is_a_man, axiom,
+    man(socrates)).
+
+cnf('greek philosopher', axiom,
+    ( ~ man(X)
+    | greek(X) ),
+    file('socrates.ax', unknown),
+    [description('every man here is greek')]).
+
+cnf(prove_socrates_is_mortal, negated_conjecture,
+    ~ mortal(socrates)).
+%------------------------------------------------------------------------------